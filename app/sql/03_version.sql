@@ -0,0 +1,9 @@
+USE tpi_prog2;
+
+-- Control de concurrencia optimista: cada UPDATE incrementa la versión y exige la versión leída
+-- (UPDATE ... SET version = version + 1 WHERE id = ? AND version = ?). Las filas existentes comienzan en 0.
+ALTER TABLE paciente
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+ALTER TABLE historia_clinica
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
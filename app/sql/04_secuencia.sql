@@ -0,0 +1,17 @@
+USE tpi_prog2;
+
+-- Secuencias para la asignación de IDs por bloques (db.ids.blockSize > 0).
+-- Cada reserva avanza 'siguiente' en el tamaño del bloque con una única sentencia atómica:
+--   UPDATE secuencia SET siguiente = LAST_INSERT_ID(siguiente + ?) WHERE nombre = ?
+-- Mientras el asignador esté habilitado, todas las altas deben obtener sus IDs de esta tabla
+-- (las inserciones con AUTO_INCREMENT podrían ocupar IDs de un bloque ya reservado).
+CREATE TABLE secuencia (
+    nombre VARCHAR(64) PRIMARY KEY,
+    siguiente BIGINT NOT NULL
+);
+
+INSERT INTO secuencia (nombre, siguiente)
+SELECT 'paciente', COALESCE(MAX(id), 0) + 1 FROM paciente;
+
+INSERT INTO secuencia (nombre, siguiente)
+SELECT 'historia_clinica', COALESCE(MAX(id), 0) + 1 FROM historia_clinica;
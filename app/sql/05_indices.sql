@@ -0,0 +1,16 @@
+USE tpi_prog2;
+
+-- Índices ajustados a las consultas de los DAOs (ver explain_dao.sql para verificarlos).
+--
+-- Listados paginados y recorridos por stream:
+--   ... WHERE p.eliminado = 0 [AND p.id < ?] ORDER BY p.id DESC LIMIT ?
+--   ... WHERE eliminado = 0 [AND id < ?] ORDER BY id DESC LIMIT ?
+-- El índice (eliminado, id) resuelve el filtro, el rango del cursor y el orden sin filesort.
+CREATE INDEX idx_paciente_eliminado_id ON paciente (eliminado, id);
+CREATE INDEX idx_hc_eliminado_id ON historia_clinica (eliminado, id);
+
+-- Búsquedas y ordenamientos por nombre (apellido, nombre), incluidas las búsquedas por prefijo (LIKE 'abc%').
+CREATE INDEX idx_paciente_apellido_nombre ON paciente (apellido, nombre);
+
+-- El JOIN de historia_clinica por paciente_id y las búsquedas por dni, nro_historia e id ya usan
+-- los índices UNIQUE y PRIMARY KEY de 01_create.sql.
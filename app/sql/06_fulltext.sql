@@ -0,0 +1,8 @@
+USE tpi_prog2;
+
+-- Búsqueda de texto completo sobre los campos clínicos (HistoriaClinicaService.buscarPorTexto).
+-- La consulta usa MATCH(antecedentes, medicacion_actual, observaciones) AGAINST (? IN NATURAL LANGUAGE MODE),
+-- que requiere un índice FULLTEXT con exactamente esas columnas.
+-- Nota: InnoDB ignora palabras de menos de innodb_ft_min_token_size (3) caracteres y las stopwords.
+ALTER TABLE historia_clinica
+    ADD FULLTEXT INDEX ft_hc_textos (antecedentes, medicacion_actual, observaciones);
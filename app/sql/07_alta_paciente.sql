@@ -0,0 +1,41 @@
+USE tpi_prog2;
+
+-- Alta de un paciente con su historia clínica en un solo viaje al servidor (PacienteDao.createConHistoria).
+-- Reemplaza dos INSERT con sus claves generadas. Los IDs se devuelven como un result set de una fila
+-- (en lugar de parámetros OUT, que el driver lee con una consulta adicional). Si p_id / h_id son NULL se
+-- usa AUTO_INCREMENT; con la asignación por bloques (db.ids.blockSize > 0) llegan ya asignados.
+-- No confirma: se ejecuta dentro de la transacción del servicio, que revierte ambas filas si algo falla.
+DROP PROCEDURE IF EXISTS sp_alta_paciente_con_historia;
+
+DELIMITER //
+CREATE PROCEDURE sp_alta_paciente_con_historia(
+    IN p_id BIGINT,
+    IN p_eliminado BOOLEAN,
+    IN p_nombre VARCHAR(80),
+    IN p_apellido VARCHAR(80),
+    IN p_dni VARCHAR(15),
+    IN p_fecha_nacimiento DATE,
+    IN h_id BIGINT,
+    IN h_eliminado BOOLEAN,
+    IN h_nro_historia VARCHAR(20),
+    IN h_grupo_sanguineo VARCHAR(3),
+    IN h_antecedentes TEXT,
+    IN h_medicacion_actual TEXT,
+    IN h_observaciones TEXT,
+    IN h_fecha_apertura DATE
+)
+BEGIN
+    DECLARE v_paciente_id BIGINT;
+
+    INSERT INTO paciente (id, eliminado, nombre, apellido, dni, fecha_nacimiento)
+    VALUES (p_id, p_eliminado, p_nombre, p_apellido, p_dni, p_fecha_nacimiento);
+    SET v_paciente_id = IFNULL(p_id, LAST_INSERT_ID());
+
+    INSERT INTO historia_clinica (id, eliminado, nro_historia, grupo_sanguineo, antecedentes,
+                                  medicacion_actual, observaciones, fecha_apertura, paciente_id)
+    VALUES (h_id, h_eliminado, h_nro_historia, h_grupo_sanguineo, h_antecedentes,
+            h_medicacion_actual, h_observaciones, h_fecha_apertura, v_paciente_id);
+
+    SELECT v_paciente_id AS paciente_id, IFNULL(h_id, LAST_INSERT_ID()) AS historia_id;
+END //
+DELIMITER ;
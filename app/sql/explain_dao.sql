@@ -0,0 +1,76 @@
+USE tpi_prog2;
+
+-- Verificación de planes de ejecución de las consultas de los DAOs (ejecutar tras 05_indices.sql).
+-- Para cada EXPLAIN se indica el índice esperado en la columna 'key'. Una fila con type = ALL
+-- (recorrido completo de la tabla) o con 'Using filesort' en 'Extra' indica una regresión.
+-- Los parámetros (?) se reemplazan por valores de ejemplo.
+-- La misma verificación, sobre las sentencias que emiten realmente los DAOs, se ejecuta en forma automática
+-- con el test dao.impl.ExplainDaoTest (gradle test; se omite si no hay un MySQL local).
+
+-- PacienteDaoImpl.readPage / readResumenPage (primera página y siguientes).
+-- Esperado: p -> idx_paciente_eliminado_id (ref/range, sin filesort); hc -> paciente_id (eq_ref).
+EXPLAIN SELECT p.*, hc.id AS hc_id, hc.eliminado AS hc_eliminado, hc.version AS hc_version, hc.nro_historia,
+       hc.grupo_sanguineo, hc.fecha_apertura
+FROM paciente p
+LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0
+WHERE p.eliminado = 0 ORDER BY p.id DESC LIMIT 21;
+
+EXPLAIN SELECT p.id, p.dni, p.nombre, p.apellido, hc.nro_historia, hc.grupo_sanguineo
+FROM paciente p
+LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0
+WHERE p.eliminado = 0 AND p.id < 1000 ORDER BY p.id DESC LIMIT 21;
+
+-- PacienteDaoImpl.readAll / streamAll / streamResumen.
+-- Esperado: p -> idx_paciente_eliminado_id; hc -> paciente_id (eq_ref).
+EXPLAIN SELECT p.*, hc.id AS hc_id FROM paciente p
+LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0
+WHERE p.eliminado = 0 ORDER BY p.id;
+
+-- PacienteDaoImpl.read / readByIds.
+-- Esperado: p -> PRIMARY (const/range); hc -> paciente_id.
+EXPLAIN SELECT p.*, hc.id AS hc_id FROM paciente p
+LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0
+WHERE p.id = 1 AND p.eliminado = 0;
+
+EXPLAIN SELECT p.*, hc.id AS hc_id FROM paciente p
+LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0
+WHERE p.eliminado = 0 AND p.id IN (1, 2, 3);
+
+-- PacienteDaoImpl.findByDni / findByDnis / upsertPorDni.
+-- Esperado: p -> dni (const/range).
+EXPLAIN SELECT p.*, hc.id AS hc_id FROM paciente p
+LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0
+WHERE p.dni = '30123456' AND p.eliminado = 0;
+
+EXPLAIN SELECT id, dni, version FROM paciente
+WHERE dni IN ('30123456', '31987654');
+
+-- Búsqueda por nombre. Esperado: idx_paciente_apellido_nombre (range).
+EXPLAIN SELECT id, dni, nombre, apellido FROM paciente
+WHERE apellido LIKE 'Per%' ORDER BY apellido, nombre;
+
+-- HistoriaClinicaDaoImpl.readPage / readAll / streamAll.
+-- Esperado: idx_hc_eliminado_id (ref/range, sin filesort).
+EXPLAIN SELECT id, eliminado, version, nro_historia, grupo_sanguineo, fecha_apertura FROM historia_clinica
+WHERE eliminado = 0 ORDER BY id DESC LIMIT 21;
+
+EXPLAIN SELECT id, eliminado, version, nro_historia, grupo_sanguineo, fecha_apertura FROM historia_clinica
+WHERE eliminado = 0 AND id < 1000 ORDER BY id DESC LIMIT 21;
+
+EXPLAIN SELECT * FROM historia_clinica WHERE eliminado = 0 ORDER BY id;
+
+-- HistoriaClinicaDaoImpl.read / readByIds / cargarTextos. Esperado: PRIMARY.
+EXPLAIN SELECT id, antecedentes, medicacion_actual, observaciones FROM historia_clinica WHERE id IN (1, 2, 3);
+
+-- HistoriaClinicaDaoImpl.deleteByPacienteId y lectura de IDs del upsert. Esperado: paciente_id.
+EXPLAIN UPDATE historia_clinica SET eliminado = 1, version = version + 1 WHERE paciente_id = 1;
+
+EXPLAIN SELECT id, paciente_id FROM historia_clinica WHERE paciente_id IN (1, 2, 3);
+
+-- Actualizaciones con control optimista. Esperado: PRIMARY.
+EXPLAIN UPDATE paciente SET nombre = 'X', version = version + 1 WHERE id = 1 AND version = 0;
+
+-- PacienteDaoImpl.deleteConHistoria (baja conjunta). Esperado: p -> PRIMARY (const), hc -> paciente_id.
+EXPLAIN UPDATE paciente p JOIN historia_clinica hc ON hc.paciente_id = p.id
+SET p.eliminado = 1, p.version = p.version + 1, hc.eliminado = 1, hc.version = hc.version + 1
+WHERE p.id = 1;
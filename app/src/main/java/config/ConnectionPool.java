@@ -0,0 +1,415 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool acotado de conexiones JDBC reutilizables.
+ * <p>
+ * Mantiene un conjunto de conexiones físicas abiertas contra MySQL para evitar el costo del
+ * handshake TCP/autenticación en cada operación. Las conexiones se entregan envueltas en un proxy:
+ * al invocar {@link Connection#close()} la conexión física no se cierra, sino que se restaura su estado
+ * (auto-commit, solo lectura, aislamiento) y se devuelve al pool.
+ * </p>
+ * <p>
+ * Características configurables: tamaño mínimo y máximo, tiempo máximo de espera al pedir una conexión,
+ * validación al entregar y desalojo periódico de conexiones ociosas.
+ * </p>
+ * <p>
+ * Cada conexión física mantiene además una {@link StatementCache} LRU: las llamadas a
+ * {@code prepareStatement(sql)} y {@code prepareStatement(sql, autoGeneratedKeys)} reutilizan la sentencia
+ * ya preparada para ese SQL. Por defecto se habilita la preparación del lado del servidor
+ * ({@code useServerPrepStmts}) para que la reutilización también evite el re-parseo en MySQL.
+ * </p>
+ */
+public class ConnectionPool {
+
+    /** Conexiones usadas hace menos de este tiempo se entregan sin volver a validarlas. */
+    private static final long VALIDATION_BYPASS_MS = 500;
+
+    private final String url;
+    private final Properties connectionProps;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final int validationTimeoutSec;
+    private final long idleTimeoutMs;
+    private final int statementCacheSize;
+    private final StatementCache.Stats statementCacheStats = new StatementCache.Stats();
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /**
+     * Crea el pool a partir de las propiedades de configuración y abre las conexiones mínimas.
+     *
+     * @param p Propiedades cargadas desde 'db.properties'.
+     * @throws IllegalArgumentException Si los tamaños configurados son inconsistentes.
+     */
+    public ConnectionPool(Properties p) {
+        this.url = p.getProperty("db.url");
+        this.connectionProps = new Properties();
+        this.connectionProps.setProperty("user", p.getProperty("db.user", ""));
+        this.connectionProps.setProperty("password", p.getProperty("db.password", ""));
+        // La caché propia reemplaza a la del driver; el driver solo mantiene los handles del servidor.
+        this.connectionProps.setProperty("useServerPrepStmts", p.getProperty("db.stmtCache.useServerPrepStmts", "true"));
+        this.connectionProps.setProperty("cachePrepStmts", "false");
+        // Reescribe los lotes de INSERT como un único INSERT multi-fila.
+        this.connectionProps.setProperty("rewriteBatchedStatements", "true");
+        // Las sentencias con fetchSize > 0 leen el resultado por bloques mediante un cursor del servidor.
+        this.connectionProps.setProperty("useCursorFetch", "true");
+
+        this.minSize = intProp(p, "db.pool.minSize", 2);
+        this.maxSize = intProp(p, "db.pool.maxSize", 10);
+        this.borrowTimeoutMs = longProp(p, "db.pool.borrowTimeoutMs", 30_000);
+        this.validationTimeoutSec = intProp(p, "db.pool.validationTimeoutSec", 2);
+        this.idleTimeoutMs = longProp(p, "db.pool.idleTimeoutMs", 600_000);
+        long evictionIntervalMs = longProp(p, "db.pool.evictionIntervalMs", 60_000);
+        this.statementCacheSize = intProp(p, "db.stmtCache.size", 64);
+
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Configuración de pool inválida: minSize=" + minSize + ", maxSize=" + maxSize);
+        }
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdle, evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo el tiempo configurado si todas están en uso.
+     * La conexión se valida antes de entregarse; las conexiones inválidas se descartan y se reemplazan.
+     *
+     * @return Una conexión lista para usar. Debe cerrarse para devolverla al pool.
+     * @throws SQLTimeoutException Si no se libera ninguna conexión dentro del tiempo de espera.
+     * @throws SQLException Si el pool está cerrado o no se puede abrir una conexión nueva.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Tiempo de espera agotado (" + borrowTimeoutMs + " ms) al obtener una conexión del pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión del pool", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isUsable(pc)) {
+                    return pc.lease();
+                }
+                destroy(pc);
+            }
+            return create().lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra el pool: rechaza nuevos pedidos, cierra las conexiones ociosas y detiene el desalojo.
+     * Las conexiones prestadas se cierran físicamente al ser devueltas.
+     */
+    public void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+    }
+
+    /**
+     * Abre una conexión física fuera del pool, con la misma configuración, sin consumir un permiso.
+     * Es para componentes que escriben en modo auto-commit mientras su llamador retiene una conexión del pool
+     * dentro de una transacción (ej. la reserva de bloques de IDs), y que no deben esperar a que se libere otra.
+     * No se valida ni se desaloja: quien la obtiene debe validarla y cerrarla.
+     *
+     * @return Una conexión física nueva.
+     * @throws SQLException Si el pool está cerrado o no se puede conectar.
+     */
+    public Connection openDedicated() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        return DriverManager.getConnection(url, connectionProps);
+    }
+
+    /**
+     * Cantidad total de conexiones físicas abiertas (ociosas + prestadas).
+     *
+     * @return Número de conexiones físicas.
+     */
+    public int getTotalConnections() {
+        return total.get();
+    }
+
+    /**
+     * Cantidad de conexiones ociosas disponibles para ser prestadas.
+     *
+     * @return Número de conexiones ociosas.
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Tamaño máximo configurado del pool.
+     *
+     * @return Número máximo de conexiones simultáneas.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Contadores acumulados de las cachés de sentencias de todas las conexiones del pool.
+     *
+     * @return Estadísticas de aciertos, fallos y desalojos.
+     */
+    public StatementCache.Stats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    // --- Gestión interna ---
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProps);
+        total.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pc) {
+        total.decrementAndGet();
+        if (pc.statements != null) {
+            pc.statements.closeAll();
+        }
+        try {
+            pc.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar una conexión del pool: " + e.getMessage());
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastUsed < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recibe una conexión prestada, restaura su estado por defecto y la reincorpora al pool.
+     * Si la conexión quedó en un estado inválido o el pool está cerrado, se descarta.
+     */
+    private void release(PooledConnection pc) {
+        try {
+            boolean reusable = !closed && pc.reset();
+            if (reusable) {
+                pc.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pc);
+            } else {
+                destroy(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long limit = System.currentTimeMillis() - idleTimeoutMs;
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > minSize) {
+            PooledConnection pc = it.next();
+            if (pc.lastUsed < limit && idle.remove(pc)) {
+                destroy(pc);
+            }
+        }
+        fillToMinimum();
+    }
+
+    private void fillToMinimum() {
+        while (!closed && total.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pc = create();
+                pc.lastUsed = System.currentTimeMillis();
+                idle.offerLast(pc);
+            } catch (SQLException e) {
+                System.err.println("No se pudo precargar una conexión del pool: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private static int intProp(Properties p, String key, int def) {
+        String v = p.getProperty(key);
+        return (v == null || v.isBlank()) ? def : Integer.parseInt(v.trim());
+    }
+
+    private static long longProp(Properties p, String key, long def) {
+        String v = p.getProperty(key);
+        return (v == null || v.isBlank()) ? def : Long.parseLong(v.trim());
+    }
+
+    /**
+     * Conexión física administrada por el pool junto con su estado de préstamo.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final int defaultIsolation;
+        private final StatementCache statements;
+        private volatile long lastUsed;
+
+        /**
+         * Indica si el préstamo actual cambió el modo de solo lectura o el aislamiento. Sin
+         * {@code useLocalSessionState}, consultarlos en cada devolución costaría una consulta al servidor cada uno.
+         */
+        private volatile boolean sessionChanged;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCacheStats)
+                    : null;
+        }
+
+        /**
+         * Entrega un proxy nuevo sobre la conexión física. Cada préstamo tiene su propio proxy,
+         * de modo que un cierre repetido o tardío de un préstamo anterior no afecte al actual.
+         */
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+
+        /**
+         * Revierte cualquier transacción pendiente y restaura los valores por defecto de la sesión. El modo de
+         * solo lectura y el aislamiento solo se restauran si el préstamo los cambió.
+         *
+         * @return true si la conexión puede volver a prestarse.
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (sessionChanged) {
+                    physical.setReadOnly(false);
+                    physical.setTransactionIsolation(defaultIsolation);
+                    sessionChanged = false;
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Manejador del proxy entregado al usuario: intercepta {@code close()} e {@code isClosed()},
+     * resuelve {@code prepareStatement} contra la caché de sentencias y delega el resto de las llamadas
+     * a la conexión física.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pc;
+        private boolean returned;
+
+        LeaseHandler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            if ("setReadOnly".equals(method.getName()) || "setTransactionIsolation".equals(method.getName())) {
+                pc.sessionChanged = true;
+            }
+            if (pc.statements != null && "prepareStatement".equals(method.getName())) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return pc.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS, (Connection) proxy);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return pc.statements.prepare((String) args[0], (Integer) args[1], (Connection) proxy);
+                }
+                if (types.length == 3 && (Integer) args[1] == ResultSet.TYPE_FORWARD_ONLY
+                        && (Integer) args[2] == ResultSet.CONCUR_READ_ONLY) {
+                    // Son los valores por defecto: equivale a prepareStatement(sql).
+                    return pc.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS, (Connection) proxy);
+                }
+            }
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
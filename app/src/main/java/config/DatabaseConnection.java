@@ -3,7 +3,6 @@ package config;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -11,9 +10,33 @@ import java.util.Properties;
  * Clase de configuración responsable de establecer la conexión con la base de datos.
  * Lee los parámetros de conexión (URL, usuario, contraseña) desde un archivo externo 'db.properties'
  * cargándolo desde el Classpath del proyecto.
+ * <p>
+ * Las conexiones se obtienen de un {@link ConnectionPool} compartido que se crea en el primer uso
+ * y se cierra automáticamente al finalizar la JVM.
+ * </p>
  */
 public class DatabaseConnection {
 
+    /**
+     * Contenedor de las propiedades cargadas una única vez desde 'db.properties'.
+     */
+    private static final class PropsHolder {
+        private static final Properties PROPS = loadProps();
+    }
+
+    /**
+     * Contenedor del pool compartido (inicialización diferida y segura entre hilos).
+     */
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = createPool();
+
+        private static ConnectionPool createPool() {
+            ConnectionPool pool = new ConnectionPool(PropsHolder.PROPS);
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "db-pool-shutdown"));
+            return pool;
+        }
+    }
+
     /**
      * Carga las propiedades de configuración buscando el archivo 'db.properties'
      * dentro del Classpath (carpeta src/main/resources).
@@ -40,17 +63,57 @@ public class DatabaseConnection {
     }
 
     /**
-     * Obtiene una nueva conexión a la base de datos MySQL.
+     * Obtiene un parámetro numérico de configuración de 'db.properties'.
+     *
+     * @param key La clave de la propiedad (ej. "db.batch.size").
+     * @param defaultValue El valor a devolver si la propiedad no está definida.
+     * @return El valor configurado o el valor por defecto.
+     * @throws NumberFormatException Si el valor configurado no es un número entero.
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String v = PropsHolder.PROPS.getProperty(key);
+        return (v == null || v.isBlank()) ? defaultValue : Integer.parseInt(v.trim());
+    }
+
+    /**
+     * Obtiene un parámetro decimal de configuración de 'db.properties'.
+     *
+     * @param key La clave de la propiedad (ej. "db.bloom.fpp").
+     * @param defaultValue El valor a devolver si la propiedad no está definida.
+     * @return El valor configurado o el valor por defecto.
+     * @throws NumberFormatException Si el valor configurado no es un número.
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+        String v = PropsHolder.PROPS.getProperty(key);
+        return (v == null || v.isBlank()) ? defaultValue : Double.parseDouble(v.trim());
+    }
+
+    /**
+     * Obtiene una conexión a la base de datos MySQL desde el pool compartido.
+     * Al cerrarla, la conexión se devuelve al pool en lugar de cerrarse físicamente.
      *
      * @return Una conexión activa a la base de datos.
-     * @throws SQLException Si ocurre un error al intentar conectar (ej. credenciales inválidas o servidor no disponible).
+     * @throws SQLException Si ocurre un error al intentar conectar (ej. credenciales inválidas o servidor no disponible)
+     *                      o si se agota el tiempo de espera del pool.
      */
     public static Connection getConnection() throws SQLException {
-        Properties p = loadProps();
-        return DriverManager.getConnection(
-                p.getProperty("db.url"),
-                p.getProperty("db.user"),
-                p.getProperty("db.password")
-        );
+        return PoolHolder.POOL.getConnection();
+    }
+
+    /**
+     * Obtiene el pool de conexiones compartido (por ejemplo, para consultar su tamaño).
+     *
+     * @return El pool de conexiones.
+     */
+    public static ConnectionPool getPool() {
+        return PoolHolder.POOL;
+    }
+
+    /**
+     * Cierra el pool de conexiones y libera las conexiones físicas ociosas.
+     * Se invoca automáticamente al finalizar la JVM.
+     */
+    public static void shutdown() {
+        PoolHolder.POOL.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,347 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU de {@link PreparedStatement} asociada a una conexión física del pool.
+ * <p>
+ * La clave es el texto SQL (más el indicador de claves generadas). Los DAOs siguen usando
+ * try-with-resources normalmente: al cerrar la sentencia se limpian sus parámetros y vuelve a la caché
+ * en lugar de cerrarse, de modo que la siguiente ejecución del mismo SQL reutiliza la sentencia ya
+ * preparada (y su handle en el servidor cuando {@code useServerPrepStmts=true}).
+ * </p>
+ * <p>
+ * Los ajustes de ejecución que un DAO cambie sobre la sentencia ({@code setFetchSize}, {@code setMaxRows},
+ * {@code setQueryTimeout}, {@code setMaxFieldSize}) se restauran a los valores del driver al devolverla, para
+ * que no se hereden entre usos del mismo SQL (ej. el modo streaming de {@code JdbcStreams}).
+ * </p>
+ * <p>
+ * Las sentencias entregadas nunca exponen los objetos del driver: {@code getConnection()} devuelve el proxy del
+ * préstamo del pool (no la conexión física) y {@code getStatement()} de sus resultados devuelve el proxy de la
+ * sentencia, de modo que cerrarlos pasa siempre por el pool y por esta caché.
+ * </p>
+ * <p>
+ * No es segura entre hilos: cada instancia pertenece a una única conexión, que solo usa un hilo a la vez.
+ * </p>
+ */
+public final class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Stats stats;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /**
+     * Crea una caché vacía para la conexión física indicada.
+     *
+     * @param physical La conexión física real (no el proxy del pool).
+     * @param maxSize Cantidad máxima de sentencias retenidas.
+     * @param stats Contadores compartidos donde se registran aciertos, fallos y desalojos.
+     */
+    StatementCache(Connection physical, int maxSize, Stats stats) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                stats.evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Devuelve una sentencia preparada para el SQL indicado, reutilizando la de la caché si está libre.
+     * Si la sentencia cacheada está en uso (dos sentencias abiertas con el mismo SQL), se prepara una
+     * sentencia no cacheada, que se cierra físicamente al cerrarla.
+     *
+     * @param sql El texto SQL.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} o {@link Statement#NO_GENERATED_KEYS}.
+     * @param lease El proxy del préstamo que pide la sentencia (lo que devuelve su {@code getConnection()}).
+     * @return Una sentencia lista para asignar parámetros y ejecutar.
+     * @throws SQLException Si el driver no puede preparar la sentencia.
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection lease) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        Entry e = entries.get(key);
+        if (e != null && !e.inUse && (e.evicted || e.ps.isClosed())) {
+            // Se descartó al no poder restaurar sus ajustes, o el driver la cerró.
+            entries.remove(key);
+            e.closeQuietly();
+            e = null;
+        }
+        if (e != null) {
+            if (!e.inUse) {
+                stats.hits.incrementAndGet();
+                e.prestar(lease);
+                return e.proxy;
+            }
+            stats.misses.incrementAndGet();
+            Entry suelta = preparar(sql, autoGeneratedKeys);
+            suelta.evicted = true; // No se cachea: se cierra físicamente al cerrarla.
+            suelta.prestar(lease);
+            return suelta.proxy;
+        }
+        stats.misses.incrementAndGet();
+        e = preparar(sql, autoGeneratedKeys);
+        e.prestar(lease);
+        entries.put(key, e);
+        return e.proxy;
+    }
+
+    private Entry preparar(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        try {
+            return new Entry(ps);
+        } catch (SQLException ex) {
+            ps.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias cacheadas. Se invoca al descartar la conexión física.
+     */
+    void closeAll() {
+        for (Entry e : entries.values()) {
+            e.evict();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Clave de la caché: SQL y modo de claves generadas.
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return autoGeneratedKeys == k.autoGeneratedKeys && sql.equals(k.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Sentencia cacheada junto con el proxy que se entrega a los DAOs.
+     */
+    private static final class Entry implements InvocationHandler {
+        private final PreparedStatement ps;
+        private final PreparedStatement proxy;
+        private final int fetchSize;
+        private final long maxRows;
+        private final int queryTimeout;
+        private final int maxFieldSize;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean ajustada;
+        private Connection lease;
+
+        Entry(PreparedStatement ps) throws SQLException {
+            this.ps = ps;
+            this.fetchSize = ps.getFetchSize();
+            this.maxRows = ps.getLargeMaxRows();
+            this.queryTimeout = ps.getQueryTimeout();
+            this.maxFieldSize = ps.getMaxFieldSize();
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        /**
+         * Entrega la sentencia a un préstamo de la conexión.
+         */
+        void prestar(Connection lease) {
+            this.lease = lease;
+            this.inUse = true;
+        }
+
+        /**
+         * Saca la sentencia de la caché. Si está en uso, el cierre físico se difiere hasta que el DAO la cierre.
+         */
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Vuelve los ajustes de ejecución a los que tenía la sentencia recién preparada.
+         */
+        private void restaurarAjustes() throws SQLException {
+            ajustada = false;
+            ps.setFetchSize(fetchSize);
+            ps.setLargeMaxRows(maxRows);
+            ps.setQueryTimeout(queryTimeout);
+            ps.setMaxFieldSize(maxFieldSize);
+        }
+
+        private void closeQuietly() {
+            try {
+                ps.close();
+            } catch (SQLException ignore) {
+                // La sentencia se descarta de todos modos.
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        inUse = false;
+                        lease = null;
+                        if (evicted) {
+                            closeQuietly();
+                        } else {
+                            ps.clearParameters();
+                            ps.clearBatch();
+                            ps.clearWarnings();
+                            if (ajustada) {
+                                try {
+                                    restaurarAjustes();
+                                } catch (SQLException ex) {
+                                    evicted = true;
+                                    closeQuietly();
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                case "setMaxFieldSize":
+                    ajustada = true;
+                    break;
+                case "isClosed":
+                    return !inUse || ps.isClosed();
+                case "getConnection":
+                    if (!inUse) {
+                        throw new SQLException("La sentencia ya fue cerrada");
+                    }
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!inUse) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            Object r;
+            try {
+                r = method.invoke(ps, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return r instanceof ResultSet ? resultados((ResultSet) r) : r;
+        }
+
+        /**
+         * Envuelve un resultado para que {@code getStatement()} devuelva el proxy y no la sentencia del driver.
+         */
+        private ResultSet resultados(ResultSet rs) {
+            PreparedStatement sentencia = proxy;
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "getStatement":
+                                return sentencia;
+                            case "equals":
+                                return p == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(p);
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(rs, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Contadores de uso de las cachés de sentencias, compartidos por todas las conexiones del pool.
+     */
+    public static final class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        /**
+         * @return Cantidad de sentencias reutilizadas desde la caché.
+         */
+        public long getHits() {
+            return hits.get();
+        }
+
+        /**
+         * @return Cantidad de sentencias que debieron prepararse nuevamente.
+         */
+        public long getMisses() {
+            return misses.get();
+        }
+
+        /**
+         * @return Cantidad de sentencias desalojadas por superar el tamaño máximo.
+         */
+        public long getEvictions() {
+            return evictions.get();
+        }
+
+        /**
+         * @return Proporción de aciertos sobre el total de pedidos (0 si no hubo pedidos).
+         */
+        public double getHitRatio() {
+            long h = hits.get();
+            long total = h + misses.get();
+            return total == 0 ? 0.0 : (double) h / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("StatementCache{hits=%d, misses=%d, evictions=%d, hitRatio=%.2f}",
+                    getHits(), getMisses(), getEvictions(), getHitRatio());
+        }
+    }
+}
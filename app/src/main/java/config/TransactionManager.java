@@ -2,14 +2,50 @@ package config;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Gestor de transacciones que envuelve una conexión JDBC para manejar operaciones atómicas.
  * Implementa la interfaz AutoCloseable para asegurar que los recursos se liberen
  * correctamente, realizando un rollback automático si la transacción no se completó.
+ * <p>
+ * {@link #inTransaction(TransactionOptions, Work)} encapsula el ciclo completo (conexión del pool, commit,
+ * rollback y cierre) y reintenta las transacciones abortadas por deadlock o por espera de bloqueo agotada.
+ * </p>
  */
 public class TransactionManager implements AutoCloseable {
 
+    /**
+     * Código de error de MySQL para un deadlock detectado (la transacción fue revertida por el servidor).
+     */
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    /**
+     * Código de error de MySQL para una espera de bloqueo que superó {@code innodb_lock_wait_timeout}.
+     */
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    /**
+     * SQLState estándar de fallo de serialización.
+     */
+    private static final String SQLSTATE_SERIALIZATION_FAILURE = "40001";
+
+    /**
+     * Trabajo a ejecutar dentro de una transacción.
+     *
+     * @param <T> El tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        /**
+         * @param con La conexión transaccional (no debe confirmarse, revertirse ni cerrarse).
+         * @return El resultado del trabajo.
+         * @throws SQLException Si falla alguna operación; la transacción se revierte.
+         */
+        T run(Connection con) throws SQLException;
+    }
+
     private Connection conn;
     private boolean transactionActive;
 
@@ -87,7 +123,9 @@ public class TransactionManager implements AutoCloseable {
     /**
      * Cierra la conexión y libera los recursos.
      * Si hay una transacción activa al momento de cerrar, se ejecuta un rollback automático.
-     * Restaura el estado de auto-commit a true antes de cerrar.
+     * Restaura el estado de auto-commit a true antes de cerrar. La conexión se cierra (y vuelve al pool) aunque
+     * no se pueda revertir ni restaurar el auto-commit, por ejemplo si la conexión física ya se cortó: el pool
+     * la descarta al recibirla y libera su lugar.
      */
     @Override
     public void close() {
@@ -97,13 +135,138 @@ public class TransactionManager implements AutoCloseable {
                     rollback();
                 }
                 conn.setAutoCommit(true);
-                conn.close();
             } catch (SQLException e) {
-                System.err.println("Error al cerrar la conexión: " + e.getMessage());
+                System.err.println("Error al restaurar el auto-commit: " + e.getMessage());
+            } finally {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error al cerrar la conexión: " + e.getMessage());
+                }
             }
         }
     }
 
+    /**
+     * Ejecuta un trabajo en una transacción con las opciones por defecto ({@link TransactionOptions#DEFAULT}).
+     *
+     * @param work El trabajo a ejecutar.
+     * @return El resultado del trabajo, tras confirmar la transacción.
+     * @throws SQLException Si el trabajo o el commit fallan (tras agotar los reintentos si el error es reintentable).
+     */
+    public static <T> T inTransaction(Work<T> work) throws SQLException {
+        return inTransaction(TransactionOptions.DEFAULT, work);
+    }
+
+    /**
+     * Ejecuta un trabajo en una transacción sobre una conexión del pool y la confirma.
+     * <p>
+     * Si el trabajo o el commit fallan, la transacción se revierte y la conexión se devuelve al pool. Si el error
+     * es reintentable (deadlock 1213, espera de bloqueo agotada 1205 o SQLState 40001), el trabajo se vuelve a
+     * ejecutar completo en una transacción nueva, tras una espera exponencial con variación aleatoria, hasta
+     * {@link TransactionOptions#getMaxAttempts()} intentos. Por eso el trabajo debe poder repetirse: si modifica
+     * objetos en memoria, debe restaurarlos al comenzar. Los errores no reintentables y las excepciones
+     * no verificadas se propagan sin reintentar.
+     * </p>
+     * <p>
+     * Con un tiempo máximo por intento, la conexión aplica ese límite de red a cada operación y el intento
+     * que lo supera antes del commit se revierte con {@link SQLTimeoutException} (no se reintenta).
+     * </p>
+     *
+     * @param options El aislamiento, modo de solo lectura, reintentos y límite de tiempo.
+     * @param work El trabajo a ejecutar.
+     * @return El resultado del trabajo, tras confirmar la transacción.
+     * @throws SQLException Si el trabajo o el commit fallan (tras agotar los reintentos si el error es reintentable).
+     */
+    public static <T> T inTransaction(TransactionOptions options, Work<T> work) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runOnce(options, work);
+            } catch (SQLException e) {
+                if (attempt >= options.getMaxAttempts() || !isRetryable(e)) {
+                    throw e;
+                }
+                backoff(options, attempt);
+            }
+        }
+    }
+
+    private static <T> T runOnce(TransactionOptions options, Work<T> work) throws SQLException {
+        try (TransactionManager tm = new TransactionManager(DatabaseConnection.getConnection())) {
+            Connection con = tm.getConnection();
+            if (options.getIsolation() != TransactionOptions.ISOLATION_DEFAULT) {
+                con.setTransactionIsolation(options.getIsolation());
+            }
+            if (options.isReadOnly()) {
+                con.setReadOnly(true);
+            }
+            long timeoutMs = options.getAttemptTimeoutMs();
+            int previousNetworkTimeout = timeoutMs > 0 ? con.getNetworkTimeout() : 0;
+            if (timeoutMs > 0) {
+                con.setNetworkTimeout(Runnable::run, (int) Math.min(Integer.MAX_VALUE, timeoutMs));
+            }
+            try {
+                long start = System.nanoTime();
+                tm.startTransaction();
+                T result = work.run(con);
+                if (timeoutMs > 0 && System.nanoTime() - start > timeoutMs * 1_000_000L) {
+                    throw new SQLTimeoutException("La transacción superó el tiempo máximo de " + timeoutMs + " ms");
+                }
+                tm.commit();
+                return result;
+            } finally {
+                if (timeoutMs > 0) {
+                    tm.rollback();
+                    try {
+                        con.setNetworkTimeout(Runnable::run, previousNetworkTimeout);
+                    } catch (SQLException ignore) {
+                        // Conexión cerrada por el límite de tiempo: el pool la descarta al devolverla.
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si el error (o alguna de sus causas) corresponde a una transacción abortada que puede repetirse.
+     *
+     * @param e La excepción a inspeccionar.
+     * @return true ante deadlock, espera de bloqueo agotada o fallo de serialización.
+     */
+    public static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException s = (SQLException) t;
+                if (s.getErrorCode() == ER_LOCK_DEADLOCK || s.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+                        || SQLSTATE_SERIALIZATION_FAILURE.equals(s.getSQLState())) {
+                    return true;
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Espera antes del siguiente intento: base * 2^(intento-1), acotado al máximo, con una variación aleatoria
+     * entre la mitad y el total para que las transacciones en conflicto no reintenten a la vez.
+     */
+    private static void backoff(TransactionOptions options, int attempt) throws SQLException {
+        long exp = options.getBackoffBaseMs() << Math.min(attempt - 1, 20);
+        long delay = Math.min(options.getBackoffMaxMs(), exp);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba para reintentar la transacción", ie);
+        }
+    }
+
     /**
      * Verifica si hay una transacción actualmente en curso.
      *
@@ -0,0 +1,124 @@
+package config;
+
+import java.sql.Connection;
+
+/**
+ * Opciones de ejecución de {@link TransactionManager#inTransaction(TransactionOptions, TransactionManager.Work)}:
+ * nivel de aislamiento, modo de solo lectura, reintentos con espera exponencial y tiempo máximo por intento.
+ * <p>
+ * Es inmutable: cada método {@code with...} devuelve una copia modificada. Los valores por defecto de
+ * {@link #DEFAULT} se leen de {@code db.properties} ({@code db.tx.*}).
+ * </p>
+ */
+public final class TransactionOptions {
+
+    /**
+     * Valor de aislamiento que indica conservar el de la conexión (el por defecto del pool).
+     */
+    public static final int ISOLATION_DEFAULT = -1;
+
+    /**
+     * Opciones por defecto: aislamiento de la conexión, lectura/escritura, {@code db.tx.maxAttempts} intentos
+     * (3), espera entre {@code db.tx.backoffBaseMs} (50) y {@code db.tx.backoffMaxMs} (1000) ms y sin límite
+     * de tiempo por intento salvo que se configure {@code db.tx.attemptTimeoutMs}.
+     */
+    public static final TransactionOptions DEFAULT = new TransactionOptions(
+            ISOLATION_DEFAULT,
+            false,
+            DatabaseConnection.getIntProperty("db.tx.maxAttempts", 3),
+            DatabaseConnection.getIntProperty("db.tx.backoffBaseMs", 50),
+            DatabaseConnection.getIntProperty("db.tx.backoffMaxMs", 1000),
+            DatabaseConnection.getIntProperty("db.tx.attemptTimeoutMs", 0));
+
+    private final int isolation;
+    private final boolean readOnly;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long attemptTimeoutMs;
+
+    private TransactionOptions(int isolation, boolean readOnly, int maxAttempts,
+                               long backoffBaseMs, long backoffMaxMs, long attemptTimeoutMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un intento.");
+        }
+        if (backoffBaseMs < 0 || backoffMaxMs < backoffBaseMs) {
+            throw new IllegalArgumentException("Espera entre reintentos inválida: base=" + backoffBaseMs + ", max=" + backoffMaxMs);
+        }
+        if (attemptTimeoutMs < 0) {
+            throw new IllegalArgumentException("El tiempo máximo por intento no puede ser negativo.");
+        }
+        this.isolation = isolation;
+        this.readOnly = readOnly;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.attemptTimeoutMs = attemptTimeoutMs;
+    }
+
+    /**
+     * @param isolation Un nivel de {@link Connection} (ej. {@link Connection#TRANSACTION_READ_COMMITTED}) o
+     *                  {@link #ISOLATION_DEFAULT}.
+     * @return Una copia con el nivel de aislamiento indicado.
+     */
+    public TransactionOptions withIsolation(int isolation) {
+        return new TransactionOptions(isolation, readOnly, maxAttempts, backoffBaseMs, backoffMaxMs, attemptTimeoutMs);
+    }
+
+    /**
+     * @param readOnly true para marcar la transacción como de solo lectura (el servidor evita asignarle ID de escritura).
+     * @return Una copia con el modo indicado.
+     */
+    public TransactionOptions withReadOnly(boolean readOnly) {
+        return new TransactionOptions(isolation, readOnly, maxAttempts, backoffBaseMs, backoffMaxMs, attemptTimeoutMs);
+    }
+
+    /**
+     * @param maxAttempts Cantidad máxima de intentos (1 deshabilita los reintentos).
+     * @return Una copia con la cantidad de intentos indicada.
+     */
+    public TransactionOptions withMaxAttempts(int maxAttempts) {
+        return new TransactionOptions(isolation, readOnly, maxAttempts, backoffBaseMs, backoffMaxMs, attemptTimeoutMs);
+    }
+
+    /**
+     * @param baseMs Espera antes del segundo intento; se duplica en cada reintento.
+     * @param maxMs Espera máxima entre intentos.
+     * @return Una copia con la espera indicada.
+     */
+    public TransactionOptions withBackoff(long baseMs, long maxMs) {
+        return new TransactionOptions(isolation, readOnly, maxAttempts, baseMs, maxMs, attemptTimeoutMs);
+    }
+
+    /**
+     * @param attemptTimeoutMs Tiempo máximo de cada intento en milisegundos (0 sin límite).
+     * @return Una copia con el límite indicado.
+     */
+    public TransactionOptions withAttemptTimeoutMs(long attemptTimeoutMs) {
+        return new TransactionOptions(isolation, readOnly, maxAttempts, backoffBaseMs, backoffMaxMs, attemptTimeoutMs);
+    }
+
+    public int getIsolation() {
+        return isolation;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBackoffBaseMs() {
+        return backoffBaseMs;
+    }
+
+    public long getBackoffMaxMs() {
+        return backoffMaxMs;
+    }
+
+    public long getAttemptTimeoutMs() {
+        return attemptTimeoutMs;
+    }
+}
@@ -2,8 +2,11 @@ package dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz genérica que define el contrato estándar para los Objetos de Acceso a Datos (DAO).
@@ -28,6 +31,16 @@ public interface GenericDao<T> {
      */
     T create(T t) throws SQLException;
 
+    /**
+     * Persiste un conjunto de entidades nuevas mediante un lote JDBC (batch).
+     * Este método gestiona su propia conexión.
+     *
+     * @param ts Las entidades a crear.
+     * @return Las mismas entidades, con sus IDs generados asignados en el mismo orden.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    List<T> createAll(List<T> ts) throws SQLException;
+
     /**
      * Busca una entidad por su identificador único.
      * Este método gestiona su propia conexión.
@@ -38,6 +51,16 @@ public interface GenericDao<T> {
      */
     Optional<T> read(long id) throws SQLException;
 
+    /**
+     * Busca varias entidades activas por sus IDs con consultas IN acotadas, en lugar de una consulta por ID.
+     * Este método gestiona su propia conexión.
+     *
+     * @param ids Los IDs a buscar (se ignoran duplicados).
+     * @return Mapa de ID a entidad, en el orden de los IDs recibidos; los IDs inexistentes o eliminados no figuran.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    Map<Long, T> readByIds(Collection<Long> ids) throws SQLException;
+
     /**
      * Recupera todas las entidades activas (no eliminadas lógicamente) de la base de datos.
      * Este método gestiona su propia conexión.
@@ -47,6 +70,28 @@ public interface GenericDao<T> {
      */
     List<T> readAll() throws SQLException;
 
+    /**
+     * Recupera una página de entidades activas ordenadas por ID descendente (paginación por clave).
+     * Este método gestiona su propia conexión.
+     *
+     * @param afterId El cursor de la página anterior ({@link Pagina#getSiguienteCursor()}), o null para la primera página.
+     * @param limit La cantidad máxima de entidades a devolver.
+     * @return La página solicitada junto con el cursor de la siguiente.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    Pagina<T> readPage(Long afterId, int limit) throws SQLException;
+
+    /**
+     * Recorre todas las entidades activas como un stream perezoso respaldado por un ResultSet abierto.
+     * Las filas se leen por bloques a medida que se consumen, por lo que la memoria es constante.
+     * Este método gestiona su propia conexión: el stream debe cerrarse (try-with-resources)
+     * para liberar la sentencia y devolver la conexión al pool.
+     *
+     * @return Un stream de entidades que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    Stream<T> streamAll() throws SQLException;
+
     /**
      * Actualiza los datos de una entidad existente.
      * Este método gestiona su propia conexión.
@@ -78,6 +123,17 @@ public interface GenericDao<T> {
      */
     T create(T t, Connection c) throws SQLException;
 
+    /**
+     * Persiste un conjunto de entidades nuevas en un único lote JDBC utilizando una conexión existente.
+     * Permite que esta operación forme parte de una transacción externa.
+     *
+     * @param ts Las entidades a crear.
+     * @param c La conexión JDBC activa a utilizar.
+     * @return Las mismas entidades, con sus IDs generados asignados en el mismo orden.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    List<T> createAll(List<T> ts, Connection c) throws SQLException;
+
     /**
      * Busca una entidad por su ID utilizando una conexión existente.
      * Permite que esta operación forme parte de una transacción externa.
@@ -89,6 +145,17 @@ public interface GenericDao<T> {
      */
     Optional<T> read(long id, Connection c) throws SQLException;
 
+    /**
+     * Busca varias entidades activas por sus IDs utilizando una conexión existente.
+     * Permite que esta operación forme parte de una transacción externa.
+     *
+     * @param ids Los IDs a buscar.
+     * @param c La conexión JDBC activa.
+     * @return Mapa de ID a entidad, en el orden de los IDs recibidos.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    Map<Long, T> readByIds(Collection<Long> ids, Connection c) throws SQLException;
+
     /**
      * Recupera todas las entidades utilizando una conexión existente.
      * Permite que esta operación forme parte de una transacción externa.
@@ -99,6 +166,28 @@ public interface GenericDao<T> {
      */
     List<T> readAll(Connection c) throws SQLException;
 
+    /**
+     * Recupera una página de entidades utilizando una conexión existente.
+     * Permite que esta operación forme parte de una transacción externa.
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de entidades a devolver.
+     * @param c La conexión JDBC activa.
+     * @return La página solicitada junto con el cursor de la siguiente.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    Pagina<T> readPage(Long afterId, int limit, Connection c) throws SQLException;
+
+    /**
+     * Recorre todas las entidades activas como un stream perezoso utilizando una conexión existente.
+     * Al cerrar el stream se liberan el ResultSet y la sentencia, pero la conexión queda abierta.
+     *
+     * @param c La conexión JDBC activa.
+     * @return Un stream de entidades que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    Stream<T> streamAll(Connection c) throws SQLException;
+
     /**
      * Actualiza una entidad utilizando una conexión existente.
      * Permite que esta operación forme parte de una transacción externa.
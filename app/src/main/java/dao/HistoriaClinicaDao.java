@@ -1,8 +1,10 @@
 package dao;
 
+import models.CoincidenciaClinica;
 import models.HistoriaClinica;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 /**
  * Interfaz que define las operaciones de acceso a datos específicas para la entidad {@link HistoriaClinica}.
@@ -19,4 +21,56 @@ public interface HistoriaClinicaDao extends GenericDao<HistoriaClinica> {
      * @throws SQLException Si ocurre un error al ejecutar la baja lógica en la base de datos.
      */
     void deleteByPacienteId(long pacienteId, Connection con) throws SQLException;
+
+    /**
+     * Carga los campos de texto extenso (antecedentes, medicación, observaciones) de una Historia Clínica
+     * leída solo con su encabezado. No hace nada si ya estaban cargados.
+     *
+     * @param h La Historia Clínica cuyos textos se cargarán.
+     * @param con La conexión JDBC activa a utilizar.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    void cargarTextos(HistoriaClinica h, Connection con) throws SQLException;
+
+    /**
+     * Carga por lotes los campos de texto extenso de varias Historias Clínicas.
+     * Este método gestiona su propia conexión.
+     *
+     * @param hs Las Historias Clínicas cuyos textos se cargarán.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    void cargarTextos(Collection<HistoriaClinica> hs) throws SQLException;
+
+    /**
+     * Carga por lotes los campos de texto extenso de varias Historias Clínicas utilizando una conexión existente.
+     *
+     * @param hs Las Historias Clínicas cuyos textos se cargarán.
+     * @param con La conexión JDBC activa a utilizar.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    void cargarTextos(Collection<HistoriaClinica> hs, Connection con) throws SQLException;
+
+    /**
+     * Busca Historias Clínicas activas por texto (índice FULLTEXT sobre antecedentes, medicación y observaciones),
+     * ordenadas por relevancia. Este método gestiona su propia conexión.
+     *
+     * @param consulta Las palabras a buscar.
+     * @param desde La posición del primer resultado (el cursor de la página anterior), o null para la primera página.
+     * @param limit La cantidad máxima de resultados.
+     * @return La página de coincidencias; su cursor es la posición del siguiente resultado.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    Pagina<CoincidenciaClinica> buscarPorTexto(String consulta, Long desde, int limit) throws SQLException;
+
+    /**
+     * Busca Historias Clínicas activas por texto utilizando una conexión existente.
+     *
+     * @param consulta Las palabras a buscar.
+     * @param desde La posición del primer resultado, o null para la primera página.
+     * @param limit La cantidad máxima de resultados.
+     * @param con La conexión JDBC activa a utilizar.
+     * @return La página de coincidencias; su cursor es la posición del siguiente resultado.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    Pagina<CoincidenciaClinica> buscarPorTexto(String consulta, Long desde, int limit, Connection con) throws SQLException;
 }
\ No newline at end of file
@@ -2,8 +2,12 @@ package dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import models.Paciente;
+import models.PacienteResumen;
 
 /**
  * Interfaz que define las operaciones de acceso a datos específicas para la entidad {@link Paciente}.
@@ -32,4 +36,118 @@ public interface PacienteDao extends GenericDao<Paciente> {
      * @throws SQLException Si ocurre un error en la base de datos.
      */
     Optional<Paciente> findByDni(String dni, Connection con) throws SQLException;
+
+    /**
+     * Busca un lote de pacientes activos por DNI con pocas consultas IN sobre el índice único de {@code dni}.
+     * Este método gestiona su propia conexión a la base de datos.
+     *
+     * @param dnis Los DNIs a buscar (se ignoran duplicados y nulos).
+     * @return Los pacientes encontrados y los DNIs faltantes, por separado.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    ResultadoDnis findByDnis(Collection<String> dnis) throws SQLException;
+
+    /**
+     * Busca un lote de pacientes activos por DNI utilizando una conexión JDBC externa existente.
+     *
+     * @param dnis Los DNIs a buscar.
+     * @param con La conexión activa a utilizar.
+     * @return Los pacientes encontrados y los DNIs faltantes, por separado.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    ResultadoDnis findByDnis(Collection<String> dnis, Connection con) throws SQLException;
+
+    /**
+     * Crea o actualiza un lote de pacientes usando el DNI como clave ({@code INSERT ... ON DUPLICATE KEY UPDATE}).
+     * Un paciente eliminado lógicamente con el mismo DNI se reactiva y se informa como actualizado.
+     * Requiere una transacción activa. Asigna los IDs y versiones de los pacientes y deja sin ID sus Historias
+     * Clínicas, que se resuelven por {@code paciente_id} al escribirlas.
+     *
+     * @param pacientes Los pacientes a escribir (sin DNIs repetidos).
+     * @param con La conexión de la transacción activa.
+     * @return Los pacientes creados y los actualizados, por separado.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    ResultadoUpsert upsertPorDni(List<Paciente> pacientes, Connection con) throws SQLException;
+
+    /**
+     * Crea un paciente y su Historia Clínica en un solo viaje al servidor (procedimiento
+     * {@code sp_alta_paciente_con_historia}, ver {@code 07_alta_paciente.sql}). Asigna los IDs de ambos.
+     * Requiere una transacción activa: si falla la segunda inserción, quien confirma debe revertir la primera.
+     *
+     * @param p El paciente a crear, con su Historia Clínica.
+     * @param con La conexión de la transacción activa.
+     * @return El paciente con los IDs asignados.
+     * @throws SQLException Si ocurre un error en la base de datos (ej. DNI o Nro. de Historia duplicados).
+     */
+    Paciente createConHistoria(Paciente p, Connection con) throws SQLException;
+
+    /**
+     * Realiza la baja lógica de un paciente y de su Historia Clínica con una única sentencia
+     * ({@code UPDATE paciente JOIN historia_clinica}).
+     *
+     * @param id El ID del paciente.
+     * @param con La conexión de la transacción activa.
+     * @throws SQLException Si ocurre un error en la base de datos o si el paciente no tiene Historia Clínica
+     *                      (error de integridad: no se modifica ninguna fila).
+     */
+    void deleteConHistoria(long id, Connection con) throws SQLException;
+
+    /**
+     * Recupera una página de resúmenes de pacientes activos (paginación por clave, ID descendente).
+     * Consulta solo las columnas necesarias para los listados. Este método gestiona su propia conexión.
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resúmenes a devolver.
+     * @return La página de resúmenes.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    Pagina<PacienteResumen> readResumenPage(Long afterId, int limit) throws SQLException;
+
+    /**
+     * Recupera una página de resúmenes de pacientes utilizando una conexión existente.
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resúmenes a devolver.
+     * @param con La conexión activa a utilizar.
+     * @return La página de resúmenes.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    Pagina<PacienteResumen> readResumenPage(Long afterId, int limit, Connection con) throws SQLException;
+
+    /**
+     * Recorre los resúmenes de todos los pacientes activos como un stream perezoso (para exportaciones).
+     * Este método gestiona su propia conexión, que se libera al cerrar el stream.
+     *
+     * @return Un stream de resúmenes que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    Stream<PacienteResumen> streamResumen() throws SQLException;
+
+    /**
+     * Recorre los resúmenes de todos los pacientes activos utilizando una conexión existente.
+     *
+     * @param con La conexión activa a utilizar (no se cierra al cerrar el stream).
+     * @return Un stream de resúmenes que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    Stream<PacienteResumen> streamResumen(Connection con) throws SQLException;
+
+    /**
+     * Recorre los DNIs de todos los pacientes activos como un stream perezoso (para índices en memoria).
+     * Este método gestiona su propia conexión, que se libera al cerrar el stream.
+     *
+     * @return Un stream de DNIs que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    Stream<String> streamDnis() throws SQLException;
+
+    /**
+     * Recorre los DNIs de todos los pacientes activos utilizando una conexión existente.
+     *
+     * @param con La conexión activa a utilizar (no se cierra al cerrar el stream).
+     * @return Un stream de DNIs que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    Stream<String> streamDnis(Connection con) throws SQLException;
 }
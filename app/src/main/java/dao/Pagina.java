@@ -0,0 +1,61 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida mediante paginación por clave (keyset pagination).
+ * <p>
+ * Además de los elementos, contiene el cursor necesario para pedir la página siguiente:
+ * el ID del último elemento devuelto. Como los listados se ordenan por ID descendente,
+ * la página siguiente contiene los elementos con ID menor al cursor. En las búsquedas ordenadas por
+ * relevancia (texto completo) el cursor es, en cambio, la posición del siguiente resultado.
+ * </p>
+ *
+ * @param <T> El tipo de los elementos de la página.
+ */
+public class Pagina<T> {
+
+    private final List<T> items;
+    private final Long siguienteCursor;
+    private final boolean hayMas;
+
+    /**
+     * Crea una página de resultados.
+     *
+     * @param items Los elementos de la página.
+     * @param siguienteCursor El cursor para pedir la página siguiente (ID del último elemento), o null si está vacía.
+     * @param hayMas true si existen más elementos después de esta página.
+     */
+    public Pagina(List<T> items, Long siguienteCursor, boolean hayMas) {
+        this.items = List.copyOf(items);
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Obtiene los elementos de la página.
+     *
+     * @return Lista inmodificable de elementos.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Obtiene el cursor para pedir la página siguiente.
+     *
+     * @return El ID del último elemento de esta página, o null si la página está vacía.
+     */
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    /**
+     * Indica si hay más elementos después de esta página.
+     *
+     * @return true si conviene pedir la página siguiente con {@link #getSiguienteCursor()}.
+     */
+    public boolean hayMas() {
+        return hayMas;
+    }
+}
@@ -0,0 +1,48 @@
+package dao;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import models.Paciente;
+
+/**
+ * Resultado de una búsqueda masiva de pacientes por DNI.
+ * <p>
+ * Separa los DNIs encontrados (con su paciente) de los que no existen, de modo que un proceso de
+ * importación pueda dividir en una sola pasada las filas a insertar de las filas a actualizar.
+ * </p>
+ */
+public class ResultadoDnis {
+
+    private final Map<String, Paciente> encontrados;
+    private final Set<String> faltantes;
+
+    /**
+     * Crea el resultado de una búsqueda por DNI.
+     *
+     * @param encontrados Los pacientes encontrados, indexados por DNI.
+     * @param faltantes Los DNIs buscados que no corresponden a ningún paciente activo.
+     */
+    public ResultadoDnis(Map<String, Paciente> encontrados, Set<String> faltantes) {
+        this.encontrados = Collections.unmodifiableMap(encontrados);
+        this.faltantes = Collections.unmodifiableSet(faltantes);
+    }
+
+    /**
+     * Obtiene los pacientes encontrados.
+     *
+     * @return Mapa inmodificable de DNI a paciente, en el orden de los DNIs buscados.
+     */
+    public Map<String, Paciente> getEncontrados() {
+        return encontrados;
+    }
+
+    /**
+     * Obtiene los DNIs que no existen en la base de datos (o cuyo paciente está eliminado).
+     *
+     * @return Conjunto inmodificable de DNIs, en el orden en que fueron buscados.
+     */
+    public Set<String> getFaltantes() {
+        return faltantes;
+    }
+}
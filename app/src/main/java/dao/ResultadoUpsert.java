@@ -0,0 +1,46 @@
+package dao;
+
+import java.util.List;
+import models.Paciente;
+
+/**
+ * Resultado de un alta-o-modificación (upsert) de pacientes por DNI.
+ * <p>
+ * Indica qué pacientes se crearon y cuáles ya existían y fueron actualizados. En ambos casos los
+ * pacientes (y sus Historias Clínicas) quedan con sus IDs asignados.
+ * </p>
+ */
+public class ResultadoUpsert {
+
+    private final List<Paciente> creados;
+    private final List<Paciente> actualizados;
+
+    /**
+     * Crea el resultado de un upsert.
+     *
+     * @param creados Los pacientes que no existían y fueron insertados.
+     * @param actualizados Los pacientes cuyo DNI ya existía y fueron actualizados.
+     */
+    public ResultadoUpsert(List<Paciente> creados, List<Paciente> actualizados) {
+        this.creados = List.copyOf(creados);
+        this.actualizados = List.copyOf(actualizados);
+    }
+
+    /**
+     * Obtiene los pacientes creados.
+     *
+     * @return Lista inmodificable, en el orden recibido.
+     */
+    public List<Paciente> getCreados() {
+        return creados;
+    }
+
+    /**
+     * Obtiene los pacientes actualizados.
+     *
+     * @return Lista inmodificable, en el orden recibido.
+     */
+    public List<Paciente> getActualizados() {
+        return actualizados;
+    }
+}
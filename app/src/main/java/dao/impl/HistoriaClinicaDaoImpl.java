@@ -2,9 +2,15 @@ package dao.impl;
 
 import config.DatabaseConnection;
 import dao.HistoriaClinicaDao;
+import dao.Pagina;
+import exceptions.ConflictoConcurrenciaException;
+import exceptions.UncheckedSQLException;
+import models.CoincidenciaClinica;
 import models.HistoriaClinica;
+import models.PacienteResumen;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Implementación concreta del DAO para la entidad {@link HistoriaClinica}.
@@ -13,31 +19,185 @@ import java.util.*;
  * Contiene métodos de conveniencia (autogestionan la conexión) y métodos transaccionales
  * (reciben la conexión externa).
  * </p>
+ * <p>
+ * Las lecturas puntuales y paginadas traen solo las columnas de encabezado; los campos TEXT
+ * (antecedentes, medicación, observaciones) se cargan de forma diferida al primer acceso, o por lotes
+ * mediante {@link #cargarTextos(Collection, Connection)}.
+ * </p>
+ * <p>
+ * La carga diferida usa la conexión con la que se leyó la historia mientras siga abierta, de modo que dentro
+ * de una transacción (o de una {@code Sesion}) lee dentro de ella y no pide un segundo préstamo al pool. Una vez
+ * devuelta esa conexión, la carga obtiene una propia. La entidad no debe pasarse a otro hilo mientras la
+ * conexión con que se leyó siga en uso.
+ * </p>
  */
 public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
 
+    private static final String SQL_STREAM = "SELECT * FROM historia_clinica WHERE eliminado=0 ORDER BY id";
+
+    /**
+     * Consulta de encabezado: todas las columnas excepto los campos TEXT de carga diferida.
+     */
+    private static final String SQL_SELECT_ENCABEZADO =
+            "SELECT id, eliminado, version, nro_historia, grupo_sanguineo, fecha_apertura FROM historia_clinica ";
+
+    private static final String SQL_SELECT_TEXTOS =
+            "SELECT id, antecedentes, medicacion_actual, observaciones FROM historia_clinica WHERE id";
+
+    /**
+     * Cargador diferido que obtiene los textos de una Historia Clínica con una conexión propia del pool.
+     * Se usa cuando la historia se leyó fuera de una conexión del llamador o esta ya fue cerrada.
+     */
+    private final HistoriaClinica.CargadorTextos cargadorPerezoso = h -> {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            cargarTextos(h, c);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException("Error al cargar los textos de la Historia Clínica ID " + h.getId(), e);
+        }
+    };
+
+    /**
+     * Búsqueda de texto completo (índice {@code ft_hc_textos}, ver {@code 06_fulltext.sql}), ordenada por relevancia.
+     * Devuelve la proyección de listado del paciente; los parámetros son: texto, texto, límite y posición.
+     */
+    private static final String SQL_BUSCAR_TEXTO =
+            "SELECT p.id, p.dni, p.nombre, p.apellido, hc.nro_historia, hc.grupo_sanguineo, " +
+            "MATCH(hc.antecedentes, hc.medicacion_actual, hc.observaciones) AGAINST (? IN NATURAL LANGUAGE MODE) AS relevancia " +
+            "FROM historia_clinica hc JOIN paciente p ON p.id = hc.paciente_id " +
+            "WHERE MATCH(hc.antecedentes, hc.medicacion_actual, hc.observaciones) AGAINST (? IN NATURAL LANGUAGE MODE) " +
+            "AND hc.eliminado = 0 AND p.eliminado = 0 " +
+            "ORDER BY relevancia DESC, p.id DESC LIMIT ? OFFSET ?";
+
+    /**
+     * Columnas que puede escribir {@link #update(HistoriaClinica, Connection)}, en el orden en que se emiten.
+     */
+    private static final Set<String> COLUMNAS_UPDATE = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(
+            "eliminado", "nro_historia", "grupo_sanguineo", "antecedentes", "medicacion_actual", "observaciones", "fecha_apertura")));
+
+    /**
+     * Columnas de encabezado (sin los campos TEXT de carga diferida).
+     */
+    private static final Set<String> COLUMNAS_ENCABEZADO = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(
+            "eliminado", "nro_historia", "grupo_sanguineo", "fecha_apertura")));
+
+    private static final String SQL_INSERT =
+            "INSERT INTO historia_clinica (eliminado,nro_historia,grupo_sanguineo,antecedentes,medicacion_actual,observaciones,fecha_apertura,paciente_id) VALUES (?,?,?,?,?,?,?,?)";
+
+    /**
+     * Inserción con ID asignado por {@link IdBlockAllocator} (el ID es el último parámetro).
+     */
+    private static final String SQL_INSERT_CON_ID =
+            "INSERT INTO historia_clinica (eliminado,nro_historia,grupo_sanguineo,antecedentes,medicacion_actual,observaciones,fecha_apertura,paciente_id,id) VALUES (?,?,?,?,?,?,?,?,?)";
+
+    /**
+     * Alta-o-modificación por {@code paciente_id}. La tabla tiene otra clave única ({@code nro_historia}): si la fila
+     * en conflicto pertenece a otro paciente, la primera asignación deja {@code paciente_id} en NULL y la sentencia
+     * falla (columna NOT NULL) en lugar de sobrescribir la historia ajena.
+     */
+    private static final String SQL_ON_DUPLICATE = " ON DUPLICATE KEY UPDATE " +
+            "paciente_id=IF(paciente_id=VALUES(paciente_id), paciente_id, NULL), " +
+            "eliminado=VALUES(eliminado), nro_historia=VALUES(nro_historia), grupo_sanguineo=VALUES(grupo_sanguineo), " +
+            "antecedentes=VALUES(antecedentes), medicacion_actual=VALUES(medicacion_actual), " +
+            "observaciones=VALUES(observaciones), fecha_apertura=VALUES(fecha_apertura), version=version+1";
+
+    private static final String SQL_UPSERT = SQL_INSERT + SQL_ON_DUPLICATE;
+
+    private static final String SQL_UPSERT_CON_ID = SQL_INSERT_CON_ID + SQL_ON_DUPLICATE;
+
+    /**
+     * Asignador de IDs por bloques, o null si se usa AUTO_INCREMENT ({@code db.ids.blockSize=0}).
+     */
+    private final IdBlockAllocator ids = IdBlockAllocator.para("historia_clinica");
+
     /**
-     * Mapea el resultado de una fila del {@link ResultSet} a un objeto {@link HistoriaClinica}.
+     * Mapea el encabezado de una fila del {@link ResultSet} a un objeto {@link HistoriaClinica}.
+     * Los campos de texto quedan pendientes de carga diferida.
      *
      * @param rs El conjunto de resultados JDBC.
-     * @return Un objeto HistoriaClinica.
+     * @param c La conexión con la que se leyó la fila, o null si los textos se asignan a continuación.
+     * @return Un objeto HistoriaClinica con sus textos pendientes.
      * @throws SQLException Si ocurre un error al leer los datos.
      */
-    private HistoriaClinica map(ResultSet rs) throws SQLException {
+    private HistoriaClinica map(ResultSet rs, Connection c) throws SQLException {
         HistoriaClinica h = new HistoriaClinica();
         h.setId(rs.getLong("id"));
         h.setEliminado(rs.getBoolean("eliminado"));
+        h.setVersion(rs.getInt("version"));
         h.setNroHistoria(rs.getString("nro_historia"));
         String gs = rs.getString("grupo_sanguineo");
         h.setGrupoSanguineo(HistoriaClinica.GrupoSanguineo.fromDb(gs));
-        h.setAntecedentes(rs.getString("antecedentes"));
-        h.setMedicacionActual(rs.getString("medicacion_actual"));
-        h.setObservaciones(rs.getString("observaciones"));
         java.sql.Date f = rs.getDate("fecha_apertura");
         h.setFechaApertura(f != null ? f.toLocalDate() : null);
+        h.setTextosPendientes(getCargadorTextos(c));
+        h.limpiarModificaciones();
         return h;
     }
 
+    /**
+     * Mapea una fila completa (incluidos los campos TEXT) a un objeto {@link HistoriaClinica}.
+     *
+     * @param rs El conjunto de resultados JDBC.
+     * @return Un objeto HistoriaClinica con todos sus campos cargados.
+     * @throws SQLException Si ocurre un error al leer los datos.
+     */
+    private HistoriaClinica mapCompleta(ResultSet rs) throws SQLException {
+        HistoriaClinica h = map(rs, null);
+        h.setTextos(rs.getString("antecedentes"), rs.getString("medicacion_actual"), rs.getString("observaciones"));
+        return h;
+    }
+
+    /**
+     * Devuelve el cargador diferido de textos, para que otros DAOs que leen Historias Clínicas
+     * (ej. mediante JOIN) puedan asignarlo.
+     *
+     * @param c La conexión con la que se leyó la historia. Mientras siga abierta, la carga se hace con ella
+     *          (dentro de la transacción del llamador); cerrada o null, con una conexión propia del pool.
+     * @return El cargador de textos de este DAO.
+     */
+    HistoriaClinica.CargadorTextos getCargadorTextos(Connection c) {
+        if (c == null) {
+            return cargadorPerezoso;
+        }
+        return h -> {
+            try {
+                if (!c.isClosed()) {
+                    cargarTextos(h, c);
+                    return;
+                }
+            } catch (SQLException e) {
+                throw new UncheckedSQLException("Error al cargar los textos de la Historia Clínica ID " + h.getId(), e);
+            }
+            cargadorPerezoso.cargar(h);
+        };
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia {@link #SQL_INSERT} a partir de una Historia Clínica.
+     *
+     * @param ps La sentencia de inserción.
+     * @param h La Historia Clínica a insertar.
+     * @param pacienteId El ID del paciente al que se asocia.
+     * @throws SQLException Si ocurre un error al asignar los parámetros.
+     */
+    private void bindInsert(PreparedStatement ps, HistoriaClinica h, long pacienteId) throws SQLException {
+        ps.setBoolean(1, h.isEliminado());
+        ps.setString(2, h.getNroHistoria());
+        if (h.getGrupoSanguineo() != null) {
+            ps.setString(3, h.getGrupoSanguineo().db());
+        } else {
+            ps.setNull(3, Types.VARCHAR);
+        }
+        ps.setString(4, h.getAntecedentes());
+        ps.setString(5, h.getMedicacionActual());
+        ps.setString(6, h.getObservaciones());
+        if (h.getFechaApertura() != null) {
+            ps.setDate(7, java.sql.Date.valueOf(h.getFechaApertura()));
+        } else {
+            ps.setNull(7, Types.DATE);
+        }
+        ps.setLong(8, pacienteId);
+    }
+
     // --- Métodos de Conveniencia (Autoconexión) ---
 
     /**
@@ -50,6 +210,16 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
         }
     }
 
+    /**
+     * Persiste un lote de Historias Clínicas, delegando al método transaccional.
+     */
+    @Override
+    public List<HistoriaClinica> createAll(List<HistoriaClinica> hs) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return createAll(hs, c);
+        }
+    }
+
     /**
      * Busca una Historia Clínica por ID, delegando al método transaccional.
      */
@@ -60,6 +230,16 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
         }
     }
 
+    /**
+     * Busca varias Historias Clínicas por ID, delegando al método transaccional.
+     */
+    @Override
+    public Map<Long, HistoriaClinica> readByIds(Collection<Long> ids) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return readByIds(ids, c);
+        }
+    }
+
     /**
      * Recupera todas las Historias Clínicas activas, delegando al método transaccional.
      */
@@ -70,6 +250,24 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
         }
     }
 
+    /**
+     * Recupera una página de Historias Clínicas activas, delegando al método transaccional.
+     */
+    @Override
+    public Pagina<HistoriaClinica> readPage(Long afterId, int limit) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return readPage(afterId, limit, c);
+        }
+    }
+
+    /**
+     * Recorre las Historias Clínicas activas como stream. La conexión se devuelve al pool al cerrar el stream.
+     */
+    @Override
+    public Stream<HistoriaClinica> streamAll() throws SQLException {
+        return JdbcStreams.stream(DatabaseConnection.getConnection(), true, SQL_STREAM, ps -> { }, this::mapCompleta);
+    }
+
     /**
      * Actualiza una Historia Clínica existente, delegando al método transaccional.
      */
@@ -80,6 +278,26 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
         }
     }
 
+    /**
+     * Carga por lotes los textos de varias Historias Clínicas, delegando al método transaccional.
+     */
+    @Override
+    public void cargarTextos(Collection<HistoriaClinica> hs) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            cargarTextos(hs, c);
+        }
+    }
+
+    /**
+     * Busca Historias Clínicas por texto, delegando al método transaccional.
+     */
+    @Override
+    public Pagina<CoincidenciaClinica> buscarPorTexto(String consulta, Long desde, int limit) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return buscarPorTexto(consulta, desde, limit, c);
+        }
+    }
+
     /**
      * Realiza la baja lógica de una Historia Clínica por ID, delegando al método transaccional.
      */
@@ -112,24 +330,17 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
      * @throws SQLException Si ocurre un error al insertar.
      */
     public HistoriaClinica create(HistoriaClinica h, Connection c, long pacienteId) throws SQLException {
-        String sql = "INSERT INTO historia_clinica (eliminado,nro_historia,grupo_sanguineo,antecedentes,medicacion_actual,observaciones,fecha_apertura,paciente_id) VALUES (?,?,?,?,?,?,?,?)";
-        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setBoolean(1, h.isEliminado());
-            ps.setString(2, h.getNroHistoria());
-            if (h.getGrupoSanguineo() != null) {
-                ps.setString(3, h.getGrupoSanguineo().db());
-            } else {
-                ps.setNull(3, Types.VARCHAR);
-            }
-            ps.setString(4, h.getAntecedentes());
-            ps.setString(5, h.getMedicacionActual());
-            ps.setString(6, h.getObservaciones());
-            if (h.getFechaApertura() != null) {
-                ps.setDate(7, java.sql.Date.valueOf(h.getFechaApertura()));
-            } else {
-                ps.setNull(7, Types.DATE);
-            }
-            ps.setLong(8, pacienteId);
+        if (ids != null) {
+            h.setId(ids.siguiente());
+            try (PreparedStatement ps = c.prepareStatement(SQL_INSERT_CON_ID)) {
+                bindInsert(ps, h, pacienteId);
+                ps.setLong(9, h.getId());
+                ps.executeUpdate();
+                return h;
+            }
+        }
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(ps, h, pacienteId);
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
@@ -140,6 +351,168 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
         }
     }
 
+    /**
+     * Reserva un ID para una historia que se insertará por fuera de este DAO (ej. el alta conjunta con el paciente).
+     *
+     * @return El ID reservado, o null si los IDs los asigna AUTO_INCREMENT.
+     * @throws SQLException Si no se puede reservar un bloque nuevo de IDs.
+     */
+    Long reservarId() throws SQLException {
+        return ids != null ? ids.siguiente() : null;
+    }
+
+    /**
+     * Lanza una excepción para forzar el uso del método createAll con los IDs de paciente.
+     *
+     * @throws SQLException Siempre lanza una excepción.
+     */
+    @Override
+    public List<HistoriaClinica> createAll(List<HistoriaClinica> hs, Connection c) throws SQLException {
+        throw new SQLException("Use createAll(hs, c, pacienteIds)");
+    }
+
+    /**
+     * Persiste un lote de Historias Clínicas en una sola ejecución JDBC, asociando cada una
+     * al ID de paciente que ocupa la misma posición en {@code pacienteIds}. Si la asignación por bloques
+     * está habilitada, los IDs se asignan antes de insertar y no se piden claves generadas.
+     *
+     * @param hs Las Historias Clínicas a crear.
+     * @param c La conexión JDBC activa.
+     * @param pacienteIds Los IDs de paciente, en el mismo orden que {@code hs}.
+     * @return La misma lista, con los IDs generados asignados.
+     * @throws SQLException Si falla el lote o si la cantidad de claves generadas no coincide con la de filas.
+     * @throws IllegalArgumentException Si las listas tienen distinto tamaño.
+     */
+    public List<HistoriaClinica> createAll(List<HistoriaClinica> hs, Connection c, List<Long> pacienteIds) throws SQLException {
+        if (hs.size() != pacienteIds.size()) {
+            throw new IllegalArgumentException("La cantidad de historias y de IDs de paciente no coincide.");
+        }
+        if (hs.isEmpty()) {
+            return hs;
+        }
+        if (ids != null) {
+            try (PreparedStatement ps = c.prepareStatement(SQL_INSERT_CON_ID)) {
+                for (int i = 0; i < hs.size(); i++) {
+                    HistoriaClinica h = hs.get(i);
+                    h.setId(ids.siguiente());
+                    bindInsert(ps, h, pacienteIds.get(i));
+                    ps.setLong(9, h.getId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return hs;
+            }
+        }
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < hs.size(); i++) {
+                bindInsert(ps, hs.get(i), pacienteIds.get(i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                int i = 0;
+                while (rs.next() && i < hs.size()) {
+                    hs.get(i++).setId(rs.getLong(1));
+                }
+                if (i != hs.size()) {
+                    throw new SQLException("Se esperaban " + hs.size() + " claves generadas y se obtuvieron " + i);
+                }
+            }
+            return hs;
+        }
+    }
+
+    /**
+     * Crea o actualiza un lote de Historias Clínicas en un único lote {@code INSERT ... ON DUPLICATE KEY UPDATE},
+     * usando el ID de paciente como clave. Una consulta posterior por {@code paciente_id} (sin bloqueo: las filas ya
+     * están bloqueadas por la escritura) asigna a cada historia el ID y la versión con que quedó. Una historia
+     * eliminada lógicamente del mismo paciente se reactiva con los datos del lote.
+     *
+     * @param hs Las Historias Clínicas a escribir.
+     * @param c La conexión JDBC de la transacción activa.
+     * @param pacienteIds Los IDs de paciente, en el mismo orden que {@code hs}.
+     * @return La misma lista, con los IDs y versiones asignados.
+     * @throws SQLException Si falla el lote o si el Nro. de Historia pertenece a otro paciente.
+     * @throws IllegalArgumentException Si las listas tienen distinto tamaño.
+     */
+    public List<HistoriaClinica> upsertAll(List<HistoriaClinica> hs, Connection c, List<Long> pacienteIds) throws SQLException {
+        if (hs.size() != pacienteIds.size()) {
+            throw new IllegalArgumentException("La cantidad de historias y de IDs de paciente no coincide.");
+        }
+        if (hs.isEmpty()) {
+            return hs;
+        }
+        Map<Long, HistoriaClinica> porPaciente = new HashMap<Long, HistoriaClinica>();
+        try (PreparedStatement ps = c.prepareStatement(ids != null ? SQL_UPSERT_CON_ID : SQL_UPSERT)) {
+            for (int i = 0; i < hs.size(); i++) {
+                HistoriaClinica h = hs.get(i);
+                bindInsert(ps, h, pacienteIds.get(i));
+                if (ids != null) {
+                    // Solo se usa si la historia es nueva; si no, queda como hueco de la secuencia.
+                    ps.setLong(9, h.getId() != null ? h.getId() : ids.siguiente());
+                }
+                porPaciente.put(pacienteIds.get(i), h);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        for (List<Long> bloque : SqlUtils.chunks(porPaciente.keySet())) {
+            String sql = "SELECT id, paciente_id, version FROM historia_clinica WHERE paciente_id IN (" + SqlUtils.placeholders(bloque.size()) + ")";
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                SqlUtils.bindIn(ps, bloque);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        HistoriaClinica h = porPaciente.get(rs.getLong("paciente_id"));
+                        h.setId(rs.getLong("id"));
+                        h.setVersion(rs.getInt("version"));
+                    }
+                }
+            }
+        }
+        return hs;
+    }
+
+    /**
+     * Busca Historias Clínicas activas por texto con el índice FULLTEXT, ordenadas por relevancia descendente.
+     * Como el orden depende de la relevancia (no del ID), la paginación es por posición: se pide una fila
+     * extra para saber si hay más resultados.
+     *
+     * @param consulta Las palabras a buscar (modo de lenguaje natural).
+     * @param desde La posición del primer resultado, o null para la primera página.
+     * @param limit La cantidad máxima de resultados.
+     * @param c La conexión JDBC activa.
+     * @return La página de coincidencias; su cursor es la posición del siguiente resultado.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos (ej. falta el índice FULLTEXT).
+     */
+    @Override
+    public Pagina<CoincidenciaClinica> buscarPorTexto(String consulta, Long desde, int limit, Connection c) throws SQLException {
+        long posicion = desde != null ? desde : 0L;
+        List<CoincidenciaClinica> items = new ArrayList<CoincidenciaClinica>(limit + 1);
+        try (PreparedStatement ps = c.prepareStatement(SQL_BUSCAR_TEXTO)) {
+            ps.setString(1, consulta);
+            ps.setString(2, consulta);
+            ps.setInt(3, limit + 1);
+            ps.setLong(4, posicion);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    PacienteResumen p = new PacienteResumen(
+                            rs.getLong("id"),
+                            rs.getString("dni"),
+                            rs.getString("nombre"),
+                            rs.getString("apellido"),
+                            rs.getString("nro_historia"),
+                            HistoriaClinica.GrupoSanguineo.fromDb(rs.getString("grupo_sanguineo")));
+                    items.add(new CoincidenciaClinica(p, rs.getDouble("relevancia")));
+                }
+            }
+        }
+        boolean hayMas = items.size() > limit;
+        if (hayMas) {
+            items.remove(limit);
+        }
+        return new Pagina<CoincidenciaClinica>(items, posicion + items.size(), hayMas);
+    }
+
     /**
      * Busca una Historia Clínica por ID.
      *
@@ -150,17 +523,43 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
      */
     @Override
     public Optional<HistoriaClinica> read(long id, Connection c) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("SELECT * FROM historia_clinica WHERE id=?")) {
+        try (PreparedStatement ps = c.prepareStatement(SQL_SELECT_ENCABEZADO + "WHERE id=?")) {
             ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(map(rs));
+                    return Optional.of(map(rs, c));
                 }
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * Busca varias Historias Clínicas activas por ID con listas IN de como máximo {@link SqlUtils#MAX_IN} elementos.
+     *
+     * @param ids Los IDs de las historias a buscar.
+     * @param c La conexión JDBC activa.
+     * @return Mapa de ID a Historia Clínica, en el orden de los IDs recibidos.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public Map<Long, HistoriaClinica> readByIds(Collection<Long> ids, Connection c) throws SQLException {
+        Map<Long, HistoriaClinica> encontradas = new HashMap<Long, HistoriaClinica>();
+        for (List<Long> bloque : SqlUtils.chunks(ids)) {
+            String sql = SQL_SELECT_ENCABEZADO + "WHERE eliminado=0 AND id IN (" + SqlUtils.placeholders(bloque.size()) + ")";
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                SqlUtils.bindIn(ps, bloque);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        HistoriaClinica h = map(rs, c);
+                        encontradas.put(h.getId(), h);
+                    }
+                }
+            }
+        }
+        return SqlUtils.ordenar(ids, encontradas);
+    }
+
     /**
      * Recupera todas las Historias Clínicas activas.
      *
@@ -171,42 +570,211 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
     @Override
     public java.util.List<HistoriaClinica> readAll(Connection c) throws SQLException {
         List<HistoriaClinica> list = new ArrayList<HistoriaClinica>();
-        try (PreparedStatement ps = c.prepareStatement("SELECT * FROM historia_clinica WHERE eliminado=0 ORDER BY id DESC"); ResultSet rs = ps.executeQuery()) {
+        try (PreparedStatement ps = c.prepareStatement(SQL_SELECT_ENCABEZADO + "WHERE eliminado=0 ORDER BY id DESC"); ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(map(rs));
+                list.add(map(rs, c));
             }
         }
         return list;
     }
 
     /**
-     * Actualiza los datos de una Historia Clínica existente.
+     * Recupera una página de Historias Clínicas activas ordenadas por ID descendente (paginación por clave).
+     *
+     * @param afterId El ID de la última historia de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de historias a devolver.
+     * @param c La conexión JDBC activa.
+     * @return La página de Historias Clínicas y el cursor de la siguiente.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public Pagina<HistoriaClinica> readPage(Long afterId, int limit, Connection c) throws SQLException {
+        String sql = afterId == null
+                ? SQL_SELECT_ENCABEZADO + "WHERE eliminado=0 ORDER BY id DESC LIMIT ?"
+                : SQL_SELECT_ENCABEZADO + "WHERE eliminado=0 AND id<? ORDER BY id DESC LIMIT ?";
+
+        List<HistoriaClinica> list = new ArrayList<HistoriaClinica>(limit);
+        boolean hayMas = false;
+
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int i = 1;
+            if (afterId != null) {
+                ps.setLong(i++, afterId);
+            }
+            ps.setInt(i, limit + 1); // Una fila extra para saber si hay otra página.
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (list.size() == limit) {
+                        hayMas = true;
+                        break;
+                    }
+                    list.add(map(rs, c));
+                }
+            }
+        }
+        Long cursor = list.isEmpty() ? null : list.get(list.size() - 1).getId();
+        return new Pagina<HistoriaClinica>(list, cursor, hayMas);
+    }
+
+    /**
+     * Recorre las Historias Clínicas activas (con todos sus campos) como un stream perezoso.
+     * Reutiliza {@link #mapCompleta(ResultSet)} para cada fila.
+     *
+     * @param c La conexión JDBC activa (no se cierra al cerrar el stream).
+     * @return Un stream de Historias Clínicas que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Stream<HistoriaClinica> streamAll(Connection c) throws SQLException {
+        return JdbcStreams.stream(c, false, SQL_STREAM, ps -> { }, this::mapCompleta);
+    }
+
+    /**
+     * Actualiza los datos de una Historia Clínica existente, escribiendo solo las columnas modificadas
+     * desde su lectura (ver {@link models.Base#getCamposModificados()}). Si no hubo cambios no accede
+     * a la base de datos. Si la entidad no lleva seguimiento de cambios, escribe todas las columnas,
+     * salvo los campos de texto que nunca se cargaron.
+     * <p>
+     * Control optimista: la sentencia exige la versión leída e incrementa la versión de la fila; si otra
+     * transacción la modificó en el medio se lanza {@link ConflictoConcurrenciaException}.
+     * </p>
      *
      * @param h La Historia Clínica con los nuevos datos.
      * @param c La conexión JDBC activa.
+     * @throws ConflictoConcurrenciaException Si la fila cambió (o se eliminó) desde que se leyó.
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     @Override
     public void update(HistoriaClinica h, Connection c) throws SQLException {
-        String sql = "UPDATE historia_clinica SET eliminado=?, nro_historia=?, grupo_sanguineo=?, antecedentes=?, medicacion_actual=?, observaciones=?, fecha_apertura=? WHERE id=?";
+        Set<String> campos;
+        if (h.isRastreandoCambios()) {
+            campos = h.getCamposModificados();
+        } else if (h.isTextosCargados()) {
+            campos = COLUMNAS_UPDATE;
+        } else {
+            campos = COLUMNAS_ENCABEZADO;
+        }
+        if (campos.isEmpty()) {
+            return;
+        }
+
+        List<String> columnas = new ArrayList<String>(campos.size());
+        for (String col : COLUMNAS_UPDATE) {
+            if (campos.contains(col)) {
+                columnas.add(col);
+            }
+        }
+        String sql = "UPDATE historia_clinica SET " + String.join("=?, ", columnas) + "=?, version=version+1 WHERE id=? AND version=?";
         try (PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setBoolean(1, h.isEliminado());
-            ps.setString(2, h.getNroHistoria());
-            if (h.getGrupoSanguineo() != null) {
-                ps.setString(3, h.getGrupoSanguineo().db());
-            } else {
-                ps.setNull(3, Types.VARCHAR);
-            }
-            ps.setString(4, h.getAntecedentes());
-            ps.setString(5, h.getMedicacionActual());
-            ps.setString(6, h.getObservaciones());
-            if (h.getFechaApertura() != null) {
-                ps.setDate(7, java.sql.Date.valueOf(h.getFechaApertura()));
-            } else {
-                ps.setNull(7, Types.DATE);
-            }
-            ps.setLong(8, h.getId());
-            ps.executeUpdate();
+            int i = 1;
+            for (String col : columnas) {
+                bindColumna(ps, i++, h, col);
+            }
+            ps.setLong(i++, h.getId());
+            ps.setInt(i, h.getVersion());
+            if (ps.executeUpdate() == 0) {
+                throw new ConflictoConcurrenciaException("Historia Clínica", h.getId(), h.getVersion());
+            }
+        }
+        h.setVersion(h.getVersion() + 1);
+    }
+
+    /**
+     * Asigna el valor de una columna actualizable de la Historia Clínica a un parámetro de la sentencia.
+     *
+     * @param ps La sentencia.
+     * @param i El índice del parámetro.
+     * @param h La Historia Clínica de la que se toma el valor.
+     * @param columna El nombre de la columna (uno de {@link #COLUMNAS_UPDATE}).
+     * @throws SQLException Si ocurre un error al asignar el parámetro.
+     */
+    private void bindColumna(PreparedStatement ps, int i, HistoriaClinica h, String columna) throws SQLException {
+        switch (columna) {
+            case "eliminado":
+                ps.setBoolean(i, h.isEliminado());
+                break;
+            case "nro_historia":
+                ps.setString(i, h.getNroHistoria());
+                break;
+            case "grupo_sanguineo":
+                if (h.getGrupoSanguineo() != null) {
+                    ps.setString(i, h.getGrupoSanguineo().db());
+                } else {
+                    ps.setNull(i, Types.VARCHAR);
+                }
+                break;
+            case "antecedentes":
+                ps.setString(i, h.getAntecedentes());
+                break;
+            case "medicacion_actual":
+                ps.setString(i, h.getMedicacionActual());
+                break;
+            case "observaciones":
+                ps.setString(i, h.getObservaciones());
+                break;
+            case "fecha_apertura":
+                if (h.getFechaApertura() != null) {
+                    ps.setDate(i, java.sql.Date.valueOf(h.getFechaApertura()));
+                } else {
+                    ps.setNull(i, Types.DATE);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Columna no actualizable: " + columna);
+        }
+    }
+
+    /**
+     * Carga los campos de texto extenso de una Historia Clínica leída solo con su encabezado.
+     *
+     * @param h La Historia Clínica (con ID asignado).
+     * @param c La conexión JDBC activa.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public void cargarTextos(HistoriaClinica h, Connection c) throws SQLException {
+        if (h.isTextosCargados()) {
+            return;
+        }
+        try (PreparedStatement ps = c.prepareStatement(SQL_SELECT_TEXTOS + "=?")) {
+            ps.setLong(1, h.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    h.setTextos(rs.getString("antecedentes"), rs.getString("medicacion_actual"), rs.getString("observaciones"));
+                } else {
+                    h.setTextos(null, null, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga por lotes los campos de texto de varias Historias Clínicas con consultas IN acotadas,
+     * evitando una consulta por registro (ej. al mostrar una página completa).
+     *
+     * @param hs Las Historias Clínicas cuyos textos se desean cargar; se omiten las que ya los tienen.
+     * @param c La conexión JDBC activa.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public void cargarTextos(Collection<HistoriaClinica> hs, Connection c) throws SQLException {
+        Map<Long, HistoriaClinica> pendientes = new HashMap<Long, HistoriaClinica>();
+        for (HistoriaClinica h : hs) {
+            if (h != null && !h.isTextosCargados()) {
+                pendientes.put(h.getId(), h);
+            }
+        }
+
+        for (List<Long> ids : SqlUtils.chunks(pendientes.keySet())) {
+            try (PreparedStatement ps = c.prepareStatement(SQL_SELECT_TEXTOS + " IN (" + SqlUtils.placeholders(ids.size()) + ")")) {
+                SqlUtils.bindIn(ps, ids);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        HistoriaClinica h = pendientes.get(rs.getLong("id"));
+                        h.setTextos(rs.getString("antecedentes"), rs.getString("medicacion_actual"), rs.getString("observaciones"));
+                    }
+                }
+            }
         }
     }
 
@@ -219,7 +787,7 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
      */
     @Override
     public void delete(long id, Connection c) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("UPDATE historia_clinica SET eliminado=1 WHERE id=?")) {
+        try (PreparedStatement ps = c.prepareStatement("UPDATE historia_clinica SET eliminado=1, version=version+1 WHERE id=?")) {
             ps.setLong(1, id);
             ps.executeUpdate();
         }
@@ -234,7 +802,7 @@ public class HistoriaClinicaDaoImpl implements HistoriaClinicaDao {
      */
     @Override
     public void deleteByPacienteId(long pacienteId, Connection c) throws SQLException {
-        String sql = "UPDATE historia_clinica SET eliminado=1 WHERE paciente_id=?";
+        String sql = "UPDATE historia_clinica SET eliminado=1, version=version+1 WHERE paciente_id=?";
 
         try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, pacienteId);
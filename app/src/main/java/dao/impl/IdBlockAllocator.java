@@ -0,0 +1,169 @@
+package dao.impl;
+
+import config.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asignador de IDs por bloques respaldado por la tabla {@code secuencia} (ver {@code 04_secuencia.sql}).
+ * <p>
+ * Reserva en la base de datos un bloque de {@code db.ids.blockSize} IDs con una única sentencia atómica
+ * y los entrega desde memoria con un contador sin bloqueos; solo al agotarse el bloque se reserva otro
+ * (de forma sincronizada). Así los IDs se conocen antes de insertar y los DAOs no necesitan
+ * {@link java.sql.Statement#RETURN_GENERATED_KEYS}.
+ * </p>
+ * <p>
+ * La reserva usa una conexión dedicada fuera del pool ({@link config.ConnectionPool#openDedicated()}), en modo
+ * autocommit y compartida por todas las secuencias: el llamador suele tener ya una conexión del pool en una
+ * transacción, y pedir otra para reservar haría esperar a todos los llamadores hasta agotar el tiempo del pool
+ * cuando este está saturado. Las reservas de distintas secuencias se serializan sobre esa conexión, lo que no
+ * pesa porque ocurren una vez cada {@code db.ids.blockSize} IDs.
+ * </p>
+ * <p>
+ * Huecos: la secuencia solo avanza, de modo que los IDs entregados y no usados no se recuperan. Quedan huecos
+ * cuando la transacción del llamador se revierte (el bloque ya fue confirmado por separado), cuando un upsert
+ * termina modificando una fila existente en lugar de insertarla y cuando la aplicación termina con IDs sin usar
+ * en el bloque vigente. Los IDs son únicos y crecientes por proceso, pero no consecutivos ni ordenados entre
+ * procesos. Con {@code db.ids.blockSize=0} (valor por defecto) el asignador está deshabilitado y se usa
+ * AUTO_INCREMENT.
+ * </p>
+ */
+final class IdBlockAllocator {
+
+    private static final String SQL_RESERVAR = "UPDATE secuencia SET siguiente = LAST_INSERT_ID(siguiente + ?) WHERE nombre = ?";
+
+    private static final Map<String, IdBlockAllocator> INSTANCIAS = new ConcurrentHashMap<>();
+
+    /**
+     * Conexión dedicada a las reservas, abierta en la primera y compartida por todas las secuencias.
+     * Se accede sincronizando sobre la clase.
+     */
+    private static Connection conexion;
+    private static boolean cierreRegistrado;
+
+    /**
+     * Rango de IDs reservado: {@code [siguiente, limite)}.
+     */
+    private static final class Bloque {
+        private final AtomicLong siguiente;
+        private final long limite;
+
+        Bloque(long desde, long limite) {
+            this.siguiente = new AtomicLong(desde);
+            this.limite = limite;
+        }
+    }
+
+    private final String secuencia;
+    private final int tamBloque;
+    private volatile Bloque bloque = new Bloque(0, 0);
+
+    private IdBlockAllocator(String secuencia, int tamBloque) {
+        this.secuencia = secuencia;
+        this.tamBloque = tamBloque;
+    }
+
+    /**
+     * Obtiene el asignador compartido de la secuencia indicada.
+     *
+     * @param secuencia El nombre de la secuencia (fila de la tabla {@code secuencia}).
+     * @return El asignador, o null si la asignación por bloques está deshabilitada ({@code db.ids.blockSize <= 0}).
+     */
+    static IdBlockAllocator para(String secuencia) {
+        int tam = DatabaseConnection.getIntProperty("db.ids.blockSize", 0);
+        if (tam <= 0) {
+            return null;
+        }
+        return INSTANCIAS.computeIfAbsent(secuencia, s -> new IdBlockAllocator(s, tam));
+    }
+
+    /**
+     * Entrega el siguiente ID libre. Solo accede a la base de datos cuando el bloque vigente se agota.
+     *
+     * @return Un ID único para la tabla de la secuencia.
+     * @throws SQLException Si no se puede reservar un nuevo bloque.
+     */
+    long siguiente() throws SQLException {
+        while (true) {
+            Bloque b = bloque;
+            long id = b.siguiente.getAndIncrement();
+            if (id < b.limite) {
+                return id;
+            }
+            synchronized (this) {
+                if (bloque == b) {
+                    bloque = reservar();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva un nuevo bloque avanzando la secuencia en {@link #tamBloque}.
+     *
+     * @return El bloque reservado.
+     * @throws SQLException Si la secuencia no existe o falla la reserva.
+     */
+    private Bloque reservar() throws SQLException {
+        synchronized (IdBlockAllocator.class) {
+            Connection c = conexionDedicada();
+            try {
+                try (PreparedStatement ps = c.prepareStatement(SQL_RESERVAR)) {
+                    ps.setInt(1, tamBloque);
+                    ps.setString(2, secuencia);
+                    if (ps.executeUpdate() == 0) {
+                        throw new SQLException("La secuencia '" + secuencia + "' no existe. Ejecute 04_secuencia.sql.");
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement("SELECT LAST_INSERT_ID()");
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    long limite = rs.getLong(1);
+                    return new Bloque(limite - tamBloque, limite);
+                }
+            } catch (SQLException e) {
+                // La próxima reserva abre una conexión nueva.
+                cerrarConexion();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Devuelve la conexión dedicada, abriéndola (o reemplazándola si el servidor la cerró) cuando hace falta.
+     * Debe invocarse sincronizando sobre la clase.
+     */
+    private static Connection conexionDedicada() throws SQLException {
+        if (conexion != null && !conexion.isValid(DatabaseConnection.getIntProperty("db.pool.validationTimeoutSec", 2))) {
+            cerrarConexion();
+        }
+        if (conexion == null) {
+            if (!cierreRegistrado) {
+                cierreRegistrado = true;
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    synchronized (IdBlockAllocator.class) {
+                        cerrarConexion();
+                    }
+                }, "id-allocator-shutdown"));
+            }
+            conexion = DatabaseConnection.getPool().openDedicated();
+        }
+        return conexion;
+    }
+
+    /**
+     * Cierra la conexión dedicada, si está abierta. Debe invocarse sincronizando sobre la clase.
+     */
+    private static void cerrarConexion() {
+        if (conexion != null) {
+            try { conexion.close(); } catch (SQLException ignore) {}
+            conexion = null;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package dao.impl;
+
+import config.DatabaseConnection;
+import exceptions.UncheckedSQLException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utilidades internas de los DAOs para exponer un {@link ResultSet} como un {@link Stream} perezoso.
+ * <p>
+ * Las filas se leen a medida que el stream las consume, en bloques de {@code db.stream.fetchSize}
+ * filas mediante un cursor del servidor ({@code useCursorFetch}), por lo que la memoria utilizada
+ * no depende del tamaño de la tabla. Al cerrar el stream se liberan el ResultSet, la sentencia
+ * y, si corresponde, la conexión.
+ * </p>
+ */
+final class JdbcStreams {
+
+    /**
+     * Función que convierte la fila actual de un {@link ResultSet} en una entidad.
+     *
+     * @param <T> El tipo de la entidad.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Asigna los parámetros de la consulta antes de ejecutarla.
+     */
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private JdbcStreams() {
+    }
+
+    /**
+     * Ejecuta la consulta y devuelve un stream perezoso sobre sus filas.
+     *
+     * @param c La conexión a utilizar.
+     * @param ownsConnection true si la conexión debe cerrarse (devolverse al pool) al cerrar el stream.
+     * @param sql La consulta SELECT.
+     * @param binder Asigna los parámetros de la consulta.
+     * @param mapper Convierte cada fila en una entidad.
+     * @param <T> El tipo de las entidades.
+     * @return Un stream que debe cerrarse (idealmente con try-with-resources).
+     * @throws SQLException Si falla la ejecución de la consulta (los recursos ya quedan liberados).
+     */
+    static <T> Stream<T> stream(Connection c, boolean ownsConnection, String sql,
+                                Binder binder, RowMapper<T> mapper) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(DatabaseConnection.getIntProperty("db.stream.fetchSize", 1000));
+            binder.bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeAll(rs, ps, ownsConnection ? c : null);
+            throw e;
+        }
+
+        final PreparedStatement stmt = ps;
+        final ResultSet results = rs;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(results));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException("Error al leer el siguiente registro", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeAll(results, stmt, ownsConnection ? c : null));
+    }
+
+    private static void closeAll(AutoCloseable... recursos) {
+        for (AutoCloseable r : recursos) {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (Exception e) {
+                    System.err.println("Error al liberar recursos del stream: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
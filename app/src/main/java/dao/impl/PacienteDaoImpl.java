@@ -2,10 +2,17 @@ package dao.impl;
 
 import config.DatabaseConnection;
 import dao.PacienteDao;
+import dao.Pagina;
+import dao.ResultadoDnis;
+import dao.ResultadoUpsert;
+import exceptions.ConflictoConcurrenciaException;
 import models.HistoriaClinica;
 import models.Paciente;
+import models.PacienteResumen;
 import java.sql.*;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Implementación concreta del DAO para la entidad {@link Paciente}.
@@ -14,21 +21,112 @@ import java.util.*;
  * Implementa la optimización N+1 utilizando un LEFT JOIN en los métodos de lectura
  * para recuperar el Paciente junto con su {@link HistoriaClinica} asociada en una sola consulta.
  * </p>
+ * <p>
+ * El JOIN trae solo el encabezado de la Historia Clínica; sus campos TEXT se cargan de forma diferida
+ * a través del {@link HistoriaClinicaDaoImpl}, salvo en el recorrido por stream, que lee la fila completa.
+ * </p>
  */
 public class PacienteDaoImpl implements PacienteDao {
 
+    /**
+     * Consulta base: Paciente con el encabezado de su Historia Clínica activa (LEFT JOIN) en una sola consulta.
+     */
+    private static final String SQL_SELECT = "SELECT p.*, " +
+            "hc.id AS hc_id, hc.eliminado AS hc_eliminado, hc.version AS hc_version, hc.nro_historia, " +
+            "hc.grupo_sanguineo, hc.fecha_apertura " +
+            "FROM paciente p " +
+            "LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0 ";
+
+    /**
+     * Consulta completa (incluye los campos TEXT), usada por el recorrido por stream para exportaciones.
+     */
+    private static final String SQL_SELECT_COMPLETO = "SELECT p.*, " +
+            "hc.id AS hc_id, hc.eliminado AS hc_eliminado, hc.version AS hc_version, hc.nro_historia, " +
+            "hc.grupo_sanguineo, hc.antecedentes, hc.medicacion_actual, " +
+            "hc.observaciones, hc.fecha_apertura " +
+            "FROM paciente p " +
+            "LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0 ";
+
+    private static final String SQL_STREAM = SQL_SELECT_COMPLETO + "WHERE p.eliminado = 0 ORDER BY p.id";
+
+    /**
+     * Consulta base de la proyección {@link PacienteResumen}: solo las columnas que muestran los listados,
+     * sin los campos TEXT de la Historia Clínica.
+     */
+    private static final String SQL_SELECT_RESUMEN = "SELECT p.id, p.dni, p.nombre, p.apellido, " +
+            "hc.nro_historia, hc.grupo_sanguineo " +
+            "FROM paciente p " +
+            "LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0 ";
+
+    private static final String SQL_STREAM_RESUMEN = SQL_SELECT_RESUMEN + "WHERE p.eliminado = 0 ORDER BY p.id";
+
+    /**
+     * Solo la columna DNI de los pacientes activos (sin JOIN ni orden), para construir filtros en memoria.
+     */
+    private static final String SQL_STREAM_DNIS = "SELECT dni FROM paciente WHERE eliminado = 0";
+
+    private static final String SQL_INSERT =
+            "INSERT INTO paciente (eliminado,nombre,apellido,dni,fecha_nacimiento) VALUES (?,?,?,?,?)";
+
+    /**
+     * Inserción con ID asignado por {@link IdBlockAllocator} (el ID es el último parámetro).
+     */
+    private static final String SQL_INSERT_CON_ID =
+            "INSERT INTO paciente (eliminado,nombre,apellido,dni,fecha_nacimiento,id) VALUES (?,?,?,?,?,?)";
+
+    /**
+     * Alta-o-modificación por DNI (la única clave única de la tabla además del ID). Reactiva el paciente si estaba eliminado.
+     */
+    private static final String SQL_ON_DUPLICATE = " ON DUPLICATE KEY UPDATE " +
+            "eliminado=VALUES(eliminado), nombre=VALUES(nombre), apellido=VALUES(apellido), fecha_nacimiento=VALUES(fecha_nacimiento), " +
+            "version=version+1";
+
+    private static final String SQL_UPSERT = SQL_INSERT + SQL_ON_DUPLICATE;
+
+    private static final String SQL_UPSERT_CON_ID = SQL_INSERT_CON_ID + SQL_ON_DUPLICATE;
+
+    /**
+     * Alta conjunta de paciente e Historia Clínica (procedimiento de {@code 07_alta_paciente.sql}).
+     */
+    private static final String SQL_ALTA_CON_HISTORIA = "CALL sp_alta_paciente_con_historia(?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    /**
+     * Baja lógica conjunta: un solo UPDATE multi-tabla sobre el paciente y su Historia Clínica.
+     */
+    private static final String SQL_DELETE_CON_HISTORIA = "UPDATE paciente p " +
+            "JOIN historia_clinica hc ON hc.paciente_id = p.id " +
+            "SET p.eliminado = 1, p.version = p.version + 1, hc.eliminado = 1, hc.version = hc.version + 1 " +
+            "WHERE p.id = ?";
+
+    /**
+     * Columnas que puede escribir {@link #update(Paciente, Connection)}, en el orden en que se emiten.
+     */
+    private static final Set<String> COLUMNAS_UPDATE = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(
+            "eliminado", "nombre", "apellido", "dni", "fecha_nacimiento")));
+
+    private final HistoriaClinicaDaoImpl hcDao = new HistoriaClinicaDaoImpl();
+
+    /**
+     * Asignador de IDs por bloques, o null si se usa AUTO_INCREMENT ({@code db.ids.blockSize=0}).
+     */
+    private final IdBlockAllocator ids = IdBlockAllocator.para("paciente");
+
     /**
      * Mapea el resultado de una fila del {@link ResultSet} a un objeto {@link Paciente} completo.
-     * Lee columnas de la tabla 'paciente' y las columnas de 'historia_clinica' (si existen).
+     * Lee columnas de la tabla 'paciente' y el encabezado de 'historia_clinica' (si existe);
+     * los textos de la historia quedan pendientes de carga diferida.
      *
      * @param rs El conjunto de resultados JDBC.
+     * @param c La conexión con la que se leyó la fila (la usa la carga diferida mientras siga abierta), o null
+     *          si los textos se asignan a continuación.
      * @return Un objeto Paciente con su Historia Clínica asociada si existe.
      * @throws SQLException Si ocurre un error al leer los datos.
      */
-    private Paciente map(ResultSet rs) throws SQLException {
+    private Paciente map(ResultSet rs, Connection c) throws SQLException {
         Paciente p = new Paciente();
         p.setId(rs.getLong("id"));
         p.setEliminado(rs.getBoolean("eliminado"));
+        p.setVersion(rs.getInt("version"));
         p.setNombre(rs.getString("nombre"));
         p.setApellido(rs.getString("apellido"));
         p.setDni(rs.getString("dni"));
@@ -41,21 +139,117 @@ public class PacienteDaoImpl implements PacienteDao {
             HistoriaClinica h = new HistoriaClinica();
             h.setId(hcId);
             h.setEliminado(rs.getBoolean("hc_eliminado"));
+            h.setVersion(rs.getInt("hc_version"));
             h.setNroHistoria(rs.getString("nro_historia"));
             String gs = rs.getString("grupo_sanguineo");
             h.setGrupoSanguineo(HistoriaClinica.GrupoSanguineo.fromDb(gs));
-            h.setAntecedentes(rs.getString("antecedentes"));
-            h.setMedicacionActual(rs.getString("medicacion_actual"));
-            h.setObservaciones(rs.getString("observaciones"));
             java.sql.Date fApertura = rs.getDate("fecha_apertura");
             h.setFechaApertura(fApertura != null ? fApertura.toLocalDate() : null);
+            h.setTextosPendientes(hcDao.getCargadorTextos(c));
+            h.limpiarModificaciones();
 
             p.setHistoriaClinica(h); // asigna la historia clinica al paciente
         }
 
+        p.limpiarModificaciones();
         return p;
     }
 
+    /**
+     * Mapea una fila de {@link #SQL_SELECT_COMPLETO}: igual que {@link #map(ResultSet, Connection)}, pero asigna
+     * también los campos de texto de la Historia Clínica.
+     *
+     * @param rs El conjunto de resultados JDBC.
+     * @return Un objeto Paciente con su Historia Clínica completa.
+     * @throws SQLException Si ocurre un error al leer los datos.
+     */
+    private Paciente mapCompleto(ResultSet rs) throws SQLException {
+        Paciente p = map(rs, null);
+        HistoriaClinica h = p.getHistoriaClinica();
+        if (h != null) {
+            h.setTextos(rs.getString("antecedentes"), rs.getString("medicacion_actual"), rs.getString("observaciones"));
+        }
+        return p;
+    }
+
+    /**
+     * Mapea una fila de {@link #SQL_SELECT_RESUMEN} a la proyección {@link PacienteResumen}.
+     *
+     * @param rs El conjunto de resultados JDBC.
+     * @return El resumen del paciente.
+     * @throws SQLException Si ocurre un error al leer los datos.
+     */
+    private PacienteResumen mapResumen(ResultSet rs) throws SQLException {
+        return new PacienteResumen(
+                rs.getLong("id"),
+                rs.getString("dni"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                rs.getString("nro_historia"),
+                HistoriaClinica.GrupoSanguineo.fromDb(rs.getString("grupo_sanguineo")));
+    }
+
+    /**
+     * Ejecuta una consulta paginada por clave sobre pacientes activos ({@code p.id < cursor}, orden descendente).
+     * Pide una fila extra para saber si existe una página siguiente.
+     *
+     * @param c La conexión JDBC activa.
+     * @param select La consulta base (SELECT ... FROM ... JOIN ...), sin WHERE.
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de filas.
+     * @param mapper Convierte cada fila en un elemento.
+     * @param idOf Obtiene el ID de un elemento (para el cursor).
+     * @return La página de elementos.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    private <T> Pagina<T> readPage(Connection c, String select, Long afterId, int limit,
+                                   JdbcStreams.RowMapper<T> mapper, Function<T, Long> idOf) throws SQLException {
+        String sql = select +
+                (afterId == null ? "WHERE p.eliminado = 0 " : "WHERE p.eliminado = 0 AND p.id < ? ") +
+                "ORDER BY p.id DESC LIMIT ?";
+
+        List<T> list = new ArrayList<T>(limit);
+        boolean hayMas = false;
+
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int i = 1;
+            if (afterId != null) {
+                ps.setLong(i++, afterId);
+            }
+            ps.setInt(i, limit + 1); // Una fila extra para saber si hay otra página.
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (list.size() == limit) {
+                        hayMas = true;
+                        break;
+                    }
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+        Long cursor = list.isEmpty() ? null : idOf.apply(list.get(list.size() - 1));
+        return new Pagina<T>(list, cursor, hayMas);
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia {@link #SQL_INSERT} a partir de un paciente.
+     *
+     * @param ps La sentencia de inserción.
+     * @param p El paciente a insertar.
+     * @throws SQLException Si ocurre un error al asignar los parámetros.
+     */
+    private void bindInsert(PreparedStatement ps, Paciente p) throws SQLException {
+        ps.setBoolean(1, p.isEliminado());
+        ps.setString(2, p.getNombre());
+        ps.setString(3, p.getApellido());
+        ps.setString(4, p.getDni());
+        if (p.getFechaNacimiento() != null) {
+            ps.setDate(5, java.sql.Date.valueOf(p.getFechaNacimiento()));
+        } else {
+            ps.setNull(5, Types.DATE);
+        }
+    }
+
     // --- Métodos de Conveniencia (Autoconexión) ---
 
     /**
@@ -68,6 +262,16 @@ public class PacienteDaoImpl implements PacienteDao {
         }
     }
 
+    /**
+     * Persiste un lote de pacientes nuevos, delegando al método transaccional.
+     */
+    @Override
+    public List<Paciente> createAll(List<Paciente> pacientes) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return createAll(pacientes, c);
+        }
+    }
+
     /**
      * Busca un paciente por ID, delegando al método transaccional.
      */
@@ -78,6 +282,16 @@ public class PacienteDaoImpl implements PacienteDao {
         }
     }
 
+    /**
+     * Busca varios pacientes por ID, delegando al método transaccional.
+     */
+    @Override
+    public Map<Long, Paciente> readByIds(Collection<Long> ids) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return readByIds(ids, c);
+        }
+    }
+
     /**
      * Recupera todos los pacientes activos, delegando al método transaccional.
      */
@@ -88,6 +302,42 @@ public class PacienteDaoImpl implements PacienteDao {
         }
     }
 
+    /**
+     * Recupera una página de pacientes activos, delegando al método transaccional.
+     */
+    @Override
+    public Pagina<Paciente> readPage(Long afterId, int limit) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return readPage(afterId, limit, c);
+        }
+    }
+
+    /**
+     * Recorre los pacientes activos como stream. La conexión se devuelve al pool al cerrar el stream.
+     */
+    @Override
+    public Stream<Paciente> streamAll() throws SQLException {
+        return JdbcStreams.stream(DatabaseConnection.getConnection(), true, SQL_STREAM, ps -> { }, this::mapCompleto);
+    }
+
+    /**
+     * Recupera una página de resúmenes de pacientes, delegando al método transaccional.
+     */
+    @Override
+    public Pagina<PacienteResumen> readResumenPage(Long afterId, int limit) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return readResumenPage(afterId, limit, c);
+        }
+    }
+
+    /**
+     * Recorre los resúmenes de pacientes como stream. La conexión se devuelve al pool al cerrar el stream.
+     */
+    @Override
+    public Stream<PacienteResumen> streamResumen() throws SQLException {
+        return JdbcStreams.stream(DatabaseConnection.getConnection(), true, SQL_STREAM_RESUMEN, ps -> { }, this::mapResumen);
+    }
+
     /**
      * Actualiza un paciente existente, delegando al método transaccional.
      */
@@ -118,6 +368,16 @@ public class PacienteDaoImpl implements PacienteDao {
         }
     }
 
+    /**
+     * Busca un lote de pacientes por DNI, delegando al método transaccional.
+     */
+    @Override
+    public ResultadoDnis findByDnis(Collection<String> dnis) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            return findByDnis(dnis, c);
+        }
+    }
+
     // --- Métodos Transaccionales (Conexión Inyectada) ---
 
     /**
@@ -130,17 +390,17 @@ public class PacienteDaoImpl implements PacienteDao {
      */
     @Override
     public Paciente create(Paciente p, Connection c) throws SQLException {
-        String sql = "INSERT INTO paciente (eliminado,nombre,apellido,dni,fecha_nacimiento) VALUES (?,?,?,?,?)";
-        try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setBoolean(1, p.isEliminado());
-            ps.setString(2, p.getNombre());
-            ps.setString(3, p.getApellido());
-            ps.setString(4, p.getDni());
-            if (p.getFechaNacimiento() != null) {
-                ps.setDate(5, java.sql.Date.valueOf(p.getFechaNacimiento()));
-            } else {
-                ps.setNull(5, Types.DATE);
+        if (ids != null) {
+            p.setId(ids.siguiente());
+            try (PreparedStatement ps = c.prepareStatement(SQL_INSERT_CON_ID)) {
+                bindInsert(ps, p);
+                ps.setLong(6, p.getId());
+                ps.executeUpdate();
+                return p;
             }
+        }
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(ps, p);
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
@@ -151,6 +411,53 @@ public class PacienteDaoImpl implements PacienteDao {
         }
     }
 
+    /**
+     * Persiste un lote de pacientes en una sola ejecución JDBC. Con {@code rewriteBatchedStatements}
+     * el driver envía el lote como un único INSERT multi-fila; las claves generadas se asignan
+     * a cada paciente respetando el orden de la lista. Si la asignación por bloques está habilitada, los IDs
+     * se asignan antes de insertar y no se piden claves generadas.
+     *
+     * @param pacientes Los pacientes a crear.
+     * @param c La conexión JDBC activa.
+     * @return La misma lista, con los IDs generados asignados.
+     * @throws SQLException Si falla el lote o si la cantidad de claves generadas no coincide con la de filas.
+     */
+    @Override
+    public List<Paciente> createAll(List<Paciente> pacientes, Connection c) throws SQLException {
+        if (pacientes.isEmpty()) {
+            return pacientes;
+        }
+        if (ids != null) {
+            try (PreparedStatement ps = c.prepareStatement(SQL_INSERT_CON_ID)) {
+                for (Paciente p : pacientes) {
+                    p.setId(ids.siguiente());
+                    bindInsert(ps, p);
+                    ps.setLong(6, p.getId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return pacientes;
+            }
+        }
+        try (PreparedStatement ps = c.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Paciente p : pacientes) {
+                bindInsert(ps, p);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                int i = 0;
+                while (rs.next() && i < pacientes.size()) {
+                    pacientes.get(i++).setId(rs.getLong(1));
+                }
+                if (i != pacientes.size()) {
+                    throw new SQLException("Se esperaban " + pacientes.size() + " claves generadas y se obtuvieron " + i);
+                }
+            }
+            return pacientes;
+        }
+    }
+
     /**
      * Busca un paciente por ID. Utiliza LEFT JOIN para recuperar la Historia Clínica en la misma consulta.
      *
@@ -161,25 +468,47 @@ public class PacienteDaoImpl implements PacienteDao {
      */
     @Override
     public Optional<Paciente> read(long id, Connection c) throws SQLException {
-        String sql = "SELECT p.*, " +
-                "hc.id AS hc_id, hc.eliminado AS hc_eliminado, hc.nro_historia, " +
-                "hc.grupo_sanguineo, hc.antecedentes, hc.medicacion_actual, " +
-                "hc.observaciones, hc.fecha_apertura " +
-                "FROM paciente p " +
-                "LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0 " +
+        String sql = SQL_SELECT +
                 "WHERE p.id = ? AND p.eliminado = 0";
 
         try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(map(rs));
+                    return Optional.of(map(rs, c));
                 }
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * Busca varios pacientes activos por ID. Utiliza el mismo LEFT JOIN que {@link #read(long, Connection)}
+     * y divide los IDs en listas IN de como máximo {@link SqlUtils#MAX_IN} elementos.
+     *
+     * @param ids Los IDs de los pacientes a buscar.
+     * @param c La conexión JDBC activa.
+     * @return Mapa de ID a paciente completo, en el orden de los IDs recibidos.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public Map<Long, Paciente> readByIds(Collection<Long> ids, Connection c) throws SQLException {
+        Map<Long, Paciente> encontrados = new HashMap<Long, Paciente>();
+        for (List<Long> bloque : SqlUtils.chunks(ids)) {
+            String sql = SQL_SELECT + "WHERE p.eliminado = 0 AND p.id IN (" + SqlUtils.placeholders(bloque.size()) + ")";
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                SqlUtils.bindIn(ps, bloque);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Paciente p = map(rs, c);
+                        encontrados.put(p.getId(), p);
+                    }
+                }
+            }
+        }
+        return SqlUtils.ordenar(ids, encontrados);
+    }
+
     /**
      * Recupera todos los pacientes activos. Utiliza LEFT JOIN para recuperar la Historia Clínica en la misma consulta.
      *
@@ -189,12 +518,7 @@ public class PacienteDaoImpl implements PacienteDao {
      */
     @Override
     public java.util.List<Paciente> readAll(Connection c) throws SQLException {
-        String sql = "SELECT p.*, " +
-                "hc.id AS hc_id, hc.eliminado AS hc_eliminado, hc.nro_historia, " +
-                "hc.grupo_sanguineo, hc.antecedentes, hc.medicacion_actual, " +
-                "hc.observaciones, hc.fecha_apertura " +
-                "FROM paciente p " +
-                "LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0 " +
+        String sql = SQL_SELECT +
                 "WHERE p.eliminado = 0 " +
                 "ORDER BY p.id DESC";
 
@@ -204,34 +528,163 @@ public class PacienteDaoImpl implements PacienteDao {
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                list.add(map(rs));
+                list.add(map(rs, c));
             }
         }
         return list;
     }
 
     /**
-     * Actualiza los datos de un paciente existente.
+     * Recupera una página de pacientes activos ordenados por ID descendente (paginación por clave).
+     * Utiliza LEFT JOIN para recuperar la Historia Clínica y {@code WHERE p.id < ?} en lugar de OFFSET,
+     * de modo que el costo de cada página no depende de su posición en el listado.
+     *
+     * @param afterId El ID del último paciente de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de pacientes a devolver.
+     * @param c La conexión JDBC activa.
+     * @return La página de pacientes y el cursor de la siguiente.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public Pagina<Paciente> readPage(Long afterId, int limit, Connection c) throws SQLException {
+        return readPage(c, SQL_SELECT, afterId, limit, rs -> map(rs, c), Paciente::getId);
+    }
+
+    /**
+     * Recupera una página de resúmenes de pacientes activos (paginación por clave, ID descendente).
+     * Solo selecciona las columnas de {@link PacienteResumen}, sin los campos TEXT de la Historia Clínica.
+     *
+     * @param afterId El ID del último paciente de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resúmenes a devolver.
+     * @param c La conexión JDBC activa.
+     * @return La página de resúmenes y el cursor de la siguiente.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public Pagina<PacienteResumen> readResumenPage(Long afterId, int limit, Connection c) throws SQLException {
+        return readPage(c, SQL_SELECT_RESUMEN, afterId, limit, this::mapResumen, PacienteResumen::getId);
+    }
+
+    /**
+     * Recorre los resúmenes de los pacientes activos como un stream perezoso.
+     *
+     * @param c La conexión JDBC activa (no se cierra al cerrar el stream).
+     * @return Un stream de resúmenes que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Stream<PacienteResumen> streamResumen(Connection c) throws SQLException {
+        return JdbcStreams.stream(c, false, SQL_STREAM_RESUMEN, ps -> { }, this::mapResumen);
+    }
+
+    /**
+     * Recorre los DNIs de los pacientes activos como stream. La conexión se devuelve al pool al cerrar el stream.
+     */
+    @Override
+    public Stream<String> streamDnis() throws SQLException {
+        return JdbcStreams.stream(DatabaseConnection.getConnection(), true, SQL_STREAM_DNIS, ps -> { }, rs -> rs.getString(1));
+    }
+
+    /**
+     * Recorre los DNIs de los pacientes activos como un stream perezoso.
+     *
+     * @param c La conexión JDBC activa (no se cierra al cerrar el stream).
+     * @return Un stream de DNIs que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Stream<String> streamDnis(Connection c) throws SQLException {
+        return JdbcStreams.stream(c, false, SQL_STREAM_DNIS, ps -> { }, rs -> rs.getString(1));
+    }
+
+    /**
+     * Recorre los pacientes activos (con su Historia Clínica completa) como un stream perezoso.
+     * Reutiliza {@link #mapCompleto(ResultSet)} para cada fila.
+     *
+     * @param c La conexión JDBC activa (no se cierra al cerrar el stream).
+     * @return Un stream de pacientes que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Stream<Paciente> streamAll(Connection c) throws SQLException {
+        return JdbcStreams.stream(c, false, SQL_STREAM, ps -> { }, this::mapCompleto);
+    }
+
+    /**
+     * Actualiza los datos de un paciente existente, escribiendo solo las columnas modificadas desde su
+     * lectura (ver {@link models.Base#getCamposModificados()}). Si no hubo cambios no accede a la base de datos.
+     * Si la entidad no lleva seguimiento de cambios (ej. armada a mano), escribe todas las columnas.
+     * <p>
+     * Control optimista: la sentencia exige la versión leída e incrementa la versión de la fila; si otra
+     * transacción la modificó en el medio no se afecta ninguna fila y se lanza {@link ConflictoConcurrenciaException}.
+     * Tras una actualización exitosa la versión en memoria se incrementa.
+     * </p>
      *
      * @param p El paciente con los nuevos datos.
      * @param c La conexión JDBC activa.
+     * @throws ConflictoConcurrenciaException Si la fila cambió (o se eliminó) desde que se leyó.
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     @Override
     public void update(Paciente p, Connection c) throws SQLException {
-        String sql = "UPDATE paciente SET eliminado=?, nombre=?, apellido=?, dni=?, fecha_nacimiento=? WHERE id=?";
+        Set<String> campos = p.isRastreandoCambios() ? p.getCamposModificados() : COLUMNAS_UPDATE;
+        if (campos.isEmpty()) {
+            return;
+        }
+
+        List<String> columnas = new ArrayList<String>(campos.size());
+        for (String col : COLUMNAS_UPDATE) {
+            if (campos.contains(col)) {
+                columnas.add(col);
+            }
+        }
+        String sql = "UPDATE paciente SET " + String.join("=?, ", columnas) + "=?, version=version+1 WHERE id=? AND version=?";
         try (PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setBoolean(1, p.isEliminado());
-            ps.setString(2, p.getNombre());
-            ps.setString(3, p.getApellido());
-            ps.setString(4, p.getDni());
-            if (p.getFechaNacimiento() != null) {
-                ps.setDate(5, java.sql.Date.valueOf(p.getFechaNacimiento()));
-            } else {
-                ps.setNull(5, Types.DATE);
+            int i = 1;
+            for (String col : columnas) {
+                bindColumna(ps, i++, p, col);
+            }
+            ps.setLong(i++, p.getId());
+            ps.setInt(i, p.getVersion());
+            if (ps.executeUpdate() == 0) {
+                throw new ConflictoConcurrenciaException("Paciente", p.getId(), p.getVersion());
             }
-            ps.setLong(6, p.getId());
-            ps.executeUpdate();
+        }
+        p.setVersion(p.getVersion() + 1);
+    }
+
+    /**
+     * Asigna el valor de una columna actualizable del paciente a un parámetro de la sentencia.
+     *
+     * @param ps La sentencia.
+     * @param i El índice del parámetro.
+     * @param p El paciente del que se toma el valor.
+     * @param columna El nombre de la columna (uno de {@link #COLUMNAS_UPDATE}).
+     * @throws SQLException Si ocurre un error al asignar el parámetro.
+     */
+    private void bindColumna(PreparedStatement ps, int i, Paciente p, String columna) throws SQLException {
+        switch (columna) {
+            case "eliminado":
+                ps.setBoolean(i, p.isEliminado());
+                break;
+            case "nombre":
+                ps.setString(i, p.getNombre());
+                break;
+            case "apellido":
+                ps.setString(i, p.getApellido());
+                break;
+            case "dni":
+                ps.setString(i, p.getDni());
+                break;
+            case "fecha_nacimiento":
+                if (p.getFechaNacimiento() != null) {
+                    ps.setDate(i, java.sql.Date.valueOf(p.getFechaNacimiento()));
+                } else {
+                    ps.setNull(i, Types.DATE);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Columna no actualizable: " + columna);
         }
     }
 
@@ -244,12 +697,89 @@ public class PacienteDaoImpl implements PacienteDao {
      */
     @Override
     public void delete(long id, Connection c) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("UPDATE paciente SET eliminado=1 WHERE id=?")) {
+        try (PreparedStatement ps = c.prepareStatement("UPDATE paciente SET eliminado=1, version=version+1 WHERE id=?")) {
             ps.setLong(1, id);
             ps.executeUpdate();
         }
     }
 
+    /**
+     * Crea el paciente y su Historia Clínica invocando {@code sp_alta_paciente_con_historia}, que inserta ambas
+     * filas y devuelve sus IDs en un result set. Si la asignación por bloques está habilitada, los IDs se
+     * asignan antes y el procedimiento los usa tal cual.
+     *
+     * @param p El paciente a crear, con su Historia Clínica.
+     * @param c La conexión JDBC activa.
+     * @return El paciente con los IDs asignados.
+     * @throws SQLException Si ocurre un error en la base de datos o el procedimiento no devuelve los IDs.
+     */
+    @Override
+    public Paciente createConHistoria(Paciente p, Connection c) throws SQLException {
+        HistoriaClinica h = p.getHistoriaClinica();
+        Long pacienteId = ids != null ? ids.siguiente() : null;
+        Long historiaId = hcDao.reservarId();
+
+        try (PreparedStatement ps = c.prepareStatement(SQL_ALTA_CON_HISTORIA)) {
+            ps.setObject(1, pacienteId, Types.BIGINT);
+            ps.setBoolean(2, p.isEliminado());
+            ps.setString(3, p.getNombre());
+            ps.setString(4, p.getApellido());
+            ps.setString(5, p.getDni());
+            if (p.getFechaNacimiento() != null) {
+                ps.setDate(6, java.sql.Date.valueOf(p.getFechaNacimiento()));
+            } else {
+                ps.setNull(6, Types.DATE);
+            }
+            ps.setObject(7, historiaId, Types.BIGINT);
+            ps.setBoolean(8, h.isEliminado());
+            ps.setString(9, h.getNroHistoria());
+            if (h.getGrupoSanguineo() != null) {
+                ps.setString(10, h.getGrupoSanguineo().db());
+            } else {
+                ps.setNull(10, Types.VARCHAR);
+            }
+            ps.setString(11, h.getAntecedentes());
+            ps.setString(12, h.getMedicacionActual());
+            ps.setString(13, h.getObservaciones());
+            if (h.getFechaApertura() != null) {
+                ps.setDate(14, java.sql.Date.valueOf(h.getFechaApertura()));
+            } else {
+                ps.setNull(14, Types.DATE);
+            }
+
+            if (!ps.execute()) {
+                throw new SQLException("sp_alta_paciente_con_historia no devolvió los IDs generados");
+            }
+            try (ResultSet rs = ps.getResultSet()) {
+                if (!rs.next()) {
+                    throw new SQLException("sp_alta_paciente_con_historia no devolvió los IDs generados");
+                }
+                p.setId(rs.getLong("paciente_id"));
+                h.setId(rs.getLong("historia_id"));
+            }
+            return p;
+        }
+    }
+
+    /**
+     * Realiza la baja lógica del paciente y su Historia Clínica con un UPDATE multi-tabla.
+     * Conserva la verificación de integridad de la baja en dos pasos: si el paciente no tiene Historia Clínica
+     * el JOIN no encuentra filas, no se modifica nada y se lanza una excepción para forzar el rollback.
+     *
+     * @param id El ID del paciente.
+     * @param c La conexión JDBC activa.
+     * @throws SQLException Si ocurre un error al ejecutar la baja o si no se encontró la Historia Clínica.
+     */
+    @Override
+    public void deleteConHistoria(long id, Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SQL_DELETE_CON_HISTORIA)) {
+            ps.setLong(1, id);
+            if (ps.executeUpdate() == 0) {
+                throw new SQLException("Error de integridad: No se encontró Historia Clínica activa para el paciente ID: " + id);
+            }
+        }
+    }
+
     /**
      * Busca un paciente por DNI. Utiliza LEFT JOIN para recuperar la Historia Clínica en la misma consulta.
      *
@@ -260,22 +790,144 @@ public class PacienteDaoImpl implements PacienteDao {
      */
     @Override
     public Optional<Paciente> findByDni(String dni, Connection c) throws SQLException {
-        String sql = "SELECT p.*, " +
-                "hc.id AS hc_id, hc.eliminado AS hc_eliminado, hc.nro_historia, " +
-                "hc.grupo_sanguineo, hc.antecedentes, hc.medicacion_actual, " +
-                "hc.observaciones, hc.fecha_apertura " +
-                "FROM paciente p " +
-                "LEFT JOIN historia_clinica hc ON p.id = hc.paciente_id AND hc.eliminado = 0 " +
+        String sql = SQL_SELECT +
                 "WHERE p.dni = ? AND p.eliminado = 0";
 
         try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, dni);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(map(rs));
+                    return Optional.of(map(rs, c));
                 }
             }
         }
         return Optional.empty();
     }
+
+    /**
+     * Busca un lote de pacientes activos por DNI. Divide los DNIs en listas IN de como máximo
+     * {@link SqlUtils#MAX_IN} elementos, resueltas sobre el índice único de {@code paciente.dni}.
+     *
+     * @param dnis Los DNIs a buscar.
+     * @param c La conexión JDBC activa.
+     * @return Los pacientes encontrados (por DNI) y los DNIs faltantes, ambos en el orden recibido.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public ResultadoDnis findByDnis(Collection<String> dnis, Connection c) throws SQLException {
+        List<String> buscados = new ArrayList<String>(dnis.size());
+        for (String dni : dnis) {
+            if (dni != null) {
+                buscados.add(dni);
+            }
+        }
+        Map<String, Paciente> encontrados = new HashMap<String, Paciente>();
+        for (List<String> bloque : SqlUtils.chunks(buscados)) {
+            String sql = SQL_SELECT + "WHERE p.eliminado = 0 AND p.dni IN (" + SqlUtils.placeholders(bloque.size()) + ")";
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                SqlUtils.bindIn(ps, bloque);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Paciente p = map(rs, c);
+                        encontrados.put(p.getDni(), p);
+                    }
+                }
+            }
+        }
+        Map<String, Paciente> ordenados = SqlUtils.ordenar(buscados, encontrados);
+        Set<String> faltantes = new LinkedHashSet<String>();
+        for (String dni : buscados) {
+            if (!ordenados.containsKey(dni)) {
+                faltantes.add(dni);
+            }
+        }
+        return new ResultadoDnis(ordenados, faltantes);
+    }
+
+    /**
+     * Crea o actualiza un lote de pacientes por DNI.
+     * <p>
+     * 1) Un único lote {@code INSERT ... ON DUPLICATE KEY UPDATE} escribe todas las filas, sin lectura previa: el
+     * propio INSERT bloquea cada fila que crea o modifica, sin tomar bloqueos de hueco sobre DNIs inexistentes.
+     * 2) Una consulta por bloque de DNIs recupera el ID y la versión que dejó la escritura. Como la fila ya está
+     * bloqueada por esta transacción, la lectura no necesita {@code FOR UPDATE}.
+     * Cada fila se clasifica por el conteo que devuelve el lote (1 = alta, 2 = modificación). Con
+     * {@code rewriteBatchedStatements} el driver no informa conteos por fila, y se usa la versión leída:
+     * 0 es un alta, porque la modificación siempre la incrementa.
+     * </p>
+     * <p>
+     * Un paciente eliminado lógicamente con el mismo DNI no se duplica (el DNI es único en la tabla): se
+     * reactiva con los datos del lote y se informa entre los actualizados. Lo mismo ocurre con su Historia Clínica
+     * en el upsert de historias. Las Historias Clínicas quedan sin ID, para que las resuelva ese upsert por
+     * {@code paciente_id}.
+     * </p>
+     *
+     * @param pacientes Los pacientes a escribir.
+     * @param c La conexión JDBC de la transacción activa.
+     * @return Los pacientes creados y actualizados, con sus IDs y versiones.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public ResultadoUpsert upsertPorDni(List<Paciente> pacientes, Connection c) throws SQLException {
+        if (pacientes.isEmpty()) {
+            return new ResultadoUpsert(List.of(), List.of());
+        }
+        // Las filas leídas se asocian por la clave de comparación de la columna, no por el texto exacto.
+        Map<String, Paciente> porDni = new HashMap<String, Paciente>();
+        for (Paciente p : pacientes) {
+            if (porDni.put(SqlUtils.claveDni(p.getDni()), p) != null) {
+                throw new IllegalArgumentException("DNI repetido en el lote: " + p.getDni());
+            }
+        }
+
+        int[] conteos;
+        try (PreparedStatement ps = c.prepareStatement(ids != null ? SQL_UPSERT_CON_ID : SQL_UPSERT)) {
+            for (Paciente p : pacientes) {
+                bindInsert(ps, p);
+                if (ids != null) {
+                    // Si el DNI ya existe el ID reservado no se usa y queda como hueco de la secuencia.
+                    ps.setLong(6, ids.siguiente());
+                }
+                ps.addBatch();
+            }
+            conteos = ps.executeBatch();
+        }
+
+        List<String> dnis = new ArrayList<String>(pacientes.size());
+        for (Paciente p : pacientes) {
+            dnis.add(p.getDni());
+            p.setId(null);
+            if (p.getHistoriaClinica() != null) {
+                p.getHistoriaClinica().setId(null);
+            }
+        }
+        for (List<String> bloque : SqlUtils.chunks(dnis)) {
+            String sql = "SELECT id, dni, version FROM paciente WHERE dni IN (" + SqlUtils.placeholders(bloque.size()) + ")";
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                SqlUtils.bindIn(ps, bloque);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Paciente p = porDni.get(SqlUtils.claveDni(rs.getString("dni")));
+                        if (p == null) {
+                            throw new SQLException("DNI leído sin correspondencia en el lote: " + rs.getString("dni"));
+                        }
+                        p.setId(rs.getLong("id"));
+                        p.setVersion(rs.getInt("version"));
+                    }
+                }
+            }
+        }
+
+        List<Paciente> creados = new ArrayList<Paciente>();
+        List<Paciente> actualizados = new ArrayList<Paciente>();
+        for (int i = 0; i < pacientes.size(); i++) {
+            Paciente p = pacientes.get(i);
+            if (p.getId() == null) {
+                throw new SQLException("No se encontró el paciente con DNI " + p.getDni() + " tras escribirlo.");
+            }
+            boolean creado = (conteos[i] == 1 || conteos[i] == 2) ? conteos[i] == 1 : p.getVersion() == 0;
+            (creado ? creados : actualizados).add(p);
+        }
+        return new ResultadoUpsert(creados, actualizados);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package dao.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Utilidades internas de los DAOs para construir consultas con listas IN acotadas.
+ * <p>
+ * Las listas IN se rellenan hasta unos pocos tamaños fijos ({@link #TAMANIOS_IN}) repitiendo el último valor,
+ * que no cambia el resultado. Así cada consulta tiene a lo sumo cinco textos SQL distintos en lugar de uno por
+ * cada largo posible: no desplazan de la caché de sentencias a las sentencias fijas de los DAOs ni obligan a
+ * preparar en el servidor una sentencia nueva por cada largo de lote.
+ * </p>
+ */
+final class SqlUtils {
+
+    /** Cantidad máxima de valores por lista IN; los conjuntos mayores se dividen en varias consultas. */
+    static final int MAX_IN = 500;
+
+    /** Tamaños a los que se rellenan las listas IN, de menor a mayor; el último es {@link #MAX_IN}. */
+    private static final int[] TAMANIOS_IN = {1, 10, 50, 100, MAX_IN};
+
+    private SqlUtils() {
+    }
+
+    /**
+     * Genera la lista de marcadores de una cláusula IN (ej. "?,?,?") para {@code n} valores, rellenada hasta el
+     * tamaño fijo inmediato superior. Los valores se asignan con {@link #bindIn(PreparedStatement, List)}.
+     *
+     * @param n Cantidad de valores (entre 1 y {@link #MAX_IN}).
+     * @return La lista de marcadores separados por coma.
+     */
+    static String placeholders(int n) {
+        int total = tamanioIn(n);
+        StringBuilder sb = new StringBuilder(total * 2);
+        for (int i = 0; i < total; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Asigna los valores de una lista IN generada con {@link #placeholders(int)} a partir del primer parámetro,
+     * repitiendo el último valor en los marcadores de relleno.
+     *
+     * @param ps La sentencia preparada.
+     * @param valores Los valores (Long o String), entre 1 y {@link #MAX_IN}.
+     * @throws SQLException Si falla la asignación de algún parámetro.
+     */
+    static void bindIn(PreparedStatement ps, List<?> valores) throws SQLException {
+        int total = tamanioIn(valores.size());
+        for (int i = 0; i < total; i++) {
+            Object v = valores.get(Math.min(i, valores.size() - 1));
+            if (v instanceof Long) {
+                ps.setLong(i + 1, (Long) v);
+            } else {
+                ps.setString(i + 1, (String) v);
+            }
+        }
+    }
+
+    /**
+     * Clave con la que la columna {@code paciente.dni} compara valores (intercalación insensible a mayúsculas y
+     * acentos, con PAD SPACE): sin espacios finales, en minúsculas y sin diacríticos. Dos DNIs con la misma clave
+     * son el mismo para el índice único, aunque su texto difiera.
+     *
+     * @param dni El DNI.
+     * @return La clave de comparación.
+     */
+    static String claveDni(String dni) {
+        String sinAcentos = Normalizer.normalize(dni.stripTrailing(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return El menor tamaño fijo de lista IN que admite {@code n} valores.
+     */
+    private static int tamanioIn(int n) {
+        for (int t : TAMANIOS_IN) {
+            if (n <= t) {
+                return t;
+            }
+        }
+        throw new IllegalArgumentException("Lista IN de " + n + " valores: el máximo es " + MAX_IN);
+    }
+
+    /**
+     * Divide una colección en bloques de como máximo {@link #MAX_IN} elementos, sin duplicados.
+     *
+     * @param valores Los valores a dividir.
+     * @param <T> El tipo de los valores.
+     * @return Lista de bloques, cada uno apto para una cláusula IN.
+     */
+    static <T> List<List<T>> chunks(Collection<T> valores) {
+        List<T> distintos = new ArrayList<>(new LinkedHashSet<>(valores));
+        List<List<T>> bloques = new ArrayList<>();
+        for (int i = 0; i < distintos.size(); i += MAX_IN) {
+            bloques.add(distintos.subList(i, Math.min(i + MAX_IN, distintos.size())));
+        }
+        return bloques;
+    }
+
+    /**
+     * Reordena los resultados de una búsqueda por claves según el orden en que se pidieron las claves.
+     *
+     * @param claves Las claves en el orden solicitado.
+     * @param encontrados Los resultados indexados por clave.
+     * @param <K> El tipo de la clave.
+     * @param <V> El tipo de los resultados.
+     * @return Mapa ordenado que contiene solo las claves encontradas.
+     */
+    static <K, V> Map<K, V> ordenar(Collection<K> claves, Map<K, V> encontrados) {
+        Map<K, V> ordenado = new LinkedHashMap<K, V>(encontrados.size() * 2);
+        for (K k : claves) {
+            V v = encontrados.get(k);
+            if (v != null) {
+                ordenado.put(k, v);
+            }
+        }
+        return ordenado;
+    }
+}
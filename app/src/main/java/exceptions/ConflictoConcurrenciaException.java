@@ -0,0 +1,57 @@
+package exceptions;
+
+import java.sql.SQLException;
+
+/**
+ * Indica que una actualización fue rechazada porque la fila cambió desde que se leyó.
+ * <p>
+ * Las actualizaciones incluyen la versión leída en la condición ({@code WHERE id = ? AND version = ?});
+ * si otra transacción modificó (o dio de baja) la fila en el medio, no se afecta ninguna fila y se lanza
+ * esta excepción en lugar de sobrescribir los cambios ajenos. El llamador puede volver a leer la entidad,
+ * reaplicar sus cambios y reintentar.
+ * </p>
+ */
+public class ConflictoConcurrenciaException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entidad;
+    private final long id;
+    private final int versionEsperada;
+
+    /**
+     * Crea la excepción para la fila en conflicto.
+     *
+     * @param entidad El nombre de la entidad (ej. "Paciente").
+     * @param id El ID de la fila.
+     * @param versionEsperada La versión con la que se leyó la entidad.
+     */
+    public ConflictoConcurrenciaException(String entidad, long id, int versionEsperada) {
+        super(entidad + " ID " + id + " fue modificado o eliminado por otro usuario (versión leída: "
+                + versionEsperada + "). Vuelva a cargarlo y reintente.");
+        this.entidad = entidad;
+        this.id = id;
+        this.versionEsperada = versionEsperada;
+    }
+
+    /**
+     * @return El nombre de la entidad en conflicto.
+     */
+    public String getEntidad() {
+        return entidad;
+    }
+
+    /**
+     * @return El ID de la fila en conflicto.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return La versión con la que se leyó la entidad.
+     */
+    public int getVersionEsperada() {
+        return versionEsperada;
+    }
+}
@@ -0,0 +1,55 @@
+package exceptions;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Excepción lanzada cuando una inserción masiva termina con una o más filas rechazadas.
+ * <p>
+ * Las filas válidas ya fueron confirmadas (commit) en la base de datos; esta excepción informa
+ * qué posiciones de la lista original fallaron y el motivo de cada una, junto con las entidades
+ * que sí se insertaron.
+ * </p>
+ */
+public class InsercionMasivaException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SortedMap<Integer, String> filasFallidas;
+    private final transient List<?> insertados;
+
+    /**
+     * Crea la excepción con el detalle de las filas rechazadas.
+     *
+     * @param filasFallidas Mapa de índice (posición en la lista original) a mensaje de error.
+     * @param insertados Las entidades que se insertaron correctamente.
+     */
+    public InsercionMasivaException(Map<Integer, String> filasFallidas, List<?> insertados) {
+        super("Inserción masiva incompleta: " + filasFallidas.size() + " fila(s) rechazada(s) "
+                + filasFallidas.keySet() + ", " + insertados.size() + " insertada(s).");
+        this.filasFallidas = Collections.unmodifiableSortedMap(new TreeMap<>(filasFallidas));
+        this.insertados = List.copyOf(insertados);
+    }
+
+    /**
+     * Obtiene las filas rechazadas.
+     *
+     * @return Mapa ordenado de índice en la lista original a mensaje de error.
+     */
+    public SortedMap<Integer, String> getFilasFallidas() {
+        return filasFallidas;
+    }
+
+    /**
+     * Obtiene las entidades insertadas correctamente (con su ID asignado).
+     *
+     * @return Lista inmodificable de entidades insertadas.
+     */
+    public List<?> getInsertados() {
+        return insertados;
+    }
+}
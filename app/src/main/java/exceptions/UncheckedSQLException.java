@@ -0,0 +1,36 @@
+package exceptions;
+
+import java.sql.SQLException;
+
+/**
+ * Envoltorio no verificado de una {@link SQLException}.
+ * <p>
+ * Se utiliza donde la API de Java no admite excepciones verificadas, por ejemplo al recorrer un
+ * {@link java.util.stream.Stream} respaldado por un {@link java.sql.ResultSet}: un error de lectura
+ * durante el recorrido se propaga con esta excepción, conservando la causa original.
+ * </p>
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crea la excepción envolviendo el error SQL original.
+     *
+     * @param message Descripción del contexto del error.
+     * @param cause La excepción SQL original.
+     */
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message + ": " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Obtiene la excepción SQL original.
+     *
+     * @return La causa de tipo {@link SQLException}.
+     */
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
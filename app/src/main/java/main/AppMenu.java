@@ -32,6 +32,8 @@ public class AppMenu {
      */
     public void start() {
         boolean running = true;
+        menuHandler.construirIndiceBusqueda();
+        menuHandler.construirFiltroDni();
 
         while (running) {
             try {
@@ -60,6 +62,12 @@ public class AppMenu {
                     case 7:
                         menuHandler.eliminarPaciente();
                         break;
+                    case 8:
+                        menuHandler.buscarPorHistoriaClinica();
+                        break;
+                    case 9:
+                        menuHandler.autocompletarPaciente();
+                        break;
                     case 0:
                         System.out.println("Saliendo del sistema...");
                         running = false;
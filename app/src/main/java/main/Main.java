@@ -1,11 +1,13 @@
 package main;
 
+import service.PacienteServiceImpl;
+
 /**
  * Punto de entrada principal (Entry Point) de la aplicación.
  * <p>
  * Su única responsabilidad es instanciar el controlador del menú principal
  * ({@link AppMenu}) e invocar su método {@link AppMenu#start()}
- * para comenzar la ejecución del programa.
+ * para comenzar la ejecución del programa, y al salir confirmar las altas agrupadas pendientes.
  * </p>
  */
 public class Main {
@@ -17,6 +19,10 @@ public class Main {
      */
     public static void main(String[] args) {
         AppMenu app = new AppMenu();
-        app.start();
+        try {
+            app.start();
+        } finally {
+            PacienteServiceImpl.cerrarAgrupadorAltas();
+        }
     }
 }
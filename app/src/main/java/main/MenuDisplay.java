@@ -23,6 +23,8 @@ public class MenuDisplay {
         System.out.println("║ 5. Actualizar Historia Clínica de un Paciente      ║");
         System.out.println("║ 6. Listar todas las Historias Clínicas             ║");
         System.out.println("║ 7. Eliminar Paciente (Baja Lógica)                 ║");
+        System.out.println("║ 8. Buscar Pacientes por texto de Historia Clínica  ║");
+        System.out.println("║ 9. Buscar Paciente por Apellido, Nombre o DNI      ║");
         System.out.println("╠════════════════════════════════════════════════════╣");
         System.out.println("║ 0. Salir                                           ║");
         System.out.println("╚════════════════════════════════════════════════════╝");
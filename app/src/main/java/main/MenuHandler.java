@@ -1,16 +1,20 @@
 package main;
 
+import dao.Pagina;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import models.CoincidenciaClinica;
 import models.HistoriaClinica;
 import models.HistoriaClinica.GrupoSanguineo;
 import models.Paciente;
+import models.PacienteResumen;
 import service.HistoriaClinicaService;
 import service.HistoriaClinicaServiceImpl;
 import service.PacienteService;
 import service.PacienteServiceImpl;
+import service.Sesion;
 
 /**
  * Controlador que maneja la lógica de interacción con el usuario.
@@ -22,6 +26,9 @@ import service.PacienteServiceImpl;
  */
 public class MenuHandler {
 
+    /** Cantidad de registros que se muestran por página en los listados. */
+    private static final int TAMANIO_PAGINA = 20;
+
     private Scanner scanner;
     private PacienteService pacienteService;
     private HistoriaClinicaService hcService;
@@ -97,11 +104,13 @@ public class MenuHandler {
     /**
      * Muestra un listado tabular de todos los pacientes registrados y activos.
      * Utiliza formato de columnas alineadas para mejorar la legibilidad.
+     * El listado se recorre por páginas de {@value #TAMANIO_PAGINA} registros, de modo que solo
+     * una página se mantiene en memoria a la vez.
      */
     public void listarPacientes() {
         try {
-            List<Paciente> pacientes = pacienteService.getAll();
-            if (pacientes.isEmpty()) {
+            Pagina<PacienteResumen> pagina = pacienteService.getResumenPage(null, TAMANIO_PAGINA);
+            if (pagina.getItems().isEmpty()) {
                 System.out.println("⚠ No hay pacientes registrados.");
                 return;
             }
@@ -114,21 +123,27 @@ public class MenuHandler {
             System.out.printf("| %-4s | %-10s | %-15s | %-15s | %-12s | %-5s |%n", "ID", "DNI", "NOMBRE", "APELLIDO", "NRO HC", "GRUPO");
             System.out.println(linea);
 
-            for (Paciente p : pacientes) {
-                String nroHc = (p.getHistoriaClinica() != null) ? p.getHistoriaClinica().getNroHistoria() : "S/D";
-                String grupo = (p.getHistoriaClinica() != null && p.getHistoriaClinica().getGrupoSanguineo() != null)
-                        ? p.getHistoriaClinica().getGrupoSanguineo().db() : "-";
-
-                System.out.printf(formato,
-                        p.getId(),
-                        p.getDni(),
-                        p.getNombre(),
-                        p.getApellido(),
-                        nroHc,
-                        grupo
-                );
+            while (true) {
+                for (PacienteResumen p : pagina.getItems()) {
+                    String nroHc = (p.getNroHistoria() != null) ? p.getNroHistoria() : "S/D";
+                    String grupo = (p.getGrupoSanguineo() != null) ? p.getGrupoSanguineo().db() : "-";
+
+                    System.out.printf(formato,
+                            p.getId(),
+                            p.getDni(),
+                            p.getNombre(),
+                            p.getApellido(),
+                            nroHc,
+                            grupo
+                    );
+                }
+                System.out.println(linea);
+
+                if (!pagina.hayMas() || !continuarListado()) {
+                    break;
+                }
+                pagina = pacienteService.getResumenPage(pagina.getSiguienteCursor(), TAMANIO_PAGINA);
             }
-            System.out.println(linea);
 
         } catch (Exception e) {
             System.err.println("Error al listar pacientes: " + e.getMessage());
@@ -178,13 +193,15 @@ public class MenuHandler {
      * Gestiona la actualización de datos de un Paciente existente.
      * Permite al usuario modificar campos individuales (Nombre, Apellido, DNI, Fecha)
      * manteniendo los valores actuales si se presiona ENTER.
+     * La lectura y la escritura usan una misma sesión (solo se escriben los campos modificados); mientras se
+     * piden los datos por consola no se retiene ninguna conexión del pool.
      */
     public void actualizarPaciente() {
-        try {
+        try (Sesion sesion = pacienteService.abrirSesion()) {
             System.out.print("Ingrese el ID del Paciente a actualizar: ");
             long pacienteId = Long.parseLong(scanner.nextLine());
 
-            Optional<Paciente> opt = pacienteService.getById(pacienteId);
+            Optional<Paciente> opt = sesion.getPaciente(pacienteId);
             if (opt.isEmpty()) {
                 System.out.println("No se encontró un Paciente con ese ID.");
                 return;
@@ -211,7 +228,7 @@ public class MenuHandler {
             String fn = scanner.nextLine();
             if (!fn.isBlank()) p.setFechaNacimiento(LocalDate.parse(fn));
 
-            pacienteService.actualizar(p);
+            sesion.confirmar();
 
             System.out.println("¡Paciente actualizado con éxito!");
 
@@ -225,13 +242,14 @@ public class MenuHandler {
     /**
      * Gestiona la actualización específica de la Historia Clínica asociada a un paciente.
      * Permite modificar campos médicos como el grupo sanguíneo y observaciones.
+     * Se edita a través de una sesión del paciente, de modo que el commit refresca también sus lecturas cacheadas.
      */
     public void actualizarHistoriaClinica() {
-        try {
+        try (Sesion sesion = pacienteService.abrirSesion()) {
             System.out.print("Ingrese el ID del Paciente cuya Historia Clínica desea actualizar: ");
             long pacienteId = Long.parseLong(scanner.nextLine());
 
-            Optional<Paciente> opt = pacienteService.getById(pacienteId);
+            Optional<Paciente> opt = sesion.getPaciente(pacienteId);
             if (opt.isEmpty()) {
                 System.out.println("No se encontró un Paciente con ese ID.");
                 return;
@@ -252,7 +270,7 @@ public class MenuHandler {
             String obs = scanner.nextLine();
             if (!obs.isBlank()) h.setObservaciones(obs);
 
-            hcService.actualizar(h);
+            sesion.confirmar();
 
             System.out.println("¡Historia Clínica actualizada con éxito!");
 
@@ -267,56 +285,184 @@ public class MenuHandler {
      * Muestra un listado detallado de todas las Historias Clínicas.
      * Utiliza un formato de bloques verticales para permitir la visualización completa
      * de campos de texto extenso como antecedentes, medicación y observaciones.
+     * El listado se recorre por páginas de {@value #TAMANIO_PAGINA} registros.
      */
     public void listarHistoriasClinicas() {
         try {
-            List<HistoriaClinica> historias = hcService.getAll();
+            Pagina<HistoriaClinica> pagina = hcService.getPage(null, TAMANIO_PAGINA);
 
-            if (historias.isEmpty()) {
+            if (pagina.getItems().isEmpty()) {
                 System.out.println("⚠ No hay historias clínicas registradas.");
                 return;
             }
 
-            System.out.println("\n════════════ LISTADO DE HISTORIAS CLÍNICAS (" + "Cantidad: " + historias.size() + ") ════════════");
+            System.out.println("\n════════════ LISTADO DE HISTORIAS CLÍNICAS ════════════");
+
+            while (true) {
+                hcService.cargarTextos(pagina.getItems()); // Una consulta por página para los campos de texto.
+                for (HistoriaClinica h : pagina.getItems()) {
+                    imprimirHistoriaClinica(h);
+                }
+
+                if (!pagina.hayMas() || !continuarListado()) {
+                    break;
+                }
+                pagina = hcService.getPage(pagina.getSiguienteCursor(), TAMANIO_PAGINA);
+            }
+            System.out.println("════════════════════════════════════════════════════════════");
+
+        } catch (Exception e) {
+            System.err.println("Error al listar historias: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imprime una Historia Clínica en formato de bloque vertical.
+     *
+     * @param h La Historia Clínica a mostrar.
+     */
+    private void imprimirHistoriaClinica(HistoriaClinica h) {
+        String nro = (h.getNroHistoria() != null) ? h.getNroHistoria() : "S/D";
+        String grupo = (h.getGrupoSanguineo() != null) ? h.getGrupoSanguineo().db() : "No def.";
+        String fecha = (h.getFechaApertura() != null) ? h.getFechaApertura().toString() : "-";
+
+        String ant = (h.getAntecedentes() != null && !h.getAntecedentes().isBlank())
+                ? h.getAntecedentes() : "Ninguno";
+
+        String med = (h.getMedicacionActual() != null && !h.getMedicacionActual().isBlank())
+                ? h.getMedicacionActual() : "Ninguna";
+
+        String obs = (h.getObservaciones() != null && !h.getObservaciones().isBlank())
+                ? h.getObservaciones() : "Sin observaciones";
+
+        System.out.println("────────────────────────────────────────────────────────────");
+        System.out.printf(" ID: %-4d | Nro HC: %-10s | Grupo: %-5s | Fecha: %s%n",
+                h.getId(), nro, grupo, fecha);
+        System.out.println("────────────────────────────────────────────────────────────");
+
+        System.out.println(" • Antecedentes:");
+        System.out.println("   " + ant);
+        System.out.println();
+
+        System.out.println(" • Medicación Actual:");
+        System.out.println("   " + med);
+        System.out.println();
+
+        System.out.println(" • Observaciones:");
+        System.out.println("   " + obs);
+        System.out.println();
+    }
+
+    /**
+     * Construye el índice en memoria usado por {@link #autocompletarPaciente()}. Si falla (ej. base de datos
+     * no disponible), la aplicación continúa y el autocompletado no devuelve resultados.
+     */
+    public void construirIndiceBusqueda() {
+        try {
+            int cantidad = pacienteService.construirIndiceBusqueda();
+            System.out.println("Índice de búsqueda listo (" + cantidad + " pacientes).");
+        } catch (Exception e) {
+            System.err.println("No se pudo construir el índice de búsqueda: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Construye el filtro de DNIs usado por {@link PacienteService#findByDni(String)}. Si falla, la aplicación
+     * continúa y las búsquedas por DNI consultan siempre la base de datos.
+     */
+    public void construirFiltroDni() {
+        try {
+            int cantidad = pacienteService.construirFiltroDni();
+            System.out.println("Filtro de DNIs listo (" + cantidad + " DNIs).");
+        } catch (Exception e) {
+            System.err.println("No se pudo construir el filtro de DNIs: " + e.getMessage());
+        }
+    }
 
-            for (HistoriaClinica h : historias) {
-                String nro = (h.getNroHistoria() != null) ? h.getNroHistoria() : "S/D";
-                String grupo = (h.getGrupoSanguineo() != null) ? h.getGrupoSanguineo().db() : "No def.";
-                String fecha = (h.getFechaApertura() != null) ? h.getFechaApertura().toString() : "-";
+    /**
+     * Busca pacientes por el comienzo de su apellido, nombre o DNI usando el índice en memoria
+     * (sin consultar la base de datos) y muestra las primeras coincidencias.
+     */
+    public void autocompletarPaciente() {
+        System.out.print("Ingrese el comienzo del apellido, nombre o DNI: ");
+        String prefijo = scanner.nextLine().trim();
+        if (prefijo.isBlank()) {
+            System.out.println("Debe ingresar al menos un carácter.");
+            return;
+        }
 
-                String ant = (h.getAntecedentes() != null && !h.getAntecedentes().isBlank())
-                        ? h.getAntecedentes() : "Ninguno";
+        List<PacienteResumen> resultados = pacienteService.autocompletar(prefijo, TAMANIO_PAGINA);
+        if (resultados.isEmpty()) {
+            System.out.println("⚠ No hay pacientes que comiencen con \"" + prefijo + "\".");
+            return;
+        }
+        for (PacienteResumen p : resultados) {
+            System.out.printf("  [%d] %s, %s - DNI %s%n", p.getId(), p.getApellido(), p.getNombre(), p.getDni());
+        }
+    }
 
-                String med = (h.getMedicacionActual() != null && !h.getMedicacionActual().isBlank())
-                        ? h.getMedicacionActual() : "Ninguna";
+    /**
+     * Busca pacientes por el contenido de su Historia Clínica (antecedentes, medicación u observaciones)
+     * y muestra los resultados paginados, ordenados por relevancia.
+     */
+    public void buscarPorHistoriaClinica() {
+        try {
+            System.out.print("Ingrese el texto a buscar (ej. un medicamento): ");
+            String consulta = scanner.nextLine().trim();
+            if (consulta.isBlank()) {
+                System.out.println("Debe ingresar un texto.");
+                return;
+            }
 
-                String obs = (h.getObservaciones() != null && !h.getObservaciones().isBlank())
-                        ? h.getObservaciones() : "Sin observaciones";
+            Pagina<CoincidenciaClinica> pagina = hcService.buscarPorTexto(consulta, null, TAMANIO_PAGINA);
+            if (pagina.getItems().isEmpty()) {
+                System.out.println("⚠ No se encontraron Historias Clínicas que coincidan.");
+                return;
+            }
 
-                System.out.println("────────────────────────────────────────────────────────────");
-                System.out.printf(" ID: %-4d | Nro HC: %-10s | Grupo: %-5s | Fecha: %s%n",
-                        h.getId(), nro, grupo, fecha);
-                System.out.println("────────────────────────────────────────────────────────────");
+            String formato = "| %-4d | %-10s | %-15s | %-15s | %-12s | %8.3f |%n";
+            String linea   = "+------+------------+-----------------+-----------------+--------------+----------+";
 
-                System.out.println(" • Antecedentes:");
-                System.out.println("   " + ant);
-                System.out.println();
+            System.out.println("\n=== RESULTADOS DE LA BÚSQUEDA ===");
+            System.out.println(linea);
+            System.out.printf("| %-4s | %-10s | %-15s | %-15s | %-12s | %-8s |%n", "ID", "DNI", "NOMBRE", "APELLIDO", "NRO HC", "RELEV.");
+            System.out.println(linea);
 
-                System.out.println(" • Medicación Actual:");
-                System.out.println("   " + med);
-                System.out.println();
+            while (true) {
+                for (CoincidenciaClinica c : pagina.getItems()) {
+                    PacienteResumen p = c.getPaciente();
+                    System.out.printf(formato,
+                            p.getId(),
+                            p.getDni(),
+                            p.getNombre(),
+                            p.getApellido(),
+                            p.getNroHistoria(),
+                            c.getRelevancia()
+                    );
+                }
+                System.out.println(linea);
 
-                System.out.println(" • Observaciones:");
-                System.out.println("   " + obs);
-                System.out.println();
+                if (!pagina.hayMas() || !continuarListado()) {
+                    break;
+                }
+                pagina = hcService.buscarPorTexto(consulta, pagina.getSiguienteCursor(), TAMANIO_PAGINA);
             }
-            System.out.println("════════════════════════════════════════════════════════════");
 
         } catch (Exception e) {
-            System.err.println("Error al listar historias: " + e.getMessage());
+            System.err.println("Error al buscar por Historia Clínica: " + e.getMessage());
         }
     }
 
+    /**
+     * Pregunta al usuario si desea ver la página siguiente de un listado.
+     *
+     * @return true si el usuario presionó ENTER, false si ingresó 'q'.
+     */
+    private boolean continuarListado() {
+        System.out.print("-- ENTER para ver más, 'q' para terminar: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
     /**
      * Solicita el ID de un Paciente y ejecuta su eliminación lógica.
      * Esta operación desencadena una transacción que elimina tanto al Paciente
@@ -1,13 +1,27 @@
 package models;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * Clase base abstracta que define los atributos comunes para todas las entidades del dominio.
  * Proporciona la gestión del identificador único (ID) y el estado de eliminación lógica (Soft Delete).
+ * <p>
+ * También registra qué columnas cambiaron desde la última lectura o escritura en la base de datos
+ * (seguimiento de cambios), para que la capa de persistencia actualice solo esas columnas. El seguimiento
+ * comienza cuando la persistencia invoca {@link #limpiarModificaciones()}; hasta entonces (ej. una entidad
+ * armada a mano) la entidad se considera modificada por completo.
+ * </p>
  */
 public abstract class Base {
 
     private Long id;
     private boolean eliminado;
+    private int version;
+    private boolean rastreandoCambios;
+    private final Set<String> camposModificados = new LinkedHashSet<>();
 
     /**
      * Constructor completo utilizado para reconstruir objetos desde la base de datos.
@@ -62,6 +76,91 @@ public abstract class Base {
      * @param eliminado true para marcar como eliminado, false para activar.
      */
     public void setEliminado(boolean eliminado) {
+        marcarModificado("eliminado", this.eliminado, eliminado);
         this.eliminado = eliminado;
     }
+
+    /**
+     * Obtiene la versión de la fila leída (control de concurrencia optimista).
+     *
+     * @return La versión con la que se leyó o escribió la entidad por última vez (0 para entidades nuevas).
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Establece la versión de la fila. Invocado por la capa de persistencia al leer o tras actualizar.
+     *
+     * @param version La versión vigente en la base de datos.
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Registra la columna como modificada si el valor realmente cambia y el seguimiento está activo.
+     *
+     * @param columna El nombre de la columna en la base de datos.
+     * @param anterior El valor actual del campo.
+     * @param nuevo El valor que se va a asignar.
+     */
+    protected final void marcarModificado(String columna, Object anterior, Object nuevo) {
+        if (rastreandoCambios && !Objects.equals(anterior, nuevo)) {
+            camposModificados.add(columna);
+        }
+    }
+
+    /**
+     * Registra la columna como modificada sin comparar valores (cuando el valor anterior no se conoce).
+     *
+     * @param columna El nombre de la columna en la base de datos.
+     */
+    protected final void marcarModificado(String columna) {
+        if (rastreandoCambios) {
+            camposModificados.add(columna);
+        }
+    }
+
+    /**
+     * Indica si la entidad lleva registro de sus cambios (fue leída o escrita por la capa de persistencia).
+     *
+     * @return true si {@link #getCamposModificados()} es confiable; false si deben escribirse todas las columnas.
+     */
+    public boolean isRastreandoCambios() {
+        return rastreandoCambios;
+    }
+
+    /**
+     * Obtiene las columnas modificadas desde la última sincronización con la base de datos.
+     *
+     * @return Conjunto inmodificable de nombres de columna, en el orden en que se modificaron.
+     */
+    public Set<String> getCamposModificados() {
+        return Collections.unmodifiableSet(camposModificados);
+    }
+
+    /**
+     * Copia a otra entidad el estado común: ID, baja lógica, versión y seguimiento de cambios.
+     * Usado por las copias de las subclases.
+     *
+     * @param destino La entidad que recibe el estado.
+     */
+    protected void copiarEstadoBase(Base destino) {
+        destino.id = id;
+        destino.eliminado = eliminado;
+        destino.version = version;
+        destino.rastreandoCambios = rastreandoCambios;
+        destino.camposModificados.clear();
+        destino.camposModificados.addAll(camposModificados);
+    }
+
+    /**
+     * Marca la entidad como sincronizada con la base de datos: descarta los cambios registrados
+     * y activa el seguimiento. Invocado por la capa de persistencia tras leer o confirmar una escritura.
+     */
+    public void limpiarModificaciones() {
+        camposModificados.clear();
+        rastreandoCambios = true;
+    }
 }
\ No newline at end of file
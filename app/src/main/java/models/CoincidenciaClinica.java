@@ -0,0 +1,44 @@
+package models;
+
+/**
+ * Resultado de una búsqueda de texto completo sobre las Historias Clínicas.
+ * <p>
+ * Contiene el {@link PacienteResumen} del paciente cuya historia coincide y la relevancia calculada
+ * por MySQL ({@code MATCH ... AGAINST}); a mayor relevancia, mejor coincidencia.
+ * </p>
+ */
+public class CoincidenciaClinica {
+
+    private final PacienteResumen paciente;
+    private final double relevancia;
+
+    /**
+     * Constructor completo.
+     *
+     * @param paciente El resumen del paciente cuya historia coincide.
+     * @param relevancia La relevancia de la coincidencia.
+     */
+    public CoincidenciaClinica(PacienteResumen paciente, double relevancia) {
+        this.paciente = paciente;
+        this.relevancia = relevancia;
+    }
+
+    /**
+     * @return El resumen del paciente.
+     */
+    public PacienteResumen getPaciente() {
+        return paciente;
+    }
+
+    /**
+     * @return La relevancia de la coincidencia.
+     */
+    public double getRelevancia() {
+        return relevancia;
+    }
+
+    @Override
+    public String toString() {
+        return "CoincidenciaClinica{paciente=" + paciente + ", relevancia=" + relevancia + "}";
+    }
+}
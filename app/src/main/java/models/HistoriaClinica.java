@@ -1,6 +1,7 @@
 package models;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 /**
  * Entidad que representa la Historia Clínica de un paciente.
@@ -9,6 +10,11 @@ import java.time.LocalDate;
  * medicación actual y observaciones. Esta clase es la parte dependiente (Lado B)
  * de la relación uno a uno con {@link Paciente}.
  * </p>
+ * <p>
+ * Los campos de texto extenso (antecedentes, medicación actual y observaciones) admiten carga diferida:
+ * la capa de persistencia puede entregar la entidad solo con sus datos de encabezado y un
+ * {@link CargadorTextos}, que se invoca la primera vez que se accede a alguno de esos campos.
+ * </p>
  */
 public class HistoriaClinica extends Base {
 
@@ -56,12 +62,29 @@ public class HistoriaClinica extends Base {
         }
     }
 
+    /**
+     * Estrategia de carga diferida de los campos de texto extenso, provista por la capa de persistencia.
+     * La implementación debe obtener los textos por ID y asignarlos con
+     * {@link HistoriaClinica#setTextos(String, String, String)}.
+     */
+    @FunctionalInterface
+    public interface CargadorTextos {
+        /**
+         * Carga los campos de texto de la Historia Clínica indicada.
+         *
+         * @param h La Historia Clínica cuyos textos deben cargarse.
+         */
+        void cargar(HistoriaClinica h);
+    }
+
     private String nroHistoria;
     private GrupoSanguineo grupoSanguineo;
     private String antecedentes;
     private String medicacionActual;
     private String observaciones;
     private LocalDate fechaApertura;
+    private boolean textosCargados = true;
+    private CargadorTextos cargadorTextos;
 
     /**
      * Constructor por defecto.
@@ -85,6 +108,7 @@ public class HistoriaClinica extends Base {
      * @param nroHistoria El nuevo número de historia.
      */
     public void setNroHistoria(String nroHistoria) {
+        marcarModificado("nro_historia", this.nroHistoria, nroHistoria);
         this.nroHistoria = nroHistoria;
     }
 
@@ -103,6 +127,7 @@ public class HistoriaClinica extends Base {
      * @param grupoSanguineo El nuevo grupo sanguíneo.
      */
     public void setGrupoSanguineo(GrupoSanguineo grupoSanguineo) {
+        marcarModificado("grupo_sanguineo", this.grupoSanguineo, grupoSanguineo);
         this.grupoSanguineo = grupoSanguineo;
     }
 
@@ -112,15 +137,17 @@ public class HistoriaClinica extends Base {
      * @return Texto con los antecedentes.
      */
     public String getAntecedentes() {
+        asegurarTextos();
         return antecedentes;
     }
 
     /**
-     * Establece los antecedentes médicos.
+     * Establece los antecedentes médicos. No dispara la carga diferida de los textos.
      *
      * @param antecedentes Texto descriptivo de antecedentes.
      */
     public void setAntecedentes(String antecedentes) {
+        marcarTexto("antecedentes", this.antecedentes, antecedentes);
         this.antecedentes = antecedentes;
     }
 
@@ -130,15 +157,17 @@ public class HistoriaClinica extends Base {
      * @return Texto con la medicación actual.
      */
     public String getMedicacionActual() {
+        asegurarTextos();
         return medicacionActual;
     }
 
     /**
-     * Establece la medicación actual del paciente.
+     * Establece la medicación actual del paciente. No dispara la carga diferida de los textos.
      *
      * @param medicacionActual Texto descriptivo de la medicación.
      */
     public void setMedicacionActual(String medicacionActual) {
+        marcarTexto("medicacion_actual", this.medicacionActual, medicacionActual);
         this.medicacionActual = medicacionActual;
     }
 
@@ -148,18 +177,88 @@ public class HistoriaClinica extends Base {
      * @return Texto con observaciones.
      */
     public String getObservaciones() {
+        asegurarTextos();
         return observaciones;
     }
 
     /**
-     * Establece observaciones generales adicionales.
+     * Establece observaciones generales adicionales. No dispara la carga diferida de los textos.
      *
      * @param observaciones Texto de observaciones.
      */
     public void setObservaciones(String observaciones) {
+        marcarTexto("observaciones", this.observaciones, observaciones);
         this.observaciones = observaciones;
     }
 
+    /**
+     * Marca los campos de texto extenso como pendientes de carga, que se resolverá con el cargador indicado
+     * al primer acceso. Invocado por la capa de persistencia al leer solo el encabezado.
+     *
+     * @param cargador La estrategia que obtendrá los textos por ID.
+     */
+    public void setTextosPendientes(CargadorTextos cargador) {
+        this.cargadorTextos = cargador;
+        this.textosCargados = false;
+    }
+
+    /**
+     * Asigna los tres campos de texto extenso de una vez y los marca como cargados.
+     * Invocado por la capa de persistencia (carga individual o por lotes). Los campos modificados
+     * antes de la carga conservan el valor asignado.
+     *
+     * @param antecedentes Texto de antecedentes.
+     * @param medicacionActual Texto de medicación actual.
+     * @param observaciones Texto de observaciones.
+     */
+    public void setTextos(String antecedentes, String medicacionActual, String observaciones) {
+        Set<String> modificados = getCamposModificados();
+        if (!modificados.contains("antecedentes")) {
+            this.antecedentes = antecedentes;
+        }
+        if (!modificados.contains("medicacion_actual")) {
+            this.medicacionActual = medicacionActual;
+        }
+        if (!modificados.contains("observaciones")) {
+            this.observaciones = observaciones;
+        }
+        this.textosCargados = true;
+        this.cargadorTextos = null;
+    }
+
+    /**
+     * Indica si los campos de texto extenso ya están disponibles en memoria.
+     *
+     * @return true si los textos fueron cargados (o la entidad es nueva), false si aún están pendientes.
+     */
+    public boolean isTextosCargados() {
+        return textosCargados;
+    }
+
+    /**
+     * Registra un cambio en un campo de texto. Si los textos aún no se cargaron, el valor anterior
+     * se desconoce y la columna se marca como modificada sin compararla.
+     */
+    private void marcarTexto(String columna, String anterior, String nuevo) {
+        if (!textosCargados && !isRastreandoCambios()) {
+            asegurarTextos();
+        }
+        if (textosCargados) {
+            marcarModificado(columna, anterior, nuevo);
+        } else {
+            marcarModificado(columna);
+        }
+    }
+
+    /**
+     * Carga los textos pendientes (si los hay) antes de leerlos.
+     */
+    private void asegurarTextos() {
+        if (!textosCargados && cargadorTextos != null) {
+            cargadorTextos.cargar(this);
+        }
+    }
+
     /**
      * Obtiene la fecha en la que se abrió o creó la historia clínica.
      *
@@ -175,9 +274,30 @@ public class HistoriaClinica extends Base {
      * @param fechaApertura La nueva fecha de apertura.
      */
     public void setFechaApertura(LocalDate fechaApertura) {
+        marcarModificado("fecha_apertura", this.fechaApertura, fechaApertura);
         this.fechaApertura = fechaApertura;
     }
 
+    /**
+     * Crea una copia independiente de la Historia Clínica, con el mismo estado de versión, seguimiento de
+     * cambios y carga diferida (si los textos están pendientes, la copia los cargará por su cuenta).
+     *
+     * @return La copia.
+     */
+    public HistoriaClinica copiar() {
+        HistoriaClinica c = new HistoriaClinica();
+        copiarEstadoBase(c);
+        c.nroHistoria = nroHistoria;
+        c.grupoSanguineo = grupoSanguineo;
+        c.antecedentes = antecedentes;
+        c.medicacionActual = medicacionActual;
+        c.observaciones = observaciones;
+        c.fechaApertura = fechaApertura;
+        c.textosCargados = textosCargados;
+        c.cargadorTextos = cargadorTextos;
+        return c;
+    }
+
     /**
      * Genera un resumen breve de la Historia Clínica.
      * Útil para listados compactos o logs.
@@ -41,6 +41,7 @@ public class Paciente extends Base {
      * @param nombre El nuevo nombre.
      */
     public void setNombre(String nombre) {
+        marcarModificado("nombre", this.nombre, nombre);
         this.nombre = nombre;
     }
 
@@ -59,6 +60,7 @@ public class Paciente extends Base {
      * @param apellido El nuevo apellido.
      */
     public void setApellido(String apellido) {
+        marcarModificado("apellido", this.apellido, apellido);
         this.apellido = apellido;
     }
 
@@ -77,6 +79,7 @@ public class Paciente extends Base {
      * @param dni El nuevo DNI.
      */
     public void setDni(String dni) {
+        marcarModificado("dni", this.dni, dni);
         this.dni = dni;
     }
 
@@ -95,6 +98,7 @@ public class Paciente extends Base {
      * @param fechaNacimiento La nueva fecha de nacimiento.
      */
     public void setFechaNacimiento(LocalDate fechaNacimiento) {
+        marcarModificado("fecha_nacimiento", this.fechaNacimiento, fechaNacimiento);
         this.fechaNacimiento = fechaNacimiento;
     }
 
@@ -117,6 +121,23 @@ public class Paciente extends Base {
         this.historiaClinica = historiaClinica;
     }
 
+    /**
+     * Crea una copia independiente del paciente y de su Historia Clínica, con el mismo estado de
+     * versión y seguimiento de cambios. Modificar la copia no afecta al original.
+     *
+     * @return La copia.
+     */
+    public Paciente copiar() {
+        Paciente c = new Paciente();
+        copiarEstadoBase(c);
+        c.nombre = nombre;
+        c.apellido = apellido;
+        c.dni = dni;
+        c.fechaNacimiento = fechaNacimiento;
+        c.historiaClinica = historiaClinica != null ? historiaClinica.copiar() : null;
+        return c;
+    }
+
     /**
      * Genera una representación en cadena del objeto Paciente.
      * Incluye identificadores, datos personales y un resumen breve de la historia clínica.
@@ -0,0 +1,94 @@
+package models;
+
+import models.HistoriaClinica.GrupoSanguineo;
+
+/**
+ * Proyección liviana e inmutable de un {@link Paciente} para pantallas de listado y exportaciones.
+ * <p>
+ * Contiene únicamente los datos de identificación del paciente y el encabezado de su Historia Clínica
+ * (número y grupo sanguíneo). No incluye los campos de texto extenso (antecedentes, medicación,
+ * observaciones), por lo que la consulta que la alimenta transfiere y retiene mucho menos por fila.
+ * </p>
+ */
+public class PacienteResumen {
+
+    private final Long id;
+    private final String dni;
+    private final String nombre;
+    private final String apellido;
+    private final String nroHistoria;
+    private final GrupoSanguineo grupoSanguineo;
+
+    /**
+     * Constructor completo.
+     *
+     * @param id ID del paciente.
+     * @param dni DNI del paciente.
+     * @param nombre Nombre del paciente.
+     * @param apellido Apellido del paciente.
+     * @param nroHistoria Número de la Historia Clínica activa, o null si no tiene.
+     * @param grupoSanguineo Grupo sanguíneo registrado, o null si no está definido.
+     */
+    public PacienteResumen(Long id, String dni, String nombre, String apellido,
+                           String nroHistoria, GrupoSanguineo grupoSanguineo) {
+        this.id = id;
+        this.dni = dni;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.nroHistoria = nroHistoria;
+        this.grupoSanguineo = grupoSanguineo;
+    }
+
+    /**
+     * @return El ID del paciente.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return El DNI del paciente.
+     */
+    public String getDni() {
+        return dni;
+    }
+
+    /**
+     * @return El nombre del paciente.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return El apellido del paciente.
+     */
+    public String getApellido() {
+        return apellido;
+    }
+
+    /**
+     * @return El número de Historia Clínica, o null si el paciente no tiene una activa.
+     */
+    public String getNroHistoria() {
+        return nroHistoria;
+    }
+
+    /**
+     * @return El grupo sanguíneo, o null si no está definido.
+     */
+    public GrupoSanguineo getGrupoSanguineo() {
+        return grupoSanguineo;
+    }
+
+    /**
+     * Genera una representación en cadena del resumen.
+     *
+     * @return Cadena descriptiva del resumen del paciente.
+     */
+    @Override
+    public String toString() {
+        return "PacienteResumen{id=" + id + ", dni='" + dni + "', nombre='" + nombre + "', apellido='" + apellido
+                + "', nroHistoria='" + nroHistoria + "', grupo=" + (grupoSanguineo != null ? grupoSanguineo.db() : "-") + "}";
+    }
+}
@@ -0,0 +1,114 @@
+package service;
+
+import config.DatabaseConnection;
+import exceptions.InsercionMasivaException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import models.Paciente;
+
+/**
+ * Confirmación agrupada ("group commit") de altas de pacientes independientes.
+ * <p>
+ * Las altas pedidas al mismo tiempo por distintos hilos se encolan y se escriben juntas con
+ * {@link PacienteService#insertarTodos(List)}: un lote de pacientes, un lote de historias y un único commit
+ * para todo el grupo, en lugar de una transacción (y una escritura del log a disco) por alta. El grupo se
+ * despacha cada {@code ventanaMs} milisegundos o al reunir {@code maxGrupo} altas, lo que ocurra primero.
+ * </p>
+ * <p>
+ * Cada future se completa recién después del commit del grupo. Una fila inválida o rechazada por la base de
+ * datos (ej. DNI duplicado) no hace fallar al grupo: {@code insertarTodos} la aísla reintentando fila por fila,
+ * y solo el future de esa alta se completa con error. Es seguro entre hilos.
+ * </p>
+ */
+public final class AgrupadorAltas implements AutoCloseable {
+
+    private final PacienteService servicio;
+    private final LotesPorVentana<Alta, Alta> grupos;
+
+    /**
+     * Crea un agrupador.
+     *
+     * @param servicio El servicio que inserta cada grupo.
+     * @param ventanaMs Tiempo que espera la primera alta de un grupo a que se sumen otras.
+     * @param maxGrupo Cantidad de altas a partir de la cual el grupo se despacha sin esperar la ventana.
+     *                 Se limita a {@code db.batch.size} para que cada grupo sea una única transacción.
+     * @throws IllegalArgumentException Si el servicio es nulo, la ventana es negativa o el tamaño no es positivo.
+     */
+    public AgrupadorAltas(PacienteService servicio, long ventanaMs, int maxGrupo) {
+        if (servicio == null) throw new IllegalArgumentException("El servicio no puede ser nulo.");
+        if (maxGrupo <= 0) throw new IllegalArgumentException("El tamaño de grupo debe ser mayor a 0.");
+        this.servicio = servicio;
+        this.grupos = new LotesPorVentana<>("agrupador-altas", "El agrupador de altas está cerrado.", ventanaMs,
+                Math.min(maxGrupo, Math.max(1, DatabaseConnection.getIntProperty("db.batch.size", 500))),
+                grupo -> escribir(new ArrayList<>(grupo.values())));
+    }
+
+    /**
+     * Encola el alta de un paciente con su Historia Clínica.
+     *
+     * @param p El paciente a insertar.
+     * @return Un future con el paciente (con sus IDs) que se completa tras el commit del grupo, o con la
+     *         {@link SQLException} o {@link IllegalArgumentException} que rechazó esta alta.
+     * @throws IllegalStateException Si el agrupador ya fue cerrado.
+     */
+    public CompletableFuture<Paciente> insertar(Paciente p) {
+        return grupos.agregar(new Alta(p), a -> a).resultado;
+    }
+
+    /**
+     * Escribe un grupo de hasta {@code maxGrupo} altas y completa sus futures.
+     */
+    private void escribir(List<Alta> grupo) {
+        List<Paciente> pacientes = new ArrayList<>(grupo.size());
+        for (Alta a : grupo) {
+            pacientes.add(a.paciente);
+        }
+        try {
+            servicio.insertarTodos(pacientes);
+        } catch (InsercionMasivaException ex) {
+            // Las demás filas ya están confirmadas: solo fallan las rechazadas.
+            Map<Integer, String> fallidas = ex.getFilasFallidas();
+            for (int i = 0; i < grupo.size(); i++) {
+                String motivo = fallidas.get(i);
+                if (motivo != null) {
+                    grupo.get(i).resultado.completeExceptionally(new SQLException("Error al insertar: " + motivo, ex));
+                } else {
+                    grupo.get(i).resultado.complete(grupo.get(i).paciente);
+                }
+            }
+            return;
+        } catch (SQLException | RuntimeException ex) {
+            for (Alta a : grupo) {
+                a.resultado.completeExceptionally(ex);
+            }
+            return;
+        }
+        for (Alta a : grupo) {
+            a.resultado.complete(a.paciente);
+        }
+    }
+
+    /**
+     * Escribe las altas pendientes y libera el hilo del agrupador. Las altas posteriores fallan.
+     * Invocarlo más de una vez no tiene efecto.
+     */
+    @Override
+    public void close() {
+        grupos.close();
+    }
+
+    /**
+     * Un alta encolada y el future de quien la pidió. Se usa como su propia clave, por identidad.
+     */
+    private static final class Alta {
+        private final Paciente paciente;
+        private final CompletableFuture<Paciente> resultado = new CompletableFuture<>();
+
+        Alta(Paciente paciente) {
+            this.paciente = paciente;
+        }
+    }
+}
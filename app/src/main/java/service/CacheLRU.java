@@ -0,0 +1,252 @@
+package service;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Caché de lectura (read-through) acotada, con desalojo LRU y expiración por tiempo (TTL).
+ * <p>
+ * Las entradas se guardan en un {@link LinkedHashMap} en orden de acceso protegido por el monitor de la
+ * instancia, por lo que es segura entre hilos; la carga desde la base de datos se hace fuera del monitor
+ * para no bloquear a otros lectores. Cada invalidación incrementa una generación: una carga iniciada antes
+ * de una invalidación no se almacena, de modo que una lectura lenta no puede reinstalar un valor ya desactualizado.
+ * </p>
+ *
+ * @param <K> El tipo de la clave.
+ * @param <V> El tipo de los valores.
+ */
+public final class CacheLRU<K, V> {
+
+    /**
+     * Función que obtiene el valor de una clave ausente en la caché.
+     *
+     * @param <K> El tipo de la clave.
+     * @param <V> El tipo del valor.
+     */
+    @FunctionalInterface
+    public interface Cargador<K, V> {
+        /**
+         * @param clave La clave buscada.
+         * @return El valor, o null si no existe (no se almacena).
+         * @throws SQLException Si falla el acceso a la base de datos.
+         */
+        V cargar(K clave) throws SQLException;
+    }
+
+    /**
+     * Valor almacenado junto con su instante de vencimiento.
+     */
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long vence;
+
+        Entrada(V valor, long vence) {
+            this.valor = valor;
+            this.vence = vence;
+        }
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Stats stats = new Stats();
+    private final AtomicLong generacion = new AtomicLong();
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    /**
+     * Crea una caché vacía.
+     *
+     * @param maxSize Cantidad máxima de entradas (al superarla se desaloja la menos usada recientemente).
+     * @param ttlMs Tiempo de vida de cada entrada en milisegundos.
+     */
+    public CacheLRU(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() <= CacheLRU.this.maxSize) {
+                    return false;
+                }
+                stats.evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el valor cacheado de la clave, cargándolo con {@code cargador} si no está o venció.
+     *
+     * @param clave La clave buscada.
+     * @param cargador La función que lee el valor de la base de datos.
+     * @return El valor, o null si no existe.
+     * @throws SQLException Si falla la carga.
+     */
+    public V obtener(K clave, Cargador<K, V> cargador) throws SQLException {
+        V v = get(clave);
+        if (v != null) {
+            return v;
+        }
+        long gen = generacion();
+        v = cargador.cargar(clave);
+        if (v != null) {
+            poner(clave, v, gen);
+        }
+        return v;
+    }
+
+    /**
+     * Devuelve la generación actual, a capturar antes de leer un valor de la base de datos que luego
+     * se almacenará con {@link #poner(Object, Object, long)}.
+     *
+     * @return La generación (cambia con cada invalidación).
+     */
+    public long generacion() {
+        return generacion.get();
+    }
+
+    /**
+     * Almacena un valor leído por fuera de {@link #obtener(Object, Cargador)}, salvo que haya habido
+     * una invalidación desde que se capturó la generación.
+     *
+     * @param clave La clave.
+     * @param valor El valor leído.
+     * @param generacionLeida La generación capturada antes de la lectura.
+     */
+    public void poner(K clave, V valor, long generacionLeida) {
+        synchronized (this) {
+            if (generacion.get() == generacionLeida) {
+                entradas.put(clave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    /**
+     * Busca una clave sin cargarla.
+     *
+     * @param clave La clave buscada.
+     * @return El valor vigente, o null si no está o venció (cuenta como fallo).
+     */
+    public V get(K clave) {
+        synchronized (this) {
+            Entrada<V> e = entradas.get(clave);
+            if (e != null && e.vence - System.nanoTime() > 0) {
+                stats.hits.incrementAndGet();
+                return e.valor;
+            }
+            if (e != null) {
+                entradas.remove(clave);
+                stats.expirations.incrementAndGet();
+            }
+        }
+        stats.misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Quita una clave de la caché e impide que las cargas en curso almacenen valores anteriores.
+     *
+     * @param clave La clave a invalidar.
+     */
+    public void invalidar(K clave) {
+        synchronized (this) {
+            generacion.incrementAndGet();
+            entradas.remove(clave);
+        }
+    }
+
+    /**
+     * Quita todas las entradas cuyo valor cumple la condición (recorre la caché completa) e impide que las
+     * cargas en curso almacenen valores anteriores. Es para invalidar por un dato que no es la clave.
+     *
+     * @param condicion La condición que identifica los valores a descartar.
+     * @return Cantidad de entradas quitadas.
+     */
+    public int invalidarSi(Predicate<? super V> condicion) {
+        synchronized (this) {
+            generacion.incrementAndGet();
+            int antes = entradas.size();
+            entradas.values().removeIf(e -> condicion.test(e.valor));
+            return antes - entradas.size();
+        }
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void invalidarTodo() {
+        synchronized (this) {
+            generacion.incrementAndGet();
+            entradas.clear();
+        }
+    }
+
+    /**
+     * @return Cantidad de entradas almacenadas (incluidas las vencidas aún no descartadas).
+     */
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    /**
+     * @return Los contadores de uso de esta caché.
+     */
+    public Stats getStats() {
+        return stats;
+    }
+
+    /**
+     * Contadores de uso de la caché.
+     */
+    public static final class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+        private final AtomicLong expirations = new AtomicLong();
+
+        /**
+         * @return Cantidad de lecturas resueltas desde la caché.
+         */
+        public long getHits() {
+            return hits.get();
+        }
+
+        /**
+         * @return Cantidad de lecturas que debieron ir a la base de datos.
+         */
+        public long getMisses() {
+            return misses.get();
+        }
+
+        /**
+         * @return Cantidad de entradas desalojadas por superar el tamaño máximo.
+         */
+        public long getEvictions() {
+            return evictions.get();
+        }
+
+        /**
+         * @return Cantidad de entradas descartadas por vencimiento del TTL.
+         */
+        public long getExpirations() {
+            return expirations.get();
+        }
+
+        /**
+         * @return Proporción de aciertos sobre el total de lecturas (0 si no hubo lecturas).
+         */
+        public double getHitRatio() {
+            long h = hits.get();
+            long total = h + misses.get();
+            return total == 0 ? 0.0 : (double) h / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheLRU{hits=%d, misses=%d, evictions=%d, expirations=%d, hitRatio=%.2f}",
+                    getHits(), getMisses(), getEvictions(), getExpirations(), getHitRatio());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package service;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Agrupa pedidos individuales por ID en una sola consulta {@link GenericService#getByIds(java.util.Collection)}
+ * (al estilo de DataLoader), para resolver patrones N+1 sin cambiar la lógica del llamador.
+ * <p>
+ * Cada {@link #cargar(long)} devuelve de inmediato un {@link CompletableFuture}. Los IDs pedidos dentro de una
+ * ventana de tiempo corta se acumulan en un lote, que se resuelve con una única llamada al servicio (una lista
+ * IN por tipo de entidad) al vencer la ventana, al alcanzar el tamaño máximo o al invocar {@link #despachar()}.
+ * Un mismo ID pedido varias veces dentro del lote comparte el future (y por lo tanto la instancia devuelta).
+ * </p>
+ * <p>
+ * Su uso es opcional: se crea un cargador por tarea (ej. una importación) y se cierra al terminar, lo que
+ * despacha los pedidos pendientes y libera su hilo. Es seguro entre hilos.
+ * </p>
+ * <pre>
+ * try (CargadorPorLotes&lt;Paciente&gt; cargador = new CargadorPorLotes&lt;&gt;(pacienteService)) {
+ *     List&lt;CompletableFuture&lt;Optional&lt;Paciente&gt;&gt;&gt; futuros = ids.stream().map(cargador::cargar).toList();
+ *     ...
+ * }
+ * </pre>
+ *
+ * @param <T> El tipo de la entidad cargada.
+ */
+public final class CargadorPorLotes<T> implements AutoCloseable {
+
+    private static final long VENTANA_MS_POR_DEFECTO = 2;
+    private static final int MAX_LOTE_POR_DEFECTO = 500;
+
+    private final GenericService<T> servicio;
+    private final LotesPorVentana<Long, CompletableFuture<Optional<T>>> lotes;
+
+    /**
+     * Crea un cargador con una ventana de {@value #VENTANA_MS_POR_DEFECTO} ms y lotes de hasta
+     * {@value #MAX_LOTE_POR_DEFECTO} IDs.
+     *
+     * @param servicio El servicio que resuelve los lotes.
+     */
+    public CargadorPorLotes(GenericService<T> servicio) {
+        this(servicio, VENTANA_MS_POR_DEFECTO, MAX_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un cargador.
+     *
+     * @param servicio El servicio que resuelve los lotes.
+     * @param ventanaMs Tiempo que espera el primer pedido de un lote a que se sumen otros (0 despacha en
+     *                  cuanto el hilo despachador queda libre).
+     * @param maxLote Cantidad de IDs distintos a partir de la cual el lote se despacha sin esperar la ventana.
+     * @throws IllegalArgumentException Si el servicio es nulo, la ventana es negativa o el tamaño no es positivo.
+     */
+    public CargadorPorLotes(GenericService<T> servicio, long ventanaMs, int maxLote) {
+        if (servicio == null) throw new IllegalArgumentException("El servicio no puede ser nulo.");
+        this.servicio = servicio;
+        this.lotes = new LotesPorVentana<>("cargador-lotes", "El cargador por lotes está cerrado.",
+                ventanaMs, maxLote, this::resolver);
+    }
+
+    /**
+     * Pide una entidad por ID. La consulta se hace junto con los demás pedidos del lote.
+     *
+     * @param id El ID de la entidad.
+     * @return Un future con la entidad, o vacío si no existe o está eliminada. Si la consulta del lote falla,
+     *         se completa excepcionalmente con la {@link SQLException}.
+     * @throws IllegalStateException Si el cargador ya fue cerrado.
+     */
+    public CompletableFuture<Optional<T>> cargar(long id) {
+        return lotes.agregar(id, k -> new CompletableFuture<>());
+    }
+
+    /**
+     * Resuelve ahora los pedidos acumulados, sin esperar la ventana. Bloquea hasta que el lote se resuelve.
+     */
+    public void despachar() {
+        lotes.despachar();
+    }
+
+    private void resolver(Map<Long, CompletableFuture<Optional<T>>> lote) {
+        Map<Long, T> encontrados;
+        try {
+            encontrados = servicio.getByIds(lote.keySet());
+        } catch (SQLException | RuntimeException e) {
+            for (CompletableFuture<Optional<T>> f : lote.values()) {
+                f.completeExceptionally(e);
+            }
+            return;
+        }
+        for (Map.Entry<Long, CompletableFuture<Optional<T>>> e : lote.entrySet()) {
+            e.getValue().complete(Optional.ofNullable(encontrados.get(e.getKey())));
+        }
+    }
+
+    /**
+     * Despacha los pedidos pendientes y libera el hilo del cargador. Los pedidos posteriores fallan.
+     * Invocarlo más de una vez no tiene efecto.
+     */
+    @Override
+    public void close() {
+        lotes.close();
+    }
+}
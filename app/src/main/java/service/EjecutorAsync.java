@@ -0,0 +1,111 @@
+package service;
+
+import config.DatabaseConnection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ejecutor compartido por las variantes asíncronas de los servicios.
+ * <p>
+ * Usa un hilo virtual por tarea cuando la JVM los ofrece (Java 21 o superior, detectado por reflexión porque el
+ * proyecto compila con Java 17); si no, un pool de hilos de plataforma. En ambos casos la cantidad de llamadas
+ * ejecutándose a la vez se limita a {@code db.pool.maxSize}: las demás esperan su turno en orden de llegada en
+ * lugar de competir por conexiones del pool y agotar su tiempo de espera.
+ * </p>
+ */
+final class EjecutorAsync {
+
+    /**
+     * Llamada bloqueante a un servicio.
+     *
+     * @param <T> El tipo del resultado.
+     */
+    @FunctionalInterface
+    interface Llamada<T> {
+        T ejecutar() throws SQLException;
+    }
+
+    /**
+     * Cantidad máxima de llamadas simultáneas: el tamaño máximo del pool de conexiones.
+     */
+    static final int LIMITE = Math.max(1, DatabaseConnection.getIntProperty("db.pool.maxSize", 10));
+
+    /**
+     * Permisos para hilos virtuales (que no tienen límite propio), o null con el pool de plataforma.
+     */
+    private static final Semaphore PERMISOS;
+
+    private static final ExecutorService EJECUTOR;
+
+    static {
+        ExecutorService virtual = crearVirtual();
+        if (virtual != null) {
+            EJECUTOR = virtual;
+            PERMISOS = new Semaphore(LIMITE, true);
+        } else {
+            EJECUTOR = Executors.newFixedThreadPool(LIMITE, r -> {
+                Thread t = new Thread(r, "servicio-async");
+                t.setDaemon(true);
+                return t;
+            });
+            PERMISOS = null;
+        }
+    }
+
+    private EjecutorAsync() {
+    }
+
+    /**
+     * Ejecuta una llamada en el ejecutor compartido.
+     *
+     * @param llamada La llamada bloqueante.
+     * @return Un future con el resultado, o completado excepcionalmente con la excepción original de la llamada.
+     */
+    static <T> CompletableFuture<T> ejecutar(Llamada<T> llamada) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        EJECUTOR.execute(() -> {
+            if (PERMISOS != null) {
+                try {
+                    PERMISOS.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    f.completeExceptionally(new SQLException("Interrumpido mientras se esperaba turno para ejecutar", e));
+                    return;
+                }
+            }
+            try {
+                f.complete(llamada.ejecutar());
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            } finally {
+                if (PERMISOS != null) {
+                    PERMISOS.release();
+                }
+            }
+        });
+        return f;
+    }
+
+    /**
+     * @return true si las llamadas se ejecutan en hilos virtuales.
+     */
+    static boolean usaHilosVirtuales() {
+        return PERMISOS != null;
+    }
+
+    /**
+     * Crea {@code Executors.newVirtualThreadPerTaskExecutor()} si existe en la JVM en ejecución.
+     *
+     * @return El ejecutor, o null si los hilos virtuales no están disponibles.
+     */
+    private static ExecutorService crearVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
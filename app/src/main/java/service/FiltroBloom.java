@@ -0,0 +1,131 @@
+package service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas: responde "seguro que no está" o "puede estar" usando unos pocos bits por elemento.
+ * <p>
+ * El tamaño del arreglo de bits y la cantidad de funciones hash se derivan de la capacidad esperada y de la
+ * tasa de falsos positivos deseada. Las posiciones se calculan con doble hashing sobre un hash de 64 bits.
+ * Es seguro entre hilos: los bits se activan con operaciones atómicas y nunca se desactivan, por lo que
+ * los elementos no pueden quitarse (para eso se reconstruye el filtro). Registra además el instante de su
+ * creación, para que quien lo usa pueda dejar de confiar en un filtro demasiado viejo.
+ * </p>
+ */
+final class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray palabras;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+    private final long capacidad;
+    private final AtomicLong agregados = new AtomicLong();
+    private final long creadoNanos = System.nanoTime();
+
+    /**
+     * Crea un filtro vacío dimensionado para la capacidad y la tasa de falsos positivos indicadas.
+     *
+     * @param capacidad Cantidad esperada de elementos. Si se supera, la tasa real de falsos positivos crece.
+     * @param tasaFalsosPositivos Probabilidad de falso positivo objetivo (entre 0 y 1, exclusivos).
+     * @throws IllegalArgumentException Si algún parámetro está fuera de rango.
+     */
+    FiltroBloom(long capacidad, double tasaFalsosPositivos) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad del filtro debe ser mayor a 0.");
+        }
+        if (!(tasaFalsosPositivos > 0 && tasaFalsosPositivos < 1)) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1.");
+        }
+        long bits = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (LN2 * LN2));
+        long cantidadPalabras = Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.palabras = new AtomicLongArray((int) cantidadPalabras);
+        this.cantidadBits = cantidadPalabras * 64;
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / capacidad * LN2));
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     *
+     * @param valor El elemento (ya normalizado).
+     */
+    void agregar(String valor) {
+        long h = hash64(valor);
+        long h1 = h;
+        long h2 = (h >>> 32) | 1; // Impar: recorre posiciones distintas en cada función.
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, cantidadBits);
+            long mascara = 1L << bit;
+            palabras.getAndAccumulate((int) (bit >>> 6), mascara, (a, b) -> a | b);
+        }
+        agregados.incrementAndGet();
+    }
+
+    /**
+     * Indica si el elemento puede estar en el filtro.
+     *
+     * @param valor El elemento (ya normalizado).
+     * @return false si el elemento seguro no fue agregado; true si puede haberlo sido.
+     */
+    boolean podriaContener(String valor) {
+        long h = hash64(valor);
+        long h1 = h;
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, cantidadBits);
+            if ((palabras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Cantidad de elementos agregados (incluye repetidos).
+     */
+    long getAgregados() {
+        return agregados.get();
+    }
+
+    /**
+     * @return La capacidad para la que fue dimensionado el filtro.
+     */
+    long getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * @return Tamaño del filtro en bytes.
+     */
+    long getBytes() {
+        return cantidadBits / 8;
+    }
+
+    /**
+     * @return Milisegundos transcurridos desde la creación del filtro.
+     */
+    long getEdadMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - creadoNanos);
+    }
+
+    /**
+     * Hash de 64 bits: FNV-1a sobre los caracteres seguido del mezclador final de MurmurHash3,
+     * para que también los bits altos dependan de toda la cadena.
+     */
+    private static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,8 +1,12 @@
 package service;
 
+import dao.Pagina;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz genérica que define el contrato estándar de la capa de Lógica de Negocio (Service).
@@ -53,6 +57,16 @@ public interface GenericService<T> {
      */
     Optional<T> getById(long id) throws SQLException;
 
+    /**
+     * Busca varias entidades por sus IDs en pocas consultas (listas IN acotadas), con una sola conexión.
+     * Reemplaza a invocar {@link #getById(long)} una vez por ID.
+     *
+     * @param ids Los IDs a buscar.
+     * @return Mapa de ID a entidad en el orden de los IDs recibidos; los IDs inexistentes o eliminados no figuran.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    Map<Long, T> getByIds(Collection<Long> ids) throws SQLException;
+
     /**
      * Recupera una lista de todas las entidades activas y 'enriquecidas' del dominio.
      *
@@ -60,4 +74,25 @@ public interface GenericService<T> {
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
      */
     List<T> getAll() throws SQLException;
+
+    /**
+     * Recupera una página de entidades activas ordenadas por ID descendente (paginación por clave).
+     * Permite recorrer listados grandes con memoria constante, pidiendo cada página con el cursor de la anterior.
+     *
+     * @param afterId El cursor devuelto por la página anterior ({@link Pagina#getSiguienteCursor()}), o null para la primera.
+     * @param limit La cantidad máxima de entidades por página (mayor a 0).
+     * @return La página solicitada y el cursor de la siguiente.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    Pagina<T> getPage(Long afterId, int limit) throws SQLException;
+
+    /**
+     * Recorre todas las entidades activas como un stream perezoso, sin construir una lista en memoria.
+     * Pensado para exportaciones y reportes. El stream mantiene una conexión abierta hasta que se cierra,
+     * por lo que debe usarse con try-with-resources.
+     *
+     * @return Un stream de entidades que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    Stream<T> streamAll() throws SQLException;
 }
\ No newline at end of file
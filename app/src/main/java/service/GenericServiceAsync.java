@@ -0,0 +1,57 @@
+package service;
+
+import dao.Pagina;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variante asíncrona de {@link GenericService}: cada operación se ejecuta en un ejecutor dedicado y devuelve
+ * un {@link CompletableFuture}, sin bloquear al hilo que la invoca.
+ * <p>
+ * Las llamadas simultáneas se limitan al tamaño del pool de conexiones; las excedentes quedan en cola. Si la
+ * operación falla, el future se completa excepcionalmente con la misma excepción que lanzaría el servicio
+ * sincrónico ({@link java.sql.SQLException}, {@link IllegalArgumentException}, etc.).
+ * </p>
+ *
+ * @param <T> El tipo de la entidad del modelo que gestiona este servicio.
+ */
+public interface GenericServiceAsync<T> {
+
+    /**
+     * @see GenericService#insertar(Object)
+     */
+    CompletableFuture<T> insertar(T t);
+
+    /**
+     * @see GenericService#actualizar(Object)
+     */
+    CompletableFuture<Void> actualizar(T t);
+
+    /**
+     * @see GenericService#eliminar(long)
+     */
+    CompletableFuture<Void> eliminar(long id);
+
+    /**
+     * @see GenericService#getById(long)
+     */
+    CompletableFuture<Optional<T>> getById(long id);
+
+    /**
+     * @see GenericService#getByIds(Collection)
+     */
+    CompletableFuture<Map<Long, T>> getByIds(Collection<Long> ids);
+
+    /**
+     * @see GenericService#getAll()
+     */
+    CompletableFuture<List<T>> getAll();
+
+    /**
+     * @see GenericService#getPage(Long, int)
+     */
+    CompletableFuture<Pagina<T>> getPage(Long afterId, int limit);
+}
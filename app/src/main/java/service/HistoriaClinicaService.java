@@ -1,7 +1,11 @@
 package service;
 
+import dao.Pagina;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import models.CoincidenciaClinica;
 import models.HistoriaClinica;
 
 /**
@@ -24,6 +28,31 @@ public interface HistoriaClinicaService extends GenericService<HistoriaClinica>
      */
     HistoriaClinica insertar(HistoriaClinica h, Connection con, long pacienteId) throws SQLException;
 
+    /**
+     * Inserta un lote de Historias Clínicas en una sola ejecución JDBC, vinculando cada una al ID de
+     * Paciente que ocupa la misma posición en {@code pacienteIds}.
+     * Al igual que {@link #insertar(HistoriaClinica, Connection, long)}, requiere una transacción activa.
+     *
+     * @param hs Las Historias Clínicas a crear.
+     * @param con La conexión JDBC de la transacción activa a utilizar.
+     * @param pacienteIds Los IDs de Paciente, en el mismo orden que {@code hs}.
+     * @return Las Historias Clínicas con sus IDs generados.
+     * @throws SQLException Si ocurre un error de base de datos durante la inserción.
+     */
+    List<HistoriaClinica> insertarTodos(List<HistoriaClinica> hs, Connection con, List<Long> pacienteIds) throws SQLException;
+
+    /**
+     * Crea o actualiza un lote de Historias Clínicas (clave: ID de Paciente) en una sola ejecución JDBC.
+     * Requiere una transacción activa.
+     *
+     * @param hs Las Historias Clínicas a escribir.
+     * @param con La conexión JDBC de la transacción activa a utilizar.
+     * @param pacienteIds Los IDs de Paciente, en el mismo orden que {@code hs}.
+     * @return Las Historias Clínicas con sus IDs asignados.
+     * @throws SQLException Si ocurre un error de base de datos durante la escritura.
+     */
+    List<HistoriaClinica> upsertTodos(List<HistoriaClinica> hs, Connection con, List<Long> pacienteIds) throws SQLException;
+
     /**
      * Ejecuta la eliminación lógica (baja) de la Historia Clínica buscando por el ID del Paciente asociado.
      * Es crucial para asegurar la atomicidad de la operación de borrado compuesto.
@@ -42,4 +71,25 @@ public interface HistoriaClinicaService extends GenericService<HistoriaClinica>
      * @throws SQLException Si ocurre un error de base de datos durante la actualización.
      */
     void actualizar(HistoriaClinica h, Connection con) throws SQLException;
+
+    /**
+     * Carga en una sola consulta (por bloque) los campos de texto extenso de varias Historias Clínicas
+     * leídas solo con su encabezado, evitando una carga diferida por registro.
+     *
+     * @param hs Las Historias Clínicas cuyos textos se necesitan (ej. una página de un listado).
+     * @throws SQLException Si ocurre un error de base de datos.
+     */
+    void cargarTextos(Collection<HistoriaClinica> hs) throws SQLException;
+
+    /**
+     * Busca pacientes por el contenido de su Historia Clínica (antecedentes, medicación actual y observaciones)
+     * mediante el índice FULLTEXT, ordenados por relevancia.
+     *
+     * @param consulta Las palabras a buscar (ej. el nombre de un medicamento).
+     * @param desde El cursor devuelto por la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resultados por página.
+     * @return La página de coincidencias, cada una con el resumen del paciente y su relevancia.
+     * @throws SQLException Si ocurre un error de base de datos.
+     */
+    Pagina<CoincidenciaClinica> buscarPorTexto(String consulta, Long desde, int limit) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package service;
+
+import dao.Pagina;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import models.CoincidenciaClinica;
+import models.HistoriaClinica;
+
+/**
+ * Variante asíncrona de {@link HistoriaClinicaService}. Las operaciones que reciben una conexión transaccional
+ * no se incluyen: forman parte de una transacción ajena y deben ejecutarse en su mismo hilo.
+ */
+public interface HistoriaClinicaServiceAsync extends GenericServiceAsync<HistoriaClinica> {
+
+    /**
+     * @see HistoriaClinicaService#cargarTextos(Collection)
+     */
+    CompletableFuture<Void> cargarTextos(Collection<HistoriaClinica> hs);
+
+    /**
+     * @see HistoriaClinicaService#buscarPorTexto(String, Long, int)
+     */
+    CompletableFuture<Pagina<CoincidenciaClinica>> buscarPorTexto(String consulta, Long desde, int limit);
+}
@@ -0,0 +1,111 @@
+package service;
+
+import dao.Pagina;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import models.CoincidenciaClinica;
+import models.HistoriaClinica;
+
+/**
+ * Implementación de {@link HistoriaClinicaServiceAsync} que delega cada operación en un
+ * {@link HistoriaClinicaService} sincrónico, ejecutándola en el ejecutor compartido de los servicios asíncronos.
+ */
+public class HistoriaClinicaServiceAsyncImpl implements HistoriaClinicaServiceAsync {
+
+    private final HistoriaClinicaService servicio;
+
+    /**
+     * Crea la variante asíncrona de un servicio de historias clínicas existente.
+     *
+     * @param servicio El servicio sincrónico a envolver.
+     * @throws IllegalArgumentException Si el servicio es nulo.
+     */
+    public HistoriaClinicaServiceAsyncImpl(HistoriaClinicaService servicio) {
+        if (servicio == null) throw new IllegalArgumentException("El servicio no puede ser nulo.");
+        this.servicio = servicio;
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.insertar} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<HistoriaClinica> insertar(HistoriaClinica h) {
+        return EjecutorAsync.ejecutar(() -> servicio.insertar(h));
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.actualizar} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Void> actualizar(HistoriaClinica h) {
+        return EjecutorAsync.ejecutar(() -> {
+            servicio.actualizar(h);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.eliminar} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Void> eliminar(long id) {
+        return EjecutorAsync.ejecutar(() -> {
+            servicio.eliminar(id);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.getById} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Optional<HistoriaClinica>> getById(long id) {
+        return EjecutorAsync.ejecutar(() -> servicio.getById(id));
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.getByIds} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Map<Long, HistoriaClinica>> getByIds(Collection<Long> ids) {
+        return EjecutorAsync.ejecutar(() -> servicio.getByIds(ids));
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.getAll} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<List<HistoriaClinica>> getAll() {
+        return EjecutorAsync.ejecutar(servicio::getAll);
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.getPage} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Pagina<HistoriaClinica>> getPage(Long afterId, int limit) {
+        return EjecutorAsync.ejecutar(() -> servicio.getPage(afterId, limit));
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.cargarTextos} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Void> cargarTextos(Collection<HistoriaClinica> hs) {
+        return EjecutorAsync.ejecutar(() -> {
+            servicio.cargarTextos(hs);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta {@code HistoriaClinicaService.buscarPorTexto} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Pagina<CoincidenciaClinica>> buscarPorTexto(String consulta, Long desde, int limit) {
+        return EjecutorAsync.ejecutar(() -> servicio.buscarPorTexto(consulta, desde, limit));
+    }
+}
@@ -1,11 +1,16 @@
 package service;
 
 import dao.HistoriaClinicaDao;
+import dao.Pagina;
 import dao.impl.HistoriaClinicaDaoImpl;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import models.CoincidenciaClinica;
 import models.HistoriaClinica;
 
 /**
@@ -78,8 +83,49 @@ public class HistoriaClinicaServiceImpl implements HistoriaClinicaService {
         return daoConcreto.create(h, con, pacienteId);
     }
 
+    /**
+     * Inserta un lote de Historias Clínicas dentro de una transacción activa.
+     *
+     * @param hs Las Historias Clínicas a insertar.
+     * @param con La conexión JDBC de la transacción activa.
+     * @param pacienteIds Los IDs de Paciente, en el mismo orden que {@code hs}.
+     * @return Las Historias Clínicas con sus IDs generados.
+     * @throws SQLException Si ocurre un error al insertar o al acceder a la base de datos.
+     */
+    @Override
+    public List<HistoriaClinica> insertarTodos(List<HistoriaClinica> hs, Connection con, List<Long> pacienteIds) throws SQLException {
+        for (HistoriaClinica h : hs) {
+            validar(h);
+        }
+
+        HistoriaClinicaDaoImpl daoConcreto = (HistoriaClinicaDaoImpl) hcDao;
+
+        return daoConcreto.createAll(hs, con, pacienteIds);
+    }
+
+    /**
+     * Crea o actualiza un lote de Historias Clínicas dentro de una transacción activa.
+     *
+     * @param hs Las Historias Clínicas a escribir.
+     * @param con La conexión JDBC de la transacción activa.
+     * @param pacienteIds Los IDs de Paciente, en el mismo orden que {@code hs}.
+     * @return Las Historias Clínicas con sus IDs asignados.
+     * @throws SQLException Si ocurre un error al escribir o al acceder a la base de datos.
+     */
+    @Override
+    public List<HistoriaClinica> upsertTodos(List<HistoriaClinica> hs, Connection con, List<Long> pacienteIds) throws SQLException {
+        for (HistoriaClinica h : hs) {
+            validar(h);
+        }
+
+        HistoriaClinicaDaoImpl daoConcreto = (HistoriaClinicaDaoImpl) hcDao;
+
+        return daoConcreto.upsertAll(hs, con, pacienteIds);
+    }
+
     /**
      * Actualiza una Historia Clínica existente, utilizando una conexión autogestionada (método de conveniencia).
+     * Descarta de la caché de lectura de pacientes al paciente dueño de la historia.
      *
      * @param h La Historia Clínica con los datos actualizados.
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
@@ -92,10 +138,13 @@ public class HistoriaClinicaServiceImpl implements HistoriaClinicaService {
             throw new IllegalArgumentException("El ID de la Historia Clínica es inválido para actualizar.");
         }
         hcDao.update(h);
+        h.limpiarModificaciones();
+        PacienteServiceImpl.historiaModificada(h.getId());
     }
 
     /**
      * Realiza la eliminación lógica de una Historia Clínica por ID (método de conveniencia).
+     * Descarta de la caché de lectura de pacientes al paciente dueño de la historia.
      *
      * @param id El ID de la historia clínica a eliminar.
      * @throws SQLException Si ocurre un error al acceder a la base de datos.
@@ -107,6 +156,7 @@ public class HistoriaClinicaServiceImpl implements HistoriaClinicaService {
             throw new IllegalArgumentException("El ID debe ser mayor a 0.");
         }
         hcDao.delete(id);
+        PacienteServiceImpl.historiaModificada(id);
     }
 
     /**
@@ -141,6 +191,25 @@ public class HistoriaClinicaServiceImpl implements HistoriaClinicaService {
         return hcDao.read(id);
     }
 
+    /**
+     * Busca varias Historias Clínicas por ID, delegando al DAO.
+     *
+     * @param ids Los IDs de las historias clínicas.
+     * @return Mapa de ID a Historia Clínica.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws IllegalArgumentException Si la colección de IDs es nula.
+     */
+    @Override
+    public Map<Long, HistoriaClinica> getByIds(Collection<Long> ids) throws SQLException {
+        if (ids == null) {
+            throw new IllegalArgumentException("La colección de IDs no puede ser nula.");
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return hcDao.readByIds(ids);
+    }
+
     /**
      * Recupera todas las Historias Clínicas activas, delegando al DAO.
      *
@@ -152,8 +221,72 @@ public class HistoriaClinicaServiceImpl implements HistoriaClinicaService {
         return hcDao.readAll();
     }
 
+    /**
+     * Recupera una página de Historias Clínicas activas, delegando al DAO.
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de historias por página.
+     * @return La página de Historias Clínicas.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    @Override
+    public Pagina<HistoriaClinica> getPage(Long afterId, int limit) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0.");
+        }
+        return hcDao.readPage(afterId, limit);
+    }
+
+    /**
+     * Busca pacientes por el texto de su Historia Clínica, delegando al DAO (índice FULLTEXT).
+     *
+     * @param consulta Las palabras a buscar.
+     * @param desde El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resultados por página.
+     * @return La página de coincidencias ordenadas por relevancia.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws IllegalArgumentException Si la consulta está vacía o el límite no es positivo.
+     */
+    @Override
+    public Pagina<CoincidenciaClinica> buscarPorTexto(String consulta, Long desde, int limit) throws SQLException {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("El texto a buscar es obligatorio.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0.");
+        }
+        return hcDao.buscarPorTexto(consulta.trim(), desde, limit);
+    }
+
+    /**
+     * Recorre todas las Historias Clínicas activas como stream, delegando al DAO.
+     *
+     * @return Un stream de Historias Clínicas que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public Stream<HistoriaClinica> streamAll() throws SQLException {
+        return hcDao.streamAll();
+    }
+
+    /**
+     * Carga por lotes los textos de varias Historias Clínicas, delegando al DAO.
+     *
+     * @param hs Las Historias Clínicas cuyos textos se necesitan.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public void cargarTextos(Collection<HistoriaClinica> hs) throws SQLException {
+        if (hs == null || hs.isEmpty()) {
+            return;
+        }
+        hcDao.cargarTextos(hs);
+    }
+
     /**
      * Actualiza una Historia Clínica dentro de una transacción activa.
+     * No descarta los cambios registrados ni invalida la caché de pacientes: lo hace quien confirma la transacción.
      *
      * @param h La Historia Clínica con los datos actualizados.
      * @param con La conexión JDBC de la transacción activa.
@@ -0,0 +1,122 @@
+package service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import models.PacienteResumen;
+
+/**
+ * Índice en memoria para autocompletar pacientes activos por prefijo de apellido, nombre o DNI.
+ * <p>
+ * Cada paciente aporta tres claves ordenadas ({@code término normalizado + separador + ID}) a un
+ * {@link ConcurrentSkipListMap}; una búsqueda por prefijo recorre solo el rango de claves que comienzan
+ * con ese prefijo, sin acceder a la base de datos. Los términos se normalizan (minúsculas y sin acentos), de modo que
+ * "gomez" encuentra a "Gómez". Es seguro entre hilos: las lecturas no bloquean y las modificaciones de
+ * un mismo paciente se serializan.
+ * </p>
+ */
+final class IndicePrefijos {
+
+    private static final char SEPARADOR = '\u0000';
+
+    /** Mayor carácter posible: {@code prefijo + FIN_RANGO} acota el rango de claves que comienzan con el prefijo. */
+    private static final char FIN_RANGO = '\uffff';
+
+    private final ConcurrentSkipListMap<String, PacienteResumen> claves = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, PacienteResumen> porId = new ConcurrentHashMap<>();
+
+    /**
+     * Agrega o reemplaza un paciente en el índice.
+     *
+     * @param p El resumen del paciente (con ID asignado).
+     */
+    void agregar(PacienteResumen p) {
+        porId.compute(p.getId(), (id, anterior) -> {
+            if (anterior != null) {
+                quitarClaves(anterior);
+            }
+            for (String termino : terminos(p)) {
+                claves.put(termino + SEPARADOR + id, p);
+            }
+            return p;
+        });
+    }
+
+    /**
+     * Quita un paciente del índice (ej. tras su baja lógica).
+     *
+     * @param id El ID del paciente.
+     */
+    void quitar(long id) {
+        porId.computeIfPresent(id, (k, anterior) -> {
+            quitarClaves(anterior);
+            return null;
+        });
+    }
+
+    /**
+     * Vacía el índice (antes de reconstruirlo).
+     */
+    void limpiar() {
+        porId.clear();
+        claves.clear();
+    }
+
+    /**
+     * Devuelve hasta {@code k} pacientes cuyo apellido, nombre o DNI comienza con el prefijo indicado,
+     * en orden alfabético del término coincidente y sin repetidos.
+     *
+     * @param prefijo El texto tipeado (se normaliza igual que los términos).
+     * @param k La cantidad máxima de resultados.
+     * @return Los pacientes coincidentes.
+     */
+    List<PacienteResumen> buscar(String prefijo, int k) {
+        String p = normalizar(prefijo);
+        if (p.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        ConcurrentNavigableMap<String, PacienteResumen> rango = claves.subMap(p, true, p + FIN_RANGO, false);
+        Map<Long, PacienteResumen> resultado = new LinkedHashMap<>();
+        for (PacienteResumen r : rango.values()) {
+            resultado.putIfAbsent(r.getId(), r);
+            if (resultado.size() >= k) {
+                break;
+            }
+        }
+        return new ArrayList<>(resultado.values());
+    }
+
+    /**
+     * @return Cantidad de pacientes indexados.
+     */
+    int tamanio() {
+        return porId.size();
+    }
+
+    private void quitarClaves(PacienteResumen p) {
+        for (String termino : terminos(p)) {
+            claves.remove(termino + SEPARADOR + p.getId(), p);
+        }
+    }
+
+    private static String[] terminos(PacienteResumen p) {
+        return new String[]{normalizar(p.getApellido()), normalizar(p.getNombre()), normalizar(p.getDni())};
+    }
+
+    /**
+     * Normaliza un término para la comparación: sin espacios en los extremos, en minúsculas y sin diacríticos.
+     */
+    static String normalizar(String s) {
+        if (s == null) {
+            return "";
+        }
+        String sinAcentos = Normalizer.normalize(s.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+}
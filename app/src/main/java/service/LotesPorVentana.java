@@ -0,0 +1,146 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Acumula elementos en lotes que se despachan juntos al vencer una ventana de tiempo o al reunir un tamaño
+ * máximo, lo que ocurra primero. Es la base de {@link CargadorPorLotes} y {@link AgrupadorAltas}.
+ * <p>
+ * Los elementos se indexan por clave: agregar una clave que ya está pendiente devuelve el elemento existente.
+ * Cada lote se entrega en orden de llegada y en partes de hasta {@code maxLote} elementos. El despacho no debe
+ * lanzar excepciones: los errores se informan a través de los propios elementos. Es seguro entre hilos.
+ * </p>
+ *
+ * @param <K> El tipo de la clave de cada elemento.
+ * @param <V> El tipo del elemento encolado.
+ */
+final class LotesPorVentana<K, V> implements AutoCloseable {
+
+    private final long ventanaMs;
+    private final int maxLote;
+    private final String mensajeCerrado;
+    private final Consumer<Map<K, V>> despacho;
+    private final ScheduledExecutorService despachador;
+
+    private Map<K, V> pendientes = new LinkedHashMap<>();
+    private boolean programado;
+    private boolean cerrado;
+
+    /**
+     * Crea un acumulador de lotes con su propio hilo despachador.
+     *
+     * @param nombreHilo Nombre del hilo despachador.
+     * @param mensajeCerrado Mensaje de la {@link IllegalStateException} para los elementos agregados tras cerrar.
+     * @param ventanaMs Tiempo que espera el primer elemento de un lote a que se sumen otros (0 despacha en
+     *                  cuanto el hilo despachador queda libre).
+     * @param maxLote Cantidad de elementos a partir de la cual el lote se despacha sin esperar la ventana.
+     * @param despacho Procesa cada parte del lote.
+     * @throws IllegalArgumentException Si la ventana es negativa o el tamaño no es positivo.
+     */
+    LotesPorVentana(String nombreHilo, String mensajeCerrado, long ventanaMs, int maxLote,
+                    Consumer<Map<K, V>> despacho) {
+        if (ventanaMs < 0) throw new IllegalArgumentException("La ventana no puede ser negativa.");
+        if (maxLote <= 0) throw new IllegalArgumentException("El tamaño de lote debe ser mayor a 0.");
+        this.ventanaMs = ventanaMs;
+        this.maxLote = maxLote;
+        this.mensajeCerrado = mensajeCerrado;
+        this.despacho = despacho;
+        ScheduledThreadPoolExecutor ejecutor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, nombreHilo);
+            t.setDaemon(true);
+            return t;
+        });
+        // Al cerrar, lo pendiente se despacha de inmediato: no hay que esperar la ventana programada.
+        ejecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.despachador = ejecutor;
+    }
+
+    /**
+     * Encola un elemento en el lote en curso.
+     *
+     * @param clave La clave del elemento.
+     * @param crear Crea el elemento si la clave no está pendiente.
+     * @return El elemento pendiente con esa clave.
+     * @throws IllegalStateException Si ya fue cerrado.
+     */
+    V agregar(K clave, Function<? super K, ? extends V> crear) {
+        V v;
+        boolean lleno;
+        synchronized (this) {
+            if (cerrado) {
+                throw new IllegalStateException(mensajeCerrado);
+            }
+            v = pendientes.get(clave);
+            if (v != null) {
+                return v;
+            }
+            v = crear.apply(clave);
+            pendientes.put(clave, v);
+            lleno = pendientes.size() >= maxLote;
+            if (!lleno && !programado) {
+                programado = true;
+                despachador.schedule(this::despachar, ventanaMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (lleno) {
+            despachador.execute(this::despachar);
+        }
+        return v;
+    }
+
+    /**
+     * Despacha ahora los elementos acumulados en el hilo que lo invoca, sin esperar la ventana.
+     */
+    void despachar() {
+        Map<K, V> lote;
+        synchronized (this) {
+            programado = false;
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            lote = pendientes;
+            pendientes = new LinkedHashMap<>();
+        }
+        if (lote.size() <= maxLote) {
+            despacho.accept(lote);
+            return;
+        }
+        List<Map.Entry<K, V>> entradas = new ArrayList<>(lote.entrySet());
+        for (int desde = 0; desde < entradas.size(); desde += maxLote) {
+            Map<K, V> parte = new LinkedHashMap<>();
+            for (Map.Entry<K, V> e : entradas.subList(desde, Math.min(desde + maxLote, entradas.size()))) {
+                parte.put(e.getKey(), e.getValue());
+            }
+            despacho.accept(parte);
+        }
+    }
+
+    /**
+     * Despacha lo pendiente, espera un despacho en curso y libera el hilo. Los elementos posteriores se
+     * rechazan. Invocarlo más de una vez no tiene efecto.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+        }
+        despachar();
+        despachador.shutdown();
+        try {
+            despachador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
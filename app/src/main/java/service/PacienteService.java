@@ -1,8 +1,17 @@
 package service;
 
+import dao.Pagina;
+import dao.ResultadoDnis;
+import dao.ResultadoUpsert;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import models.Paciente;
+import models.PacienteResumen;
 
 /**
  * Interfaz que define las operaciones de lógica de negocio específicas para la entidad {@link Paciente} (Entidad A).
@@ -19,4 +28,122 @@ public interface PacienteService extends GenericService<Paciente> {
      * @throws SQLException Si ocurre un error de acceso a la base de datos.
      */
     Optional<Paciente> findByDni(String dni) throws SQLException;
+
+    /**
+     * Busca un lote de Pacientes activos por DNI en pocas consultas (pensado para validar importaciones).
+     *
+     * @param dnis Los DNIs a buscar.
+     * @return Los pacientes encontrados y los DNIs que no existen, por separado.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    ResultadoDnis findByDnis(Collection<String> dnis) throws SQLException;
+
+    /**
+     * Construye (o reconstruye) el índice en memoria de autocompletado a partir de los pacientes activos.
+     *
+     * @return La cantidad de pacientes indexados.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    int construirIndiceBusqueda() throws SQLException;
+
+    /**
+     * Abre una unidad de trabajo para una acción del usuario: un mapa de identidad de los pacientes leídos y la
+     * escritura conjunta de sus cambios. No retiene una conexión entre lecturas ni mientras el usuario edita.
+     *
+     * @return Una sesión nueva, que debe cerrarse tras su uso.
+     */
+    Sesion abrirSesion();
+
+    /**
+     * Construye (o reconstruye) el filtro de Bloom de DNIs existentes, con el que {@link #findByDni(String)}
+     * descarta sin consultar la base de datos los DNIs que seguro no existen. Se invoca al iniciar la aplicación;
+     * luego se mantiene con las altas hechas a través de este servicio y se reconstruye periódicamente.
+     *
+     * @return La cantidad de DNIs cargados (0 si el filtro está deshabilitado).
+     * @throws SQLException Si ocurre un error al leer los DNIs.
+     */
+    int construirFiltroDni() throws SQLException;
+
+    /**
+     * Obtiene los contadores de uso (aciertos, fallos, desalojos y vencimientos) de las cachés de lectura
+     * de {@link #getById(long)} y {@link #findByDni(String)}.
+     *
+     * @return Estadísticas por caché; vacío si la caché está deshabilitada.
+     */
+    Map<String, CacheLRU.Stats> getEstadisticasCache();
+
+    /**
+     * Devuelve hasta {@code k} pacientes activos cuyo apellido, nombre o DNI comienza con el prefijo,
+     * resueltos en memoria sin acceder a la base de datos.
+     *
+     * @param prefijo El texto tipeado (sin distinguir mayúsculas ni acentos).
+     * @param k La cantidad máxima de resultados.
+     * @return Los resúmenes de los pacientes coincidentes.
+     */
+    List<PacienteResumen> autocompletar(String prefijo, int k);
+
+    /**
+     * Actualiza un Paciente con control de concurrencia optimista, releyéndolo y reaplicando los cambios
+     * ante un conflicto con otra edición concurrente.
+     *
+     * @param id El ID del paciente a actualizar.
+     * @param cambios Las modificaciones a aplicar sobre el paciente leído (puede ejecutarse más de una vez).
+     * @param maxIntentos Cantidad máxima de intentos.
+     * @return El paciente actualizado.
+     * @throws exceptions.ConflictoConcurrenciaException Si el conflicto persiste tras el último intento.
+     * @throws SQLException Si ocurre un error transaccional.
+     */
+    Paciente actualizarConReintento(long id, Consumer<Paciente> cambios, int maxIntentos) throws SQLException;
+
+    /**
+     * Crea el Paciente si su DNI no existe o lo actualiza (junto con su Historia Clínica) si ya existe,
+     * resolviendo la decisión en la base de datos dentro de una única transacción.
+     *
+     * @param p El paciente a escribir (con su Historia Clínica).
+     * @return Indica si el paciente fue creado o actualizado.
+     * @throws SQLException Si ocurre un error transaccional.
+     */
+    ResultadoUpsert upsertPorDni(Paciente p) throws SQLException;
+
+    /**
+     * Versión por lotes de {@link #upsertPorDni(Paciente)}: una sola transacción y un lote de escritura por tabla.
+     *
+     * @param pacientes Los pacientes a escribir (sin DNIs repetidos).
+     * @return Los pacientes creados y los actualizados, por separado.
+     * @throws SQLException Si ocurre un error transaccional (se revierte el lote completo).
+     */
+    ResultadoUpsert upsertPorDni(List<Paciente> pacientes) throws SQLException;
+
+    /**
+     * Inserta masivamente Pacientes junto con sus Historias Clínicas utilizando lotes JDBC.
+     * <p>
+     * Las filas se confirman en bloques de tamaño configurable ({@code db.batch.size}); si un bloque falla,
+     * se reintenta fila por fila para aislar las filas con error y confirmar el resto.
+     * </p>
+     *
+     * @param pacientes Los pacientes a insertar (cada uno con su Historia Clínica).
+     * @return Los pacientes insertados, con sus IDs asignados.
+     * @throws exceptions.InsercionMasivaException Si una o más filas fueron rechazadas (indica cuáles y por qué).
+     * @throws SQLException Si ocurre un error de conexión o transaccional.
+     */
+    List<Paciente> insertarTodos(List<Paciente> pacientes) throws SQLException;
+
+    /**
+     * Recupera una página de resúmenes de pacientes activos para pantallas de listado.
+     * A diferencia de {@link #getPage(Long, int)}, no carga los campos de texto de la Historia Clínica.
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resúmenes por página (mayor a 0).
+     * @return La página de resúmenes.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    Pagina<PacienteResumen> getResumenPage(Long afterId, int limit) throws SQLException;
+
+    /**
+     * Recorre los resúmenes de todos los pacientes activos como stream (para exportaciones livianas).
+     *
+     * @return Un stream de resúmenes que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    Stream<PacienteResumen> streamResumen() throws SQLException;
 }
\ No newline at end of file
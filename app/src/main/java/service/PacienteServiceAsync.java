@@ -0,0 +1,57 @@
+package service;
+
+import dao.Pagina;
+import dao.ResultadoDnis;
+import dao.ResultadoUpsert;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import models.Paciente;
+import models.PacienteResumen;
+
+/**
+ * Variante asíncrona de {@link PacienteService}, para integraciones que lanzan muchas consultas y altas a la vez.
+ * <p>
+ * Quedan fuera las operaciones que no acceden a la base de datos o que no tienen sentido fuera del hilo que las
+ * usa (autocompletado en memoria, sesiones, streams); para ellas se usa el servicio sincrónico.
+ * </p>
+ */
+public interface PacienteServiceAsync extends GenericServiceAsync<Paciente> {
+
+    /**
+     * @see PacienteService#findByDni(String)
+     */
+    CompletableFuture<Optional<Paciente>> findByDni(String dni);
+
+    /**
+     * @see PacienteService#findByDnis(Collection)
+     */
+    CompletableFuture<ResultadoDnis> findByDnis(Collection<String> dnis);
+
+    /**
+     * @see PacienteService#actualizarConReintento(long, Consumer, int)
+     */
+    CompletableFuture<Paciente> actualizarConReintento(long id, Consumer<Paciente> cambios, int maxIntentos);
+
+    /**
+     * @see PacienteService#upsertPorDni(Paciente)
+     */
+    CompletableFuture<ResultadoUpsert> upsertPorDni(Paciente p);
+
+    /**
+     * @see PacienteService#upsertPorDni(List)
+     */
+    CompletableFuture<ResultadoUpsert> upsertPorDni(List<Paciente> pacientes);
+
+    /**
+     * @see PacienteService#insertarTodos(List)
+     */
+    CompletableFuture<List<Paciente>> insertarTodos(List<Paciente> pacientes);
+
+    /**
+     * @see PacienteService#getResumenPage(Long, int)
+     */
+    CompletableFuture<Pagina<PacienteResumen>> getResumenPage(Long afterId, int limit);
+}
@@ -0,0 +1,151 @@
+package service;
+
+import dao.Pagina;
+import dao.ResultadoDnis;
+import dao.ResultadoUpsert;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import models.Paciente;
+import models.PacienteResumen;
+
+/**
+ * Implementación de {@link PacienteServiceAsync} que delega cada operación en un {@link PacienteService}
+ * sincrónico, ejecutándola en el ejecutor compartido de los servicios asíncronos.
+ */
+public class PacienteServiceAsyncImpl implements PacienteServiceAsync {
+
+    private final PacienteService servicio;
+
+    /**
+     * Crea la variante asíncrona de un servicio de pacientes existente.
+     *
+     * @param servicio El servicio sincrónico a envolver.
+     * @throws IllegalArgumentException Si el servicio es nulo.
+     */
+    public PacienteServiceAsyncImpl(PacienteService servicio) {
+        if (servicio == null) throw new IllegalArgumentException("El servicio no puede ser nulo.");
+        this.servicio = servicio;
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.insertar} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Paciente> insertar(Paciente p) {
+        return EjecutorAsync.ejecutar(() -> servicio.insertar(p));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.actualizar} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Void> actualizar(Paciente p) {
+        return EjecutorAsync.ejecutar(() -> {
+            servicio.actualizar(p);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.eliminar} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Void> eliminar(long id) {
+        return EjecutorAsync.ejecutar(() -> {
+            servicio.eliminar(id);
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.getById} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Optional<Paciente>> getById(long id) {
+        return EjecutorAsync.ejecutar(() -> servicio.getById(id));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.getByIds} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Map<Long, Paciente>> getByIds(Collection<Long> ids) {
+        return EjecutorAsync.ejecutar(() -> servicio.getByIds(ids));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.getAll} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<List<Paciente>> getAll() {
+        return EjecutorAsync.ejecutar(servicio::getAll);
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.getPage} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Pagina<Paciente>> getPage(Long afterId, int limit) {
+        return EjecutorAsync.ejecutar(() -> servicio.getPage(afterId, limit));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.findByDni} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Optional<Paciente>> findByDni(String dni) {
+        return EjecutorAsync.ejecutar(() -> servicio.findByDni(dni));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.findByDnis} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<ResultadoDnis> findByDnis(Collection<String> dnis) {
+        return EjecutorAsync.ejecutar(() -> servicio.findByDnis(dnis));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.actualizarConReintento} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Paciente> actualizarConReintento(long id, Consumer<Paciente> cambios, int maxIntentos) {
+        return EjecutorAsync.ejecutar(() -> servicio.actualizarConReintento(id, cambios, maxIntentos));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.upsertPorDni} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<ResultadoUpsert> upsertPorDni(Paciente p) {
+        return EjecutorAsync.ejecutar(() -> servicio.upsertPorDni(p));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.upsertPorDni} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<ResultadoUpsert> upsertPorDni(List<Paciente> pacientes) {
+        return EjecutorAsync.ejecutar(() -> servicio.upsertPorDni(pacientes));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.insertarTodos} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<List<Paciente>> insertarTodos(List<Paciente> pacientes) {
+        return EjecutorAsync.ejecutar(() -> servicio.insertarTodos(pacientes));
+    }
+
+    /**
+     * Ejecuta {@code PacienteService.getResumenPage} en el ejecutor asíncrono.
+     */
+    @Override
+    public CompletableFuture<Pagina<PacienteResumen>> getResumenPage(Long afterId, int limit) {
+        return EjecutorAsync.ejecutar(() -> servicio.getResumenPage(afterId, limit));
+    }
+}
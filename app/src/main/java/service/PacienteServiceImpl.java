@@ -1,14 +1,36 @@
 package service;
 
 import config.DatabaseConnection;
+import config.TransactionManager;
+import dao.Pagina;
 import dao.PacienteDao;
+import dao.ResultadoDnis;
+import dao.ResultadoUpsert;
 import dao.impl.PacienteDaoImpl;
+import exceptions.ConflictoConcurrenciaException;
+import exceptions.InsercionMasivaException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import models.HistoriaClinica;
 import models.Paciente;
+import models.PacienteResumen;
 
 /**
  * Implementación de la capa de servicio para la entidad {@link Paciente}.
@@ -20,9 +42,84 @@ import models.Paciente;
  */
 public class PacienteServiceImpl implements PacienteService {
 
+    /**
+     * Índice de autocompletado compartido por todas las instancias del servicio (se mantiene con los
+     * métodos de escritura de esta clase).
+     */
+    private static final IndicePrefijos INDICE = new IndicePrefijos();
+
+    /**
+     * Caché de lectura de pacientes por ID, o null si está deshabilitada ({@code db.cache.pacientes.size=0}).
+     */
+    private static final CacheLRU<Long, Paciente> CACHE_POR_ID = crearCache();
+
+    /**
+     * Caché de DNI a ID de paciente. Una entrada desactualizada (DNI modificado) se detecta al comparar el DNI
+     * del paciente cacheado, por lo que solo requiere invalidación por ID.
+     */
+    private static final CacheLRU<String, Long> CACHE_DNI = crearCache();
+
+    /**
+     * Capacidad inicial del filtro de DNIs ({@code db.bloom.capacidad}); 0 deshabilita el filtro.
+     */
+    private static final int CAPACIDAD_FILTRO = DatabaseConnection.getIntProperty("db.bloom.capacidad", 100_000);
+
+    private static final double TASA_FALSOS_POSITIVOS = DatabaseConnection.getDoubleProperty("db.bloom.fpp", 0.01);
+
+    private static final int INTERVALO_RECONSTRUCCION_MS = DatabaseConnection.getIntProperty("db.bloom.rebuildMs", 3_600_000);
+
+    /**
+     * Edad máxima ({@code db.bloom.maxEdadMs}) de un filtro cuyo "no está" se acepta sin consultar la base de datos.
+     * Acota el tiempo durante el cual un alta hecha por otra aplicación puede reportarse como inexistente.
+     */
+    private static final int EDAD_MAXIMA_FILTRO_MS = DatabaseConnection.getIntProperty("db.bloom.maxEdadMs", 3_900_000);
+
+    /**
+     * Serializa las reconstrucciones del filtro de DNIs.
+     */
+    private static final Object FILTRO_LOCK = new Object();
+
+    /**
+     * Filtro de Bloom con los DNIs de los pacientes activos, o null mientras no se haya construido.
+     * Si responde que un DNI no está y tiene a lo sumo {@link #EDAD_MAXIMA_FILTRO_MS} de antigüedad,
+     * {@link #findByDni(String)} no consulta la base de datos.
+     */
+    private static volatile FiltroBloom filtroDni;
+
+    /**
+     * Filtro que se está reconstruyendo, o null. Las altas confirmadas durante la reconstrucción se registran
+     * también en él, para no perderlas si el streaming ya pasó por su posición.
+     */
+    private static volatile FiltroBloom filtroEnConstruccion;
+
+    private static ScheduledExecutorService reconstructorFiltro;
+
+    /**
+     * Lecturas por ID en curso, compartidas por los pedidos concurrentes del mismo paciente.
+     */
+    private static final VueloUnico<Long, Paciente> VUELOS_POR_ID = new VueloUnico<>(Paciente::copiar);
+
+    /**
+     * Lecturas por DNI en curso, compartidas por los pedidos concurrentes del mismo DNI.
+     */
+    private static final VueloUnico<String, Paciente> VUELOS_POR_DNI = new VueloUnico<>(Paciente::copiar);
+
     private PacienteDao pacienteDao;
     private HistoriaClinicaService hcService;
 
+    /**
+     * Ventana de la confirmación agrupada de altas ({@code db.insert.grupoMs}); 0 la deshabilita.
+     */
+    private static final int VENTANA_GRUPO_MS = DatabaseConnection.getIntProperty("db.insert.grupoMs", 0);
+
+    /**
+     * Agrupador de altas concurrentes compartido por todas las instancias del servicio (un único hilo y un único
+     * grupo por commit). Se crea con la primera alta y es null si está deshabilitado o ya se cerró.
+     */
+    private static volatile AgrupadorAltas agrupador;
+
+    private static boolean agrupadorCerrado;
+
     /**
      * Constructor que inicializa las dependencias (Inyección de Dependencias manual).
      */
@@ -31,6 +128,88 @@ public class PacienteServiceImpl implements PacienteService {
         this.hcService = new HistoriaClinicaServiceImpl();
     }
 
+    /**
+     * Obtiene el agrupador de altas compartido, creándolo la primera vez. Al crearlo registra su cierre al
+     * finalizar la JVM, por si la aplicación termina sin invocar {@link #cerrarAgrupadorAltas()}.
+     *
+     * @return El agrupador, o null si la confirmación agrupada está deshabilitada o ya se cerró.
+     */
+    private static AgrupadorAltas agrupador() {
+        AgrupadorAltas a = agrupador;
+        if (a != null || VENTANA_GRUPO_MS <= 0) {
+            return a;
+        }
+        synchronized (PacienteServiceImpl.class) {
+            if (agrupador == null && !agrupadorCerrado) {
+                agrupador = new AgrupadorAltas(new PacienteServiceImpl(), VENTANA_GRUPO_MS,
+                        DatabaseConnection.getIntProperty("db.insert.grupoMax", 500));
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(PacienteServiceImpl::cerrarAgrupadorAltas, "agrupador-altas-shutdown"));
+            }
+            return agrupador;
+        }
+    }
+
+    /**
+     * Escribe las altas agrupadas pendientes y libera el hilo del agrupador compartido. Las altas posteriores
+     * se confirman de a una. Se invoca al terminar la aplicación (y al finalizar la JVM); es idempotente.
+     */
+    public static void cerrarAgrupadorAltas() {
+        AgrupadorAltas a;
+        synchronized (PacienteServiceImpl.class) {
+            agrupadorCerrado = true;
+            a = agrupador;
+            agrupador = null;
+        }
+        if (a != null) {
+            a.close();
+        }
+    }
+
+    /**
+     * Crea una caché de lectura con la configuración de {@code db.properties}.
+     *
+     * @return La caché, o null si {@code db.cache.pacientes.size} es 0.
+     */
+    private static <K, V> CacheLRU<K, V> crearCache() {
+        int tam = DatabaseConnection.getIntProperty("db.cache.pacientes.size", 1000);
+        int ttlMs = DatabaseConnection.getIntProperty("db.cache.pacientes.ttlMs", 30000);
+        return tam > 0 ? new CacheLRU<K, V>(tam, ttlMs) : null;
+    }
+
+    /**
+     * Descarta de las cachés de lectura los pacientes modificados o eliminados. Se invoca tras confirmar.
+     *
+     * @param ids Los IDs de los pacientes afectados.
+     */
+    private static void invalidarCache(Collection<Long> ids) {
+        if (CACHE_POR_ID == null) {
+            return;
+        }
+        for (Long id : ids) {
+            if (id != null) {
+                CACHE_POR_ID.invalidar(id);
+            }
+        }
+    }
+
+    /**
+     * Descarta de la caché de lectura el paciente dueño de una Historia Clínica modificada o eliminada por fuera
+     * de este servicio (ej. con {@link HistoriaClinicaService#actualizar(HistoriaClinica)}). La caché guarda el
+     * paciente con su historia, y sin esta invalidación {@link #getById(long)} devolvería la historia anterior
+     * (y su versión) hasta que venza la entrada. Se invoca tras confirmar.
+     *
+     * @param historiaId El ID de la Historia Clínica.
+     */
+    static void historiaModificada(long historiaId) {
+        if (CACHE_POR_ID == null) {
+            return;
+        }
+        CACHE_POR_ID.invalidarSi(p -> p.getHistoriaClinica() != null
+                && p.getHistoriaClinica().getId() != null
+                && p.getHistoriaClinica().getId() == historiaId);
+    }
+
     /**
      * Realiza las validaciones de datos de la entidad antes de cualquier operación de persistencia.
      *
@@ -43,12 +222,18 @@ public class PacienteServiceImpl implements PacienteService {
         if (p.getApellido() == null || p.getApellido().isBlank()) throw new IllegalArgumentException("Apellido obligatorio.");
         if (p.getDni() == null || p.getDni().isBlank()) throw new IllegalArgumentException("DNI obligatorio.");
         if (p.getHistoriaClinica() == null) throw new IllegalArgumentException("Historia clínica obligatoria (Relación 1-1).");
+        if (p.getHistoriaClinica().getNroHistoria() == null || p.getHistoriaClinica().getNroHistoria().isBlank()) {
+            throw new IllegalArgumentException("El Nro. de Historia es obligatorio.");
+        }
     }
 
     /**
      * Implementa la transacción de inserción de un Paciente y su Historia Clínica asociada.
      * <p>
      * Se asegura de que ambas operaciones se realicen correctamente o se reviertan (commit/rollback).
+     * La transacción se repite si el servidor la aborta por deadlock o espera de bloqueo agotada.
+     * Con la confirmación agrupada habilitada ({@code db.insert.grupoMs > 0}), el alta se suma a las de otros
+     * hilos en un único commit y este método espera a que ese commit termine.
      * </p>
      *
      * @param p El paciente a insertar.
@@ -59,39 +244,464 @@ public class PacienteServiceImpl implements PacienteService {
     public Paciente insertar(Paciente p) throws SQLException {
         validar(p);
 
-        Connection con = null;
+        CompletableFuture<Paciente> alta = null;
+        AgrupadorAltas grupo = agrupador();
+        if (grupo != null) {
+            try {
+                alta = grupo.insertar(p);
+            } catch (IllegalStateException cerrado) {
+                // Se cerró al terminar la aplicación: el alta se confirma sola.
+            }
+        }
+        if (alta != null) {
+            esperarAlta(alta);
+            if (CACHE_DNI != null) {
+                CACHE_DNI.invalidar(p.getDni());
+            }
+            return p;
+        }
+
         try {
-            con = DatabaseConnection.getConnection();
-            con.setAutoCommit(false); // 1. Inicia transacción
+            TransactionManager.inTransaction(con -> { // 1. Inicia transacción (y la confirma al terminar)
+                pacienteDao.createConHistoria(p, con); // 2-3. Crea el Paciente y su Historia Clínica en un solo viaje (obtiene ambos IDs).
+                return p;
+            });
+        } catch (SQLException | RuntimeException ex) {
+            throw new SQLException("Error transaccional al insertar: " + ex.getMessage(), ex);
+        }
 
-            pacienteDao.create(p, con); // 2. Crea el Paciente (obtiene el id).
+        indexar(List.of(p));
+        if (CACHE_DNI != null) {
+            CACHE_DNI.invalidar(p.getDni());
+        }
+        return p;
+    }
 
-            hcService.insertar(p.getHistoriaClinica(), con, p.getId()); // 2. Crea la Historia Clínica (usa el ID y la conexión transaccional).
+    /**
+     * Espera el commit del grupo que contiene un alta y traduce su resultado a las excepciones de {@link #insertar}.
+     *
+     * @param alta El future devuelto por el agrupador.
+     * @throws SQLException Si el alta fue rechazada o el grupo falló.
+     */
+    private static void esperarAlta(CompletableFuture<Paciente> alta) throws SQLException {
+        try {
+            alta.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba la confirmación del alta", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) causa;
+            }
+            throw new SQLException("Error transaccional al insertar: " + causa.getMessage(), causa);
+        }
+    }
 
-            con.commit(); // 4. Confirma
-            return p;
+    /**
+     * Crea o actualiza un único paciente por DNI.
+     *
+     * @param p El paciente a escribir.
+     * @return Indica si el paciente fue creado o actualizado.
+     * @throws SQLException Si ocurre un error transaccional.
+     */
+    @Override
+    public ResultadoUpsert upsertPorDni(Paciente p) throws SQLException {
+        return upsertPorDni(List.of(p));
+    }
 
-        } catch (Exception ex) {
-            if (con != null) {
-                con.rollback(); // 5. Revierte
+    /**
+     * Implementa el alta-o-modificación por DNI de un lote de Pacientes y sus Historias Clínicas.
+     * <p>
+     * En una única transacción: el DAO de pacientes escribe el lote con {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * y clasifica las filas en creadas y actualizadas; luego las Historias Clínicas se escriben del mismo modo,
+     * usando el ID de paciente como clave. Reemplaza la secuencia {@code findByDni} + {@code insertar}/{@code actualizar}.
+     * Un paciente eliminado lógicamente con el mismo DNI se reactiva con los datos del lote. Los DNIs se recortan
+     * antes de escribirlos y se comparan como lo hace la base (sin distinguir mayúsculas ni acentos): dos DNIs
+     * del lote que la base considera iguales se rechazan como repetidos.
+     * La transacción se repite si el servidor la aborta por deadlock o espera de bloqueo agotada; cada intento
+     * (y un fallo definitivo) restaura los IDs y versiones en memoria que escribió el intento anterior.
+     * </p>
+     *
+     * @param pacientes Los pacientes a escribir.
+     * @return Los pacientes creados y los actualizados.
+     * @throws SQLException Si ocurre un error transaccional (se revierte todo el lote).
+     * @throws IllegalArgumentException Si algún paciente es inválido o hay DNIs repetidos.
+     */
+    @Override
+    public ResultadoUpsert upsertPorDni(List<Paciente> pacientes) throws SQLException {
+        if (pacientes == null) throw new IllegalArgumentException("La lista de pacientes no puede ser nula.");
+        Set<String> dnis = new HashSet<>();
+        for (Paciente p : pacientes) {
+            validar(p);
+            if (!p.getDni().equals(p.getDni().strip())) {
+                p.setDni(p.getDni().strip()); // Los espacios no distinguen DNIs en la base: no se guardan.
             }
-            throw new SQLException("Error transaccional al insertar: " + ex.getMessage(), ex);
+            // Misma comparación que el índice único (sin distinguir mayúsculas ni acentos).
+            if (!dnis.add(IndicePrefijos.normalizar(p.getDni()))) {
+                throw new IllegalArgumentException("DNI repetido en el lote: " + p.getDni());
+            }
+        }
+
+        EstadoLeido leido = new EstadoLeido(pacientes);
+        ResultadoUpsert resultado;
+        try {
+            resultado = TransactionManager.inTransaction(con -> { // 1. Inicia transacción (y la confirma al terminar)
+                // Cada intento parte de lo recibido: la clasificación usa la versión original de cada paciente.
+                leido.restaurar();
+
+                ResultadoUpsert r = pacienteDao.upsertPorDni(pacientes, con); // 2. Pacientes (asigna IDs).
+
+                List<HistoriaClinica> historias = new ArrayList<>(pacientes.size());
+                List<Long> pacienteIds = new ArrayList<>(pacientes.size());
+                for (Paciente p : pacientes) {
+                    historias.add(p.getHistoriaClinica());
+                    pacienteIds.add(p.getId());
+                }
+                hcService.upsertTodos(historias, con, pacienteIds); // 3. Historias Clínicas, con los IDs de paciente.
+                return r;
+            });
+        } catch (SQLException | RuntimeException ex) {
+            leido.restaurar();
+            throw new SQLException("Error transaccional al sincronizar por DNI: " + ex.getMessage(), ex);
+        }
+
+        indexar(pacientes);
+        List<Long> afectados = new ArrayList<>(resultado.getActualizados().size());
+        for (Paciente p : resultado.getActualizados()) {
+            afectados.add(p.getId());
+        }
+        invalidarCache(afectados);
+        return resultado;
+    }
+
+    /**
+     * IDs y versiones de un lote de pacientes (y sus Historias Clínicas) tal como se recibieron, para
+     * deshacer en memoria lo que escribió un intento de transacción revertido.
+     */
+    private static final class EstadoLeido {
+        private final List<Paciente> pacientes;
+        private final Long[] ids;
+        private final int[] versiones;
+        private final Long[] historiaIds;
+        private final int[] historiaVersiones;
+
+        EstadoLeido(List<Paciente> pacientes) {
+            this.pacientes = pacientes;
+            int n = pacientes.size();
+            ids = new Long[n];
+            versiones = new int[n];
+            historiaIds = new Long[n];
+            historiaVersiones = new int[n];
+            for (int i = 0; i < n; i++) {
+                Paciente p = pacientes.get(i);
+                ids[i] = p.getId();
+                versiones[i] = p.getVersion();
+                HistoriaClinica h = p.getHistoriaClinica();
+                if (h != null) {
+                    historiaIds[i] = h.getId();
+                    historiaVersiones[i] = h.getVersion();
+                }
+            }
+        }
+
+        void restaurar() {
+            for (int i = 0; i < ids.length; i++) {
+                Paciente p = pacientes.get(i);
+                p.setId(ids[i]);
+                p.setVersion(versiones[i]);
+                HistoriaClinica h = p.getHistoriaClinica();
+                if (h != null) {
+                    h.setId(historiaIds[i]);
+                    h.setVersion(historiaVersiones[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstruye el índice de autocompletado recorriendo los resúmenes de todos los pacientes activos
+     * por streaming. Se invoca al iniciar la aplicación; luego el índice se mantiene con las altas,
+     * modificaciones y bajas hechas a través de este servicio.
+     *
+     * @return La cantidad de pacientes indexados.
+     * @throws SQLException Si ocurre un error al leer los pacientes.
+     */
+    @Override
+    public int construirIndiceBusqueda() throws SQLException {
+        INDICE.limpiar();
+        try (Stream<PacienteResumen> resumenes = pacienteDao.streamResumen()) {
+            resumenes.forEach(INDICE::agregar);
+        }
+        return INDICE.tamanio();
+    }
 
-        } finally {
-            if (con != null) {
-                try { con.setAutoCommit(true); } catch (Exception ignore) {}
-                try { con.close(); } catch (Exception ignore) {}
+    /**
+     * Reconstruye el filtro de DNIs recorriendo por streaming los DNIs de los pacientes activos.
+     * <p>
+     * El filtro nuevo reemplaza al anterior recién al terminar; hasta entonces las búsquedas siguen usando el
+     * anterior. Los DNIs eliminados o modificados solo desaparecen del filtro al reconstruirlo (mientras tanto
+     * producen falsos positivos, que consultan la base de datos). La primera invocación programa además la
+     * reconstrucción periódica cada {@code db.bloom.rebuildMs} milisegundos. La capacidad se duplica respecto
+     * de la cantidad de DNIs del filtro anterior, para mantener la tasa de falsos positivos al crecer la tabla.
+     * </p>
+     * <p>
+     * Las altas y los cambios de DNI hechos por otras aplicaciones sobre la misma base solo se ven al reconstruir.
+     * Por eso un "no está" del filtro es una pista con vencimiento: {@link #findByDni(String)} la acepta solo si el
+     * filtro tiene a lo sumo {@code db.bloom.maxEdadMs} milisegundos (contados desde el inicio de su lectura), y
+     * si no consulta la base de datos. Esa es la ventana máxima de desactualización, incluso si las
+     * reconstrucciones fallan; conviene que sea algo mayor que {@code db.bloom.rebuildMs}.
+     * </p>
+     *
+     * @return La cantidad de DNIs cargados (0 si el filtro está deshabilitado).
+     * @throws SQLException Si ocurre un error al leer los DNIs (se conserva el filtro anterior).
+     */
+    @Override
+    public int construirFiltroDni() throws SQLException {
+        if (CAPACIDAD_FILTRO <= 0) {
+            return 0;
+        }
+        synchronized (FILTRO_LOCK) {
+            FiltroBloom anterior = filtroDni;
+            long capacidad = Math.max(CAPACIDAD_FILTRO, anterior != null ? 2 * anterior.getAgregados() : 0);
+            FiltroBloom nuevo = new FiltroBloom(capacidad, TASA_FALSOS_POSITIVOS);
+            // Se publica antes de leer: lo confirmado desde ahora se registra aquí, y lo anterior lo trae la consulta.
+            filtroEnConstruccion = nuevo;
+            try (Stream<String> dnis = pacienteDao.streamDnis()) {
+                dnis.forEach(d -> nuevo.agregar(IndicePrefijos.normalizar(d)));
+                filtroDni = nuevo;
+            } finally {
+                filtroEnConstruccion = null;
             }
+            programarReconstruccionFiltro();
+            return (int) nuevo.getAgregados();
         }
     }
 
+    /**
+     * Programa la reconstrucción periódica del filtro de DNIs en un hilo demonio, una única vez.
+     * Se invoca con {@link #FILTRO_LOCK} tomado.
+     */
+    private void programarReconstruccionFiltro() {
+        if (reconstructorFiltro != null || INTERVALO_RECONSTRUCCION_MS <= 0) {
+            return;
+        }
+        reconstructorFiltro = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "filtro-dni-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        reconstructorFiltro.scheduleWithFixedDelay(() -> {
+            try {
+                construirFiltroDni();
+            } catch (Exception e) {
+                System.err.println("No se pudo reconstruir el filtro de DNIs: " + e.getMessage());
+            }
+        }, INTERVALO_RECONSTRUCCION_MS, INTERVALO_RECONSTRUCCION_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra en el filtro de DNIs (y en el que se esté reconstruyendo) el DNI de un paciente confirmado.
+     * <p>
+     * Lee {@code filtroEnConstruccion} antes que {@code filtroDni}, en orden inverso al que los actualiza la
+     * reconstrucción: si ve que no hay reconstrucción en curso, o bien la consulta de la reconstrucción todavía
+     * no empezó (y verá la fila), o bien ya terminó y {@code filtroDni} es el filtro nuevo.
+     * </p>
+     */
+    private static void registrarDni(String dni) {
+        FiltroBloom enConstruccion = filtroEnConstruccion;
+        FiltroBloom actual = filtroDni;
+        if (dni == null || (actual == null && enConstruccion == null)) {
+            return;
+        }
+        String normalizado = IndicePrefijos.normalizar(dni);
+        if (actual != null) {
+            actual.agregar(normalizado);
+        }
+        if (enConstruccion != null && enConstruccion != actual) {
+            enConstruccion.agregar(normalizado);
+        }
+    }
+
+    /**
+     * Busca en memoria hasta {@code k} pacientes cuyo apellido, nombre o DNI comienza con el prefijo indicado.
+     *
+     * @param prefijo El texto tipeado (sin distinguir mayúsculas ni acentos).
+     * @param k La cantidad máxima de resultados.
+     * @return Los pacientes coincidentes (vacío si el índice no fue construido).
+     * @throws IllegalArgumentException Si el prefijo es nulo o k no es positivo.
+     */
+    @Override
+    public List<PacienteResumen> autocompletar(String prefijo, int k) {
+        if (prefijo == null) throw new IllegalArgumentException("El prefijo no puede ser nulo.");
+        if (k <= 0) throw new IllegalArgumentException("La cantidad de resultados debe ser mayor a 0.");
+        return INDICE.buscar(prefijo, k);
+    }
+
+    /**
+     * Refleja en el índice de autocompletado y en el filtro de DNIs pacientes recién confirmados en la base de datos.
+     *
+     * @param pacientes Los pacientes creados o modificados.
+     */
+    private static void indexar(List<Paciente> pacientes) {
+        for (Paciente p : pacientes) {
+            if (p.isEliminado()) {
+                INDICE.quitar(p.getId());
+                continue;
+            }
+            registrarDni(p.getDni());
+            HistoriaClinica h = p.getHistoriaClinica();
+            INDICE.agregar(new PacienteResumen(p.getId(), p.getDni(), p.getNombre(), p.getApellido(),
+                    h != null ? h.getNroHistoria() : null, h != null ? h.getGrupoSanguineo() : null));
+        }
+    }
+
+    /**
+     * Implementa la inserción masiva de Pacientes y sus Historias Clínicas mediante lotes JDBC.
+     * <p>
+     * Las filas inválidas se descartan antes de tocar la base de datos. Las válidas se procesan en bloques
+     * de {@code db.batch.size} filas: un lote de pacientes, luego un lote de historias con los IDs generados
+     * y un commit por bloque. Cada bloque es una transacción de {@link TransactionManager#inTransaction(TransactionManager.Work)},
+     * que se repite entera ante deadlock o espera de bloqueo agotada. Si un bloque falla de todos modos, se revierte
+     * y se reintenta fila por fila con savepoints en una transacción nueva, registrando el error de cada fila
+     * rechazada y confirmando las demás.
+     * </p>
+     *
+     * @param pacientes Los pacientes a insertar.
+     * @return Los pacientes insertados con sus IDs.
+     * @throws InsercionMasivaException Si alguna fila fue rechazada (las demás quedan confirmadas).
+     * @throws SQLException Si ocurre un error de conexión o transaccional.
+     */
+    @Override
+    public List<Paciente> insertarTodos(List<Paciente> pacientes) throws SQLException {
+        if (pacientes == null) throw new IllegalArgumentException("La lista de pacientes no puede ser nula.");
+
+        Map<Integer, String> fallidas = new TreeMap<>();
+        List<Integer> validos = new ArrayList<>();
+        for (int i = 0; i < pacientes.size(); i++) {
+            try {
+                validar(pacientes.get(i));
+                validos.add(i);
+            } catch (IllegalArgumentException e) {
+                fallidas.put(i, e.getMessage());
+            }
+        }
+
+        int tamLote = Math.max(1, DatabaseConnection.getIntProperty("db.batch.size", 500));
+        List<Paciente> insertados = new ArrayList<>(validos.size());
+
+        try {
+            for (int desde = 0; desde < validos.size(); desde += tamLote) {
+                List<Integer> indices = validos.subList(desde, Math.min(desde + tamLote, validos.size()));
+                List<Paciente> lote = new ArrayList<>(indices.size());
+                for (int i : indices) {
+                    lote.add(pacientes.get(i));
+                }
+
+                try {
+                    TransactionManager.inTransaction(con -> { // 1. Inicia la transacción del bloque
+                        limpiarIds(lote); // Un intento revertido pudo haber asignado IDs.
+                        insertarLote(lote, con); // 2. Lote de pacientes y lote de historias.
+                        return null;
+                    }); // 3. Confirma el bloque
+                    insertados.addAll(lote);
+                    indexar(lote);
+                } catch (SQLException ex) {
+                    // 4. El bloque se revirtió: se aíslan las filas con error en una transacción nueva.
+                    Map<Integer, String> rechazadas = new TreeMap<>();
+                    List<Paciente> confirmados = TransactionManager.inTransaction(con -> {
+                        rechazadas.clear();
+                        return insertarFilaPorFila(pacientes, indices, con, rechazadas);
+                    });
+                    fallidas.putAll(rechazadas);
+                    insertados.addAll(confirmados);
+                    indexar(confirmados);
+                }
+            }
+
+        } catch (SQLException ex) {
+            throw new SQLException("Error transaccional en la inserción masiva: " + ex.getMessage(), ex);
+        }
+
+        if (!fallidas.isEmpty()) {
+            throw new InsercionMasivaException(fallidas, insertados);
+        }
+        return insertados;
+    }
+
+    /**
+     * Quita los IDs asignados a un bloque de pacientes y a sus historias clínicas.
+     */
+    private static void limpiarIds(List<Paciente> lote) {
+        for (Paciente p : lote) {
+            p.setId(null);
+            p.getHistoriaClinica().setId(null);
+        }
+    }
+
+    /**
+     * Inserta un bloque de pacientes y luego sus historias clínicas, ambos como lotes JDBC.
+     *
+     * @param lote Los pacientes del bloque.
+     * @param con La conexión transaccional.
+     * @throws SQLException Si falla alguno de los dos lotes.
+     */
+    private void insertarLote(List<Paciente> lote, Connection con) throws SQLException {
+        pacienteDao.createAll(lote, con);
+
+        List<HistoriaClinica> historias = new ArrayList<>(lote.size());
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (Paciente p : lote) {
+            historias.add(p.getHistoriaClinica());
+            ids.add(p.getId());
+        }
+        hcService.insertarTodos(historias, con, ids);
+    }
+
+    /**
+     * Reintenta un bloque fallido fila por fila, usando un savepoint por fila para descartar solo las que fallan.
+     *
+     * @param pacientes La lista original (para reportar índices).
+     * @param indices Los índices del bloque dentro de la lista original.
+     * @param con La conexión transaccional.
+     * @param fallidas Mapa donde se registran las filas rechazadas.
+     * @return Los pacientes del bloque que se insertaron correctamente.
+     * @throws SQLException Si falla la gestión de savepoints.
+     */
+    private List<Paciente> insertarFilaPorFila(List<Paciente> pacientes, List<Integer> indices, Connection con,
+                                               Map<Integer, String> fallidas) throws SQLException {
+        List<Paciente> ok = new ArrayList<>();
+        for (int i : indices) {
+            Paciente p = pacientes.get(i);
+            p.setId(null);
+            p.getHistoriaClinica().setId(null);
+
+            Savepoint sp = con.setSavepoint();
+            try {
+                pacienteDao.create(p, con);
+                hcService.insertar(p.getHistoriaClinica(), con, p.getId());
+                con.releaseSavepoint(sp);
+                ok.add(p);
+            } catch (SQLException e) {
+                con.rollback(sp);
+                p.setId(null);
+                p.getHistoriaClinica().setId(null);
+                fallidas.put(i, e.getMessage());
+            }
+        }
+        return ok;
+    }
+
     /**
      * Implementa la transacción de actualización para el Paciente y su Historia Clínica.
      * <p>
-     * Ambas actualizaciones se realizan dentro de la misma unidad de trabajo.
+     * Ambas actualizaciones se realizan dentro de la misma unidad de trabajo, con control de concurrencia
+     * optimista (versión) y sin bloqueos previos. Si se revierte, las versiones en memoria vuelven a las leídas.
+     * Si el servidor aborta la transacción por deadlock o espera de bloqueo agotada, se repite desde las versiones leídas.
      * </p>
      *
      * @param p El paciente con los datos actualizados.
+     * @throws ConflictoConcurrenciaException Si otro usuario modificó el paciente o su historia desde que se leyeron.
      * @throws SQLException Si ocurre un error transaccional.
      * @throws IllegalArgumentException Si el ID del paciente es nulo.
      */
@@ -100,26 +710,139 @@ public class PacienteServiceImpl implements PacienteService {
         if (p.getId() == null) throw new IllegalArgumentException("Id requerido.");
         validar(p);
 
-        Connection con = null;
+        int versionPaciente = p.getVersion();
+        int versionHistoria = p.getHistoriaClinica().getVersion();
         try {
-            con = DatabaseConnection.getConnection();
-            con.setAutoCommit(false); // 1. Inicia transacción
+            TransactionManager.inTransaction(con -> { // 1. Inicia transacción (y la confirma al terminar)
+                // Cada intento parte de las versiones leídas (un intento revertido pudo haberlas incrementado).
+                p.setVersion(versionPaciente);
+                p.getHistoriaClinica().setVersion(versionHistoria);
+
+                actualizar(p, con); // 2-3. Actualiza el Paciente y su Historia Clínica.
+                return null;
+            });
+        } catch (SQLException | RuntimeException ex) {
+            p.setVersion(versionPaciente);
+            p.getHistoriaClinica().setVersion(versionHistoria);
+            if (ex instanceof ConflictoConcurrenciaException) {
+                throw (ConflictoConcurrenciaException) ex;
+            }
+            throw new SQLException("Error transaccional al actualizar: " + ex.getMessage(), ex);
+        }
+
+        confirmado(List.of(p), List.of());
+    }
+
+    /**
+     * Actualiza un paciente y su Historia Clínica dentro de una transacción activa (usado también por {@link Sesion}).
+     * No descarta los cambios registrados: lo hace {@link #confirmado(List, List)} tras el commit.
+     *
+     * @param p El paciente con los datos actualizados.
+     * @param con La conexión JDBC de la transacción activa.
+     * @throws ConflictoConcurrenciaException Si otro usuario modificó el paciente o su historia desde que se leyeron.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @throws IllegalArgumentException Si el paciente es inválido o su ID es nulo.
+     */
+    void actualizar(Paciente p, Connection con) throws SQLException {
+        if (p.getId() == null) throw new IllegalArgumentException("Id requerido.");
+        validar(p);
 
-            pacienteDao.update(p, con); // 2. Actualiza el Paciente.
+        pacienteDao.update(p, con); // Actualiza el Paciente.
 
-            hcService.actualizar(p.getHistoriaClinica(), con); // 3. Actualiza la Historia Clínica (usa la conexión transaccional).
+        hcService.actualizar(p.getHistoriaClinica(), con); // Actualiza la Historia Clínica (usa la conexión transaccional).
+    }
+
+    /**
+     * Realiza la baja lógica de un paciente y su Historia Clínica dentro de una transacción activa.
+     *
+     * @param id El ID del paciente.
+     * @param con La conexión JDBC de la transacción activa.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    void eliminar(long id, Connection con) throws SQLException {
+        pacienteDao.deleteConHistoria(id, con); // Baja lógica del Paciente y su Historia Clínica en una sentencia.
+    }
 
-            con.commit(); // 4. Confirma
+    /**
+     * Lee un paciente completo con una conexión existente, sin pasar por la caché (usado por {@link Sesion}).
+     *
+     * @param id El ID del paciente.
+     * @param con La conexión a utilizar.
+     * @return El paciente, o vacío si no existe o está eliminado.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    Optional<Paciente> leer(long id, Connection con) throws SQLException {
+        return pacienteDao.read(id, con);
+    }
 
-        } catch (Exception ex) {
-            if (con != null) {
-                con.rollback(); // 5. Revierte
+    /**
+     * Refleja en memoria una transacción ya confirmada: descarta los cambios registrados de los pacientes
+     * actualizados (un rollback los conserva para reintentar) y actualiza el índice de autocompletado, el
+     * filtro de DNIs y la caché de lectura.
+     *
+     * @param actualizados Los pacientes actualizados.
+     * @param eliminados Los IDs de los pacientes dados de baja.
+     */
+    void confirmado(List<Paciente> actualizados, List<Long> eliminados) {
+        List<Long> afectados = new ArrayList<>(actualizados.size() + eliminados.size());
+        for (Paciente p : actualizados) {
+            p.limpiarModificaciones();
+            if (p.getHistoriaClinica() != null) {
+                p.getHistoriaClinica().limpiarModificaciones();
             }
-            throw new SQLException("Error transaccional al actualizar: " + ex.getMessage(), ex);
-        } finally {
-            if (con != null) {
-                try { con.setAutoCommit(true); } catch (Exception ignore) {}
-                try { con.close(); } catch (Exception ignore) {}
+            afectados.add(p.getId());
+        }
+        indexar(actualizados);
+        for (Long id : eliminados) {
+            INDICE.quitar(id);
+            afectados.add(id);
+        }
+        invalidarCache(afectados);
+    }
+
+    /**
+     * Abre una unidad de trabajo para una acción del usuario. La sesión no retiene conexiones: toma una del pool
+     * por cada lectura y otra para la transacción de {@link Sesion#confirmar()}.
+     *
+     * @return Una sesión nueva, que debe cerrarse tras su uso.
+     */
+    @Override
+    public Sesion abrirSesion() {
+        return new Sesion(this);
+    }
+
+    /**
+     * Actualiza un paciente reintentando ante conflictos de concurrencia.
+     * <p>
+     * En cada intento lee el paciente vigente, le aplica {@code cambios} y lo actualiza; si otro usuario lo
+     * modificó en el medio ({@link ConflictoConcurrenciaException}), vuelve a leerlo y reaplica los cambios.
+     * Los cambios deben poder aplicarse más de una vez sobre datos nuevos (ej. asignar valores, no acumular).
+     * </p>
+     *
+     * @param id El ID del paciente.
+     * @param cambios Las modificaciones a aplicar sobre el paciente leído.
+     * @param maxIntentos Cantidad máxima de intentos (al menos 1).
+     * @return El paciente actualizado.
+     * @throws ConflictoConcurrenciaException Si el conflicto persiste tras el último intento.
+     * @throws SQLException Si ocurre un error transaccional.
+     * @throws IllegalArgumentException Si el paciente no existe o los parámetros son inválidos.
+     */
+    @Override
+    public Paciente actualizarConReintento(long id, Consumer<Paciente> cambios, int maxIntentos) throws SQLException {
+        if (cambios == null) throw new IllegalArgumentException("Los cambios no pueden ser nulos.");
+        if (maxIntentos < 1) throw new IllegalArgumentException("Se requiere al menos un intento.");
+
+        for (int intento = 1; ; intento++) {
+            Paciente p = pacienteDao.read(id)
+                    .orElseThrow(() -> new IllegalArgumentException("No existe un paciente activo con ID " + id));
+            cambios.accept(p);
+            try {
+                actualizar(p);
+                return p;
+            } catch (ConflictoConcurrenciaException ex) {
+                if (intento >= maxIntentos) {
+                    throw ex;
+                }
             }
         }
     }
@@ -128,6 +851,7 @@ public class PacienteServiceImpl implements PacienteService {
      * Implementa la transacción de eliminación lógica de un Paciente y su Historia Clínica.
      * <p>
      * Realiza la baja lógica de ambas entidades, asegurando la integridad referencial (atomicidad).
+     * La transacción se repite si el servidor la aborta por deadlock o espera de bloqueo agotada.
      * </p>
      *
      * @param id El ID del paciente a eliminar.
@@ -140,45 +864,119 @@ public class PacienteServiceImpl implements PacienteService {
             throw new IllegalArgumentException("El ID de Paciente es inválido.");
         }
 
-        Connection con = null;
         try {
-            con = DatabaseConnection.getConnection();
-            con.setAutoCommit(false); // 1. Inicia transacción
-
-            hcService.eliminarPorPacienteId(id, con); // 2. Baja lógica de la Historia Clínica (Service-llama-Service).
+            TransactionManager.inTransaction(con -> { // 1. Inicia transacción (y la confirma al terminar)
+                eliminar(id, con); // 2-3. Baja lógica de la Historia Clínica y del Paciente.
+                return null;
+            });
+        } catch (SQLException | RuntimeException ex) {
+            throw new SQLException("Error transaccional al eliminar: " + ex.getMessage(), ex);
+        }
 
-            pacienteDao.delete(id, con);  // 3. Baja lógica del Paciente.
+        confirmado(List.of(), List.of(id));
+    }
 
-            con.commit(); // 4. Confirma
+    /**
+     * Busca un paciente por su ID.
+     * <p>
+     * Consulta primero la caché de lectura; ante un fallo delega al DAO, el cual es responsable de cargar
+     * también la Historia Clínica (optimizada con LEFT JOIN), y guarda el resultado. Los pedidos concurrentes
+     * del mismo ID comparten una única consulta. Devuelve siempre una copia, para que las modificaciones del
+     * llamador no alteren la entrada cacheada.
+     * </p>
+     *
+     * @param id El ID del paciente.
+     * @return Un Optional que contiene el paciente completo o vacío.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    @Override
+    public Optional<Paciente> getById(long id) throws SQLException {
+        if (CACHE_POR_ID == null) {
+            return Optional.ofNullable(leerPorId(id));
+        }
+        Paciente p = CACHE_POR_ID.get(id);
+        if (p == null) {
+            p = leerPorId(id);
+        }
+        return Optional.ofNullable(p).map(Paciente::copiar);
+    }
 
-        } catch (Exception ex) {
-            if (con != null) {
-                con.rollback(); // 5. Revierte
+    /**
+     * Lee un paciente por ID de la base de datos, compartiendo la consulta con los pedidos concurrentes del
+     * mismo ID, y lo guarda en la caché. La generación se captura dentro de la consulta compartida, de modo
+     * que una invalidación ocurrida durante la lectura impide guardar un valor desactualizado.
+     *
+     * @param id El ID del paciente.
+     * @return El paciente (el de la caché si está habilitada), o null si no existe.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    private Paciente leerPorId(long id) throws SQLException {
+        return VUELOS_POR_ID.ejecutar(id, k -> {
+            long generacion = CACHE_POR_ID != null ? CACHE_POR_ID.generacion() : 0;
+            Paciente p = pacienteDao.read(k).orElse(null);
+            if (p != null && CACHE_POR_ID != null) {
+                CACHE_POR_ID.poner(k, p, generacion);
             }
-            throw new SQLException("Error transaccional al eliminar: " + ex.getMessage(), ex);
+            return p;
+        });
+    }
 
-        } finally {
-            if (con != null) {
-                try { con.setAutoCommit(true); } catch (Exception ignore) {}
-                try { con.close(); } catch (Exception ignore) {}
+    /**
+     * Lee un paciente por DNI de la base de datos, compartiendo la consulta con los pedidos concurrentes del
+     * mismo DNI, y lo guarda en ambas cachés.
+     *
+     * @param dni El DNI del paciente.
+     * @return El paciente (el de la caché si está habilitada), o null si no existe.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    private Paciente leerPorDni(String dni) throws SQLException {
+        return VUELOS_POR_DNI.ejecutar(dni, d -> {
+            if (CACHE_POR_ID == null) {
+                return pacienteDao.findByDni(d).orElse(null);
             }
+            long generacionId = CACHE_POR_ID.generacion();
+            long generacionDni = CACHE_DNI.generacion();
+            Paciente p = pacienteDao.findByDni(d).orElse(null);
+            if (p != null) {
+                CACHE_POR_ID.poner(p.getId(), p, generacionId);
+                CACHE_DNI.poner(d, p.getId(), generacionDni);
+            }
+            return p;
+        });
+    }
+
+    /**
+     * Obtiene los contadores de uso de las cachés de lectura de pacientes.
+     *
+     * @return Estadísticas por caché ("id" y "dni"); vacío si la caché está deshabilitada.
+     */
+    @Override
+    public Map<String, CacheLRU.Stats> getEstadisticasCache() {
+        if (CACHE_POR_ID == null) {
+            return Map.of();
         }
+        Map<String, CacheLRU.Stats> stats = new LinkedHashMap<>();
+        stats.put("id", CACHE_POR_ID.getStats());
+        stats.put("dni", CACHE_DNI.getStats());
+        return stats;
     }
 
     /**
-     * Busca un paciente por su ID.
+     * Busca varios pacientes por ID.
      * <p>
-     * La operación delega completamente al DAO, el cual es responsable de cargar
-     * también la Historia Clínica (optimizada con LEFT JOIN).
+     * La operación delega al DAO, que resuelve los IDs con listas IN acotadas y el mismo LEFT JOIN que {@link #getById(long)}.
      * </p>
      *
-     * @param id El ID del paciente.
-     * @return Un Optional que contiene el paciente completo o vacío.
+     * @param ids Los IDs de los pacientes.
+     * @return Mapa de ID a paciente completo.
      * @throws SQLException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si la colección de IDs es nula.
      */
     @Override
-    public Optional<Paciente> getById(long id) throws SQLException {
-        return pacienteDao.read(id);
+    public Map<Long, Paciente> getByIds(Collection<Long> ids) throws SQLException {
+        if (ids == null) throw new IllegalArgumentException("La colección de IDs no puede ser nula.");
+        if (ids.isEmpty()) return Map.of();
+        return pacienteDao.readByIds(ids);
     }
 
     /**
@@ -195,10 +993,69 @@ public class PacienteServiceImpl implements PacienteService {
         return pacienteDao.readAll();
     }
 
+    /**
+     * Recupera una página de pacientes activos.
+     * <p>
+     * La operación delega al DAO, que pagina por clave (ID) y carga la Historia Clínica con LEFT JOIN.
+     * </p>
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de pacientes por página.
+     * @return La página de pacientes.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    @Override
+    public Pagina<Paciente> getPage(Long afterId, int limit) throws SQLException {
+        if (limit <= 0) throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0.");
+        return pacienteDao.readPage(afterId, limit);
+    }
+
+    /**
+     * Recupera una página de resúmenes de pacientes, delegando al DAO.
+     *
+     * @param afterId El cursor de la página anterior, o null para la primera página.
+     * @param limit La cantidad máxima de resúmenes por página.
+     * @return La página de resúmenes.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    @Override
+    public Pagina<PacienteResumen> getResumenPage(Long afterId, int limit) throws SQLException {
+        if (limit <= 0) throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0.");
+        return pacienteDao.readResumenPage(afterId, limit);
+    }
+
+    /**
+     * Recorre los resúmenes de todos los pacientes activos como stream, delegando al DAO.
+     *
+     * @return Un stream de resúmenes que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    @Override
+    public Stream<PacienteResumen> streamResumen() throws SQLException {
+        return pacienteDao.streamResumen();
+    }
+
+    /**
+     * Recorre todos los pacientes activos como stream, delegando al DAO.
+     *
+     * @return Un stream de pacientes completos que debe cerrarse tras su uso.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     */
+    @Override
+    public Stream<Paciente> streamAll() throws SQLException {
+        return pacienteDao.streamAll();
+    }
+
     /**
      * Busca un paciente por su DNI.
      * <p>
-     * La operación delega al DAO, el cual usa LEFT JOIN para cargar los datos completos de forma eficiente.
+     * Si el filtro de DNIs indica que el DNI no existe y no está vencido ({@code db.bloom.maxEdadMs}), responde
+     * vacío sin consultar la base de datos: un alta hecha por otra aplicación puede no verse durante esa ventana.
+     * Si no, resuelve el DNI con la caché de DNI a ID y la caché por ID; ante un fallo delega al DAO, el cual
+     * usa LEFT JOIN para cargar los datos completos de forma eficiente, y guarda el resultado en ambas cachés.
+     * Los pedidos concurrentes del mismo DNI comparten una única consulta. Devuelve siempre una copia.
      * </p>
      *
      * @param dni El DNI a buscar.
@@ -207,6 +1064,46 @@ public class PacienteServiceImpl implements PacienteService {
      */
     @Override
     public Optional<Paciente> findByDni(String dni) throws SQLException {
-        return pacienteDao.findByDni(dni);
+        FiltroBloom filtro = filtroDni;
+        if (dni != null && filtro != null && filtro.getEdadMs() <= EDAD_MAXIMA_FILTRO_MS
+                && !filtro.podriaContener(IndicePrefijos.normalizar(dni))) {
+            return Optional.empty();
+        }
+        if (dni == null) {
+            return pacienteDao.findByDni(dni);
+        }
+        if (CACHE_POR_ID == null) {
+            return Optional.ofNullable(leerPorDni(dni));
+        }
+        Long id = CACHE_DNI.get(dni);
+        if (id != null) {
+            Paciente p = CACHE_POR_ID.get(id);
+            if (p == null) {
+                p = leerPorId(id);
+            }
+            if (p != null && dni.equals(p.getDni())) {
+                return Optional.of(p.copiar());
+            }
+            CACHE_DNI.invalidar(dni); // El DNI cambió o el paciente fue eliminado.
+        }
+        return Optional.ofNullable(leerPorDni(dni)).map(Paciente::copiar);
+    }
+
+    /**
+     * Busca un lote de pacientes por DNI.
+     * <p>
+     * La operación delega al DAO, que resuelve los DNIs con listas IN acotadas sobre el índice único,
+     * en lugar de una consulta por DNI.
+     * </p>
+     *
+     * @param dnis Los DNIs a buscar.
+     * @return Los pacientes encontrados y los DNIs faltantes.
+     * @throws SQLException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si la colección de DNIs es nula.
+     */
+    @Override
+    public ResultadoDnis findByDnis(Collection<String> dnis) throws SQLException {
+        if (dnis == null) throw new IllegalArgumentException("La colección de DNIs no puede ser nula.");
+        return pacienteDao.findByDnis(dnis);
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package service;
+
+import config.DatabaseConnection;
+import config.TransactionManager;
+import exceptions.ConflictoConcurrenciaException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import models.HistoriaClinica;
+import models.Paciente;
+
+/**
+ * Unidad de trabajo para una acción del usuario (ej. leer, editar y guardar un paciente).
+ * <p>
+ * No retiene conexiones: cada lectura toma una conexión del pool y la devuelve al terminar, y {@link #confirmar()}
+ * toma otra para su transacción. Así la sesión puede seguir abierta mientras el usuario edita (ej. entre preguntas
+ * por consola) sin ocupar una conexión del pool. Mantiene un mapa de identidad: leer dos veces el mismo paciente devuelve la misma instancia sin volver a
+ * consultar, y su Historia Clínica queda registrada por su propio ID. Las lecturas se hacen en modo
+ * auto-commit (no se mantiene una transacción abierta mientras el usuario edita); los cambios se acumulan
+ * en las entidades (ver {@link models.Base#getCamposModificados()}) y {@link #confirmar()} los escribe todos en una
+ * sola transacción, emitiendo solo las columnas modificadas y ninguna sentencia para las entidades sin cambios.
+ * </p>
+ * <p>
+ * No es segura entre hilos: pertenece a la acción que la abrió.
+ * </p>
+ * <pre>
+ * try (Sesion s = pacienteService.abrirSesion()) {
+ *     Paciente p = s.getPaciente(id).orElseThrow();
+ *     p.setNombre("Ana");
+ *     s.confirmar();
+ * }
+ * </pre>
+ */
+public final class Sesion implements AutoCloseable {
+
+    private final PacienteServiceImpl servicio;
+    private final Map<Long, Paciente> pacientes = new LinkedHashMap<>();
+    private final Map<Long, HistoriaClinica> historias = new HashMap<>();
+    private final Set<Long> eliminados = new LinkedHashSet<>();
+    private boolean cerrada;
+
+    /**
+     * Crea una sesión vacía. No toma ninguna conexión hasta la primera lectura.
+     *
+     * @param servicio El servicio de pacientes que ejecuta las lecturas y escrituras.
+     */
+    Sesion(PacienteServiceImpl servicio) {
+        this.servicio = servicio;
+    }
+
+    /**
+     * Obtiene un paciente por ID, leyéndolo solo la primera vez.
+     *
+     * @param id El ID del paciente.
+     * @return La instancia de la sesión, o vacío si no existe, está eliminado o se marcó para eliminar.
+     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     */
+    public Optional<Paciente> getPaciente(long id) throws SQLException {
+        if (eliminados.contains(id)) {
+            return Optional.empty();
+        }
+        Paciente p = pacientes.get(id);
+        if (p != null) {
+            return Optional.of(p);
+        }
+        Optional<Paciente> leido;
+        try (Connection c = conexion()) {
+            leido = servicio.leer(id, c);
+        }
+        leido.ifPresent(this::registrar);
+        return leido;
+    }
+
+    /**
+     * Obtiene una Historia Clínica ya cargada en la sesión (a través de su paciente).
+     *
+     * @param id El ID de la Historia Clínica.
+     * @return La instancia de la sesión, o vacío si su paciente no fue leído en esta sesión.
+     */
+    public Optional<HistoriaClinica> getHistoriaClinica(long id) {
+        return Optional.ofNullable(historias.get(id));
+    }
+
+    /**
+     * Incorpora a la sesión un paciente obtenido por fuera de ella, para que {@link #confirmar()} escriba
+     * sus cambios. Si la sesión ya tiene una instancia con ese ID, debe ser la misma.
+     *
+     * @param p El paciente (con ID).
+     * @throws IllegalArgumentException Si el paciente no tiene ID o la sesión ya tiene otra instancia con ese ID.
+     */
+    public void adjuntar(Paciente p) {
+        if (p == null || p.getId() == null) throw new IllegalArgumentException("Se requiere un paciente con ID.");
+        Paciente existente = pacientes.get(p.getId());
+        if (existente != null && existente != p) {
+            throw new IllegalArgumentException("La sesión ya tiene otra instancia del paciente ID " + p.getId());
+        }
+        registrar(p);
+    }
+
+    /**
+     * Marca un paciente (y su Historia Clínica) para baja lógica al confirmar.
+     *
+     * @param id El ID del paciente.
+     * @throws IllegalArgumentException Si el ID es inválido.
+     */
+    public void eliminar(long id) {
+        if (id <= 0) throw new IllegalArgumentException("El ID de Paciente es inválido.");
+        eliminados.add(id);
+    }
+
+    /**
+     * Escribe en una sola transacción los cambios de todos los pacientes e historias de la sesión y las bajas
+     * pendientes, con una conexión del pool que se devuelve al terminar. La transacción se repite si el servidor
+     * la aborta por deadlock o espera de bloqueo agotada. Si falla, se revierte completa, las versiones en memoria
+     * vuelven a las leídas y los cambios se conservan para reintentar.
+     *
+     * @throws ConflictoConcurrenciaException Si otro usuario modificó alguna entidad desde que se leyó.
+     * @throws SQLException Si ocurre un error transaccional.
+     * @throws IllegalArgumentException Si algún paciente modificado es inválido.
+     */
+    public void confirmar() throws SQLException {
+        List<Paciente> modificados = new ArrayList<>();
+        for (Paciente p : pacientes.values()) {
+            if (!eliminados.contains(p.getId()) && tieneCambios(p)) {
+                modificados.add(p);
+            }
+        }
+        if (modificados.isEmpty() && eliminados.isEmpty()) {
+            return;
+        }
+
+        Map<Paciente, int[]> versiones = new HashMap<>();
+        for (Paciente p : modificados) {
+            HistoriaClinica h = p.getHistoriaClinica();
+            versiones.put(p, new int[]{p.getVersion(), h != null ? h.getVersion() : 0});
+        }
+
+        if (cerrada) {
+            throw new SQLException("La sesión está cerrada");
+        }
+        try {
+            TransactionManager.inTransaction(c -> { // 1. Inicia transacción (y la confirma al terminar)
+                restaurarVersiones(versiones); // Un intento revertido pudo haberlas incrementado.
+
+                for (Paciente p : modificados) {
+                    servicio.actualizar(p, c); // 2. Actualiza solo las columnas modificadas.
+                }
+                for (Long id : eliminados) {
+                    servicio.eliminar(id, c); // 3. Bajas lógicas pendientes.
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException ex) {
+            restaurarVersiones(versiones);
+            if (ex instanceof ConflictoConcurrenciaException) {
+                throw (ConflictoConcurrenciaException) ex;
+            }
+            if (ex instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) ex;
+            }
+            throw new SQLException("Error transaccional al confirmar la sesión: " + ex.getMessage(), ex);
+        }
+
+        List<Long> bajas = new ArrayList<>(eliminados);
+        for (Long id : bajas) {
+            Paciente p = pacientes.remove(id);
+            if (p != null && p.getHistoriaClinica() != null && p.getHistoriaClinica().getId() != null) {
+                historias.remove(p.getHistoriaClinica().getId());
+            }
+        }
+        eliminados.clear();
+        servicio.confirmado(modificados, bajas);
+    }
+
+    /**
+     * Cierra la sesión. Los cambios no confirmados se descartan.
+     */
+    @Override
+    public void close() {
+        cerrada = true;
+    }
+
+    /**
+     * Toma una conexión del pool para una única lectura; quien la pide debe cerrarla al terminar.
+     */
+    private Connection conexion() throws SQLException {
+        if (cerrada) {
+            throw new SQLException("La sesión está cerrada");
+        }
+        return DatabaseConnection.getConnection();
+    }
+
+    private static void restaurarVersiones(Map<Paciente, int[]> versiones) {
+        for (Map.Entry<Paciente, int[]> e : versiones.entrySet()) {
+            e.getKey().setVersion(e.getValue()[0]);
+            if (e.getKey().getHistoriaClinica() != null) {
+                e.getKey().getHistoriaClinica().setVersion(e.getValue()[1]);
+            }
+        }
+    }
+
+    private void registrar(Paciente p) {
+        pacientes.put(p.getId(), p);
+        HistoriaClinica h = p.getHistoriaClinica();
+        if (h != null && h.getId() != null) {
+            historias.put(h.getId(), h);
+        }
+    }
+
+    /**
+     * Un paciente requiere escritura si él o su Historia Clínica tienen cambios, o si no lleva seguimiento de
+     * cambios (adjuntado a mano), en cuyo caso se escriben todas sus columnas.
+     */
+    private static boolean tieneCambios(Paciente p) {
+        if (!p.isRastreandoCambios() || !p.getCamposModificados().isEmpty()) {
+            return true;
+        }
+        HistoriaClinica h = p.getHistoriaClinica();
+        return h != null && (!h.isRastreandoCambios() || !h.getCamposModificados().isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package service;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa lecturas concurrentes de la misma clave en una única consulta ("single flight").
+ * <p>
+ * El primer hilo que pide una clave ejecuta la carga; los que la piden mientras está en curso esperan
+ * su resultado (o su excepción) en lugar de lanzar su propia consulta. Sin concurrencia el costo es un
+ * {@code putIfAbsent} y un {@code remove} sobre un {@link ConcurrentHashMap}.
+ * </p>
+ * <p>
+ * Como el valor cargado es mutable, nunca se entrega la misma instancia a dos hilos: los que esperaron
+ * reciben una copia, y el que cargó devuelve el original solo si nadie se sumó a su consulta.
+ * </p>
+ *
+ * @param <K> El tipo de la clave.
+ * @param <V> El tipo del valor cargado.
+ */
+final class VueloUnico<K, V> {
+
+    private final ConcurrentHashMap<K, Vuelo<V>> enCurso = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copiar;
+
+    /**
+     * @param copiar Función que copia un valor cargado, para entregarlo a más de un hilo.
+     */
+    VueloUnico(UnaryOperator<V> copiar) {
+        this.copiar = copiar;
+    }
+
+    /**
+     * Devuelve el valor de la clave, compartiendo la carga con otros hilos que la pidan al mismo tiempo.
+     *
+     * @param clave La clave a cargar.
+     * @param cargador La consulta a la base de datos (se ejecuta a lo sumo una vez por grupo de pedidos).
+     * @return El valor cargado (o una copia), o null si no existe.
+     * @throws SQLException Si la carga falla, ya sea en este hilo o en el que la ejecutó.
+     */
+    V ejecutar(K clave, CacheLRU.Cargador<K, V> cargador) throws SQLException {
+        while (true) {
+            Vuelo<V> nuevo = new Vuelo<>();
+            Vuelo<V> existente = enCurso.putIfAbsent(clave, nuevo);
+            if (existente == null) {
+                return cargar(clave, cargador, nuevo);
+            }
+            if (existente.sumarSeguidor()) {
+                V v = esperar(existente);
+                return v != null ? copiar.apply(v) : null;
+            }
+            // El vuelo terminó entre el putIfAbsent y la suscripción: se reintenta.
+            Thread.onSpinWait();
+        }
+    }
+
+    private V cargar(K clave, CacheLRU.Cargador<K, V> cargador, Vuelo<V> vuelo) throws SQLException {
+        V v;
+        try {
+            v = cargador.cargar(clave);
+        } catch (SQLException | RuntimeException e) {
+            enCurso.remove(clave, vuelo);
+            vuelo.cerrar();
+            vuelo.resultado.completeExceptionally(e);
+            throw e;
+        }
+        enCurso.remove(clave, vuelo);
+        boolean compartido = vuelo.cerrar();
+        vuelo.resultado.complete(v);
+        return (compartido && v != null) ? copiar.apply(v) : v;
+    }
+
+    private V esperar(Vuelo<V> vuelo) throws SQLException {
+        try {
+            return vuelo.resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una consulta en curso", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof SQLException) {
+                SQLException s = (SQLException) causa;
+                throw new SQLException(s.getMessage(), s.getSQLState(), s.getErrorCode(), s);
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new SQLException("Error en la consulta compartida", causa);
+        }
+    }
+
+    /**
+     * Una carga en curso: su resultado y la cantidad de hilos que lo esperan (-1 una vez cerrada).
+     */
+    private static final class Vuelo<V> {
+        private final CompletableFuture<V> resultado = new CompletableFuture<>();
+        private final AtomicInteger seguidores = new AtomicInteger();
+
+        /**
+         * @return false si el vuelo ya se cerró y no admite más seguidores.
+         */
+        boolean sumarSeguidor() {
+            int n;
+            do {
+                n = seguidores.get();
+                if (n < 0) {
+                    return false;
+                }
+            } while (!seguidores.compareAndSet(n, n + 1));
+            return true;
+        }
+
+        /**
+         * Cierra el vuelo a nuevos seguidores.
+         *
+         * @return true si algún hilo se sumó a la carga.
+         */
+        boolean cerrar() {
+            return seguidores.getAndSet(-1) > 0;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import models.HistoriaClinica;
+import models.Paciente;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica con EXPLAIN el plan de cada sentencia que emiten los DAOs: falla si alguna recorre una tabla completa
+ * ({@code type=ALL}) u ordena en memoria ({@code Using filesort}).
+ * <p>
+ * Las sentencias no se copian a mano: se ejecutan los métodos reales de los DAOs sobre una conexión que registra
+ * cada SQL con sus parámetros, y luego se pide el plan de cada una con los mismos valores. Todo ocurre en una
+ * transacción que se revierte al terminar, junto con los datos de prueba que se insertan para que el optimizador
+ * no prefiera recorrer tablas casi vacías.
+ * </p>
+ * <p>
+ * Requiere un MySQL local con la base de {@code db.properties} y las migraciones de {@code app/sql} aplicadas
+ * (01 a 07). Si no hay servidor disponible, los tests se omiten.
+ * </p>
+ */
+class ExplainDaoTest {
+
+    /** Pacientes de prueba: suficientes para que los índices sean más baratos que un recorrido completo. */
+    private static final int FILAS = 1000;
+
+    private static Connection fisica;
+
+    private final Map<String, List<Object>> sentencias = new LinkedHashMap<>();
+    private Connection con;
+    private String prefijo;
+    private List<Paciente> pacientes;
+
+    @BeforeAll
+    static void conectar() throws IOException {
+        Properties p = new Properties();
+        try (InputStream in = ExplainDaoTest.class.getClassLoader().getResourceAsStream("db.properties")) {
+            assumeTrue(in != null, "No se encontró db.properties en el classpath.");
+            p.load(in);
+        }
+        Properties props = new Properties();
+        props.setProperty("user", p.getProperty("db.user", ""));
+        props.setProperty("password", p.getProperty("db.password", ""));
+        props.setProperty("connectTimeout", "2000");
+        try {
+            fisica = DriverManager.getConnection(p.getProperty("db.url"), props);
+        } catch (SQLException e) {
+            assumeTrue(false, "Sin MySQL local, se omite la verificación de planes: " + e.getMessage());
+        }
+    }
+
+    @AfterAll
+    static void desconectar() throws SQLException {
+        if (fisica != null) {
+            fisica.close();
+        }
+    }
+
+    @BeforeEach
+    void sembrar() throws SQLException {
+        fisica.setAutoCommit(false);
+        con = registrando(fisica);
+        prefijo = "E" + Long.toString(Math.floorMod(System.nanoTime(), 1_000_000L), 36);
+
+        pacientes = new ArrayList<>(FILAS);
+        List<HistoriaClinica> historias = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            Paciente p = new Paciente();
+            p.setNombre("Nombre" + i);
+            p.setApellido("Apellido" + (i % 50));
+            p.setDni(prefijo + i);
+            p.setFechaNacimiento(LocalDate.of(1980, 1, 1).plusDays(i));
+            HistoriaClinica h = new HistoriaClinica();
+            h.setNroHistoria("HC-" + prefijo + "-" + i);
+            h.setGrupoSanguineo(HistoriaClinica.GrupoSanguineo.values()[i % HistoriaClinica.GrupoSanguineo.values().length]);
+            h.setTextos("Antecedentes " + i, "Medicación " + i, "Observaciones de control " + i);
+            h.setFechaApertura(LocalDate.of(2020, 1, 1));
+            p.setHistoriaClinica(h);
+            pacientes.add(p);
+            historias.add(h);
+        }
+        new PacienteDaoImpl().createAll(pacientes, fisica);
+        List<Long> ids = new ArrayList<>(FILAS);
+        for (Paciente p : pacientes) {
+            ids.add(p.getId());
+        }
+        new HistoriaClinicaDaoImpl().createAll(historias, fisica, ids);
+    }
+
+    @AfterEach
+    void revertir() throws SQLException {
+        fisica.rollback();
+        fisica.setAutoCommit(true);
+    }
+
+    @Test
+    void planesDePacienteDao() throws SQLException {
+        PacienteDaoImpl dao = new PacienteDaoImpl();
+        long id = pacientes.get(FILAS / 2).getId();
+        List<Long> ids = List.of(pacientes.get(1).getId(), pacientes.get(2).getId(), pacientes.get(3).getId());
+
+        dao.read(id, con);
+        dao.readByIds(ids, con);
+        dao.readAll(con);
+        dao.readPage(null, 20, con);
+        dao.readPage(id, 20, con);
+        dao.readResumenPage(null, 20, con);
+        dao.readResumenPage(id, 20, con);
+        try (Stream<?> s = dao.streamAll(con)) {
+            s.count();
+        }
+        try (Stream<?> s = dao.streamResumen(con)) {
+            s.count();
+        }
+        try (Stream<?> s = dao.streamDnis(con)) {
+            s.count();
+        }
+        dao.findByDni(prefijo + 7, con);
+        dao.findByDnis(List.of(prefijo + 8, prefijo + 9, "no-existe"), con);
+
+        Paciente p = dao.read(id, con).orElseThrow();
+        p.setNombre("Modificado");
+        dao.update(p, con);
+
+        Paciente nuevo = new Paciente();
+        nuevo.setNombre("Nuevo");
+        nuevo.setApellido("Upsert");
+        nuevo.setDni(prefijo + "N");
+        Paciente existente = dao.read(pacientes.get(10).getId(), con).orElseThrow();
+        existente.setNombre("Upsert");
+        dao.upsertPorDni(List.of(nuevo, existente), con);
+
+        dao.deleteConHistoria(pacientes.get(11).getId(), con);
+        dao.delete(pacientes.get(12).getId(), con);
+
+        verificarPlanes();
+    }
+
+    @Test
+    void planesDeHistoriaClinicaDao() throws SQLException {
+        HistoriaClinicaDaoImpl dao = new HistoriaClinicaDaoImpl();
+        long id = pacientes.get(FILAS / 2).getHistoriaClinica().getId();
+        List<Long> ids = List.of(pacientes.get(1).getHistoriaClinica().getId(), pacientes.get(2).getHistoriaClinica().getId());
+
+        HistoriaClinica h = dao.read(id, con).orElseThrow();
+        dao.cargarTextos(h, con);
+        dao.cargarTextos(new ArrayList<>(dao.readByIds(ids, con).values()), con);
+        dao.readAll(con);
+        dao.readPage(null, 20, con);
+        dao.readPage(id, 20, con);
+        try (Stream<?> s = dao.streamAll(con)) {
+            s.count();
+        }
+        dao.buscarPorTexto("control", null, 20, con);
+
+        h.setObservaciones("Modificada");
+        dao.update(h, con);
+
+        HistoriaClinica otra = dao.read(pacientes.get(20).getHistoriaClinica().getId(), con).orElseThrow();
+        otra.setGrupoSanguineo(HistoriaClinica.GrupoSanguineo.values()[0]);
+        dao.upsertAll(List.of(otra), con, List.of(pacientes.get(20).getId()));
+
+        dao.delete(pacientes.get(21).getHistoriaClinica().getId(), con);
+        dao.deleteByPacienteId(pacientes.get(22).getId(), con);
+
+        verificarPlanes();
+    }
+
+    /**
+     * Pide el plan de cada SELECT, UPDATE o DELETE registrado y falla con la lista de todas las regresiones.
+     */
+    private void verificarPlanes() throws SQLException {
+        assertFalse(sentencias.isEmpty(), "No se registró ninguna sentencia.");
+        List<String> problemas = new ArrayList<>();
+        int explicadas = 0;
+        for (Map.Entry<String, List<Object>> e : sentencias.entrySet()) {
+            String sql = e.getKey();
+            String verbo = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+            if (!verbo.equals("SELECT") && !verbo.equals("UPDATE") && !verbo.equals("DELETE")) {
+                continue; // INSERT y CALL no tienen un plan de lectura que verificar.
+            }
+            explicadas++;
+            try (PreparedStatement ps = fisica.prepareStatement("EXPLAIN " + sql)) {
+                List<Object> params = e.getValue();
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String tabla = rs.getString("table");
+                        String tipo = rs.getString("type");
+                        String extra = rs.getString("Extra");
+                        if ("ALL".equals(tipo)) {
+                            problemas.add("type=ALL en " + tabla + ": " + sql);
+                        }
+                        if (extra != null && extra.contains("Using filesort") && !ordenaPorRelevancia(sql)) {
+                            problemas.add("Using filesort en " + tabla + ": " + sql);
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(explicadas > 0, "No se registró ninguna consulta para explicar.");
+        if (!problemas.isEmpty()) {
+            fail(problemas.size() + " sentencia(s) con un plan sin índice:\n" + String.join("\n", problemas));
+        }
+    }
+
+    /**
+     * La búsqueda de texto completo ordena por la relevancia que calcula MATCH, que ningún índice provee:
+     * su ordenamiento en memoria es esperado (y está acotado por el LIMIT).
+     */
+    private static boolean ordenaPorRelevancia(String sql) {
+        return sql.contains("MATCH(") && sql.contains("ORDER BY relevancia");
+    }
+
+    /**
+     * Envuelve la conexión para registrar cada SQL preparado y los parámetros de su primera ejecución.
+     */
+    private Connection registrando(Connection c) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object r = invocar(c, method, args);
+                    if (method.getName().equals("prepareStatement")) {
+                        return registrando((PreparedStatement) r, (String) args[0]);
+                    }
+                    return r;
+                });
+    }
+
+    private PreparedStatement registrando(PreparedStatement ps, String sql) {
+        Map<Integer, Object> params = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String nombre = method.getName();
+                    if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        params.put((Integer) args[0], nombre.equals("setNull") ? null : args[1]);
+                    } else if (nombre.startsWith("execute") || nombre.equals("addBatch")) {
+                        sentencias.putIfAbsent(sql, new ArrayList<>(params.values()));
+                    }
+                    return invocar(ps, method, args);
+                });
+    }
+
+    private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class SqlUtilsTest {
+
+    @Test
+    void lasListasInSeRellenanHastaTamaniosFijos() {
+        assertEquals(1, marcadores(1));
+        assertEquals(10, marcadores(2));
+        assertEquals(10, marcadores(10));
+        assertEquals(50, marcadores(11));
+        assertEquals(100, marcadores(51));
+        assertEquals(SqlUtils.MAX_IN, marcadores(101));
+        assertEquals(SqlUtils.MAX_IN, marcadores(SqlUtils.MAX_IN));
+        assertThrows(IllegalArgumentException.class, () -> SqlUtils.placeholders(SqlUtils.MAX_IN + 1));
+    }
+
+    @Test
+    void elRellenoRepiteElUltimoValor() throws SQLException {
+        Map<Integer, Object> asignados = new TreeMap<>();
+        SqlUtils.bindIn(registrando(asignados), List.of(7L, 8L, 9L));
+
+        assertEquals(10, asignados.size());
+        assertEquals(7L, asignados.get(1));
+        assertEquals(8L, asignados.get(2));
+        for (int i = 3; i <= 10; i++) {
+            assertEquals(9L, asignados.get(i));
+        }
+    }
+
+    @Test
+    void asignaCadenasComoTexto() throws SQLException {
+        Map<Integer, Object> asignados = new TreeMap<>();
+        SqlUtils.bindIn(registrando(asignados), List.of("123"));
+        assertEquals(Map.of(1, "123"), asignados);
+    }
+
+    @Test
+    void losBloquesNoSuperanElMaximoNiRepitenValores() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i < 1_200; i++) {
+            ids.add(i % 1_100);
+        }
+        List<List<Long>> bloques = SqlUtils.chunks(ids);
+        assertEquals(3, bloques.size());
+        assertEquals(SqlUtils.MAX_IN, bloques.get(0).size());
+        assertEquals(100, bloques.get(2).size());
+    }
+
+    @Test
+    void laClaveDeDniSigueLaIntercalacionDeLaColumna() {
+        assertEquals(SqlUtils.claveDni("123"), SqlUtils.claveDni("123  "));
+        assertEquals(SqlUtils.claveDni("ab12"), SqlUtils.claveDni("AB12"));
+        assertEquals(SqlUtils.claveDni("ñ1"), SqlUtils.claveDni("N1"));
+        assertNotEquals(SqlUtils.claveDni("123"), SqlUtils.claveDni(" 123"));
+    }
+
+    private static int marcadores(int n) {
+        return SqlUtils.placeholders(n).split(",").length;
+    }
+
+    private static PreparedStatement registrando(Map<Integer, Object> asignados) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set")) {
+                        asignados.put((Integer) args[0], args[1]);
+                    }
+                    return null;
+                });
+    }
+}
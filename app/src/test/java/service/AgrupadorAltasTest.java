@@ -0,0 +1,114 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static service.LotesPorVentanaTest.SIN_VENTANA;
+
+import exceptions.InsercionMasivaException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import models.Paciente;
+import org.junit.jupiter.api.Test;
+
+class AgrupadorAltasTest {
+
+    private final ServicioFalso servicio = new ServicioFalso();
+
+    @Test
+    void unaFilaRechazadaFallaSolaSinAfectarAlGrupo() throws Exception {
+        try (AgrupadorAltas agrupador = new AgrupadorAltas(servicio, SIN_VENTANA, 3)) {
+            CompletableFuture<Paciente> a = agrupador.insertar(paciente("1"));
+            CompletableFuture<Paciente> b = agrupador.insertar(paciente("MALO"));
+            CompletableFuture<Paciente> c = agrupador.insertar(paciente("3"));
+
+            assertEquals("1", a.get(10, TimeUnit.SECONDS).getDni());
+            assertEquals("3", c.get(10, TimeUnit.SECONDS).getDni());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> b.get(10, TimeUnit.SECONDS));
+            SQLException causa = assertInstanceOf(SQLException.class, e.getCause());
+            assertTrue(causa.getMessage().contains("DNI duplicado"), causa.getMessage());
+            assertInstanceOf(InsercionMasivaException.class, causa.getCause());
+        }
+        assertEquals(List.of(3), servicio.grupos);
+    }
+
+    @Test
+    void unFalloDelGrupoLlegaATodasLasAltas() throws Exception {
+        SQLException fallo = new SQLException("Sin conexión");
+        servicio.fallo = fallo;
+        try (AgrupadorAltas agrupador = new AgrupadorAltas(servicio, SIN_VENTANA, 2)) {
+            CompletableFuture<Paciente> a = agrupador.insertar(paciente("1"));
+            CompletableFuture<Paciente> b = agrupador.insertar(paciente("2"));
+
+            for (CompletableFuture<Paciente> f : List.of(a, b)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(10, TimeUnit.SECONDS));
+                assertSame(fallo, e.getCause());
+            }
+        }
+    }
+
+    @Test
+    void lasAltasSimultaneasSeEscribenEnUnSoloGrupo() throws Exception {
+        AgrupadorAltas agrupador = new AgrupadorAltas(servicio, SIN_VENTANA, 100);
+        List<CompletableFuture<Paciente>> altas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            altas.add(agrupador.insertar(paciente(Integer.toString(i))));
+        }
+        agrupador.close();
+
+        for (CompletableFuture<Paciente> f : altas) {
+            assertTrue(f.isDone() && !f.isCompletedExceptionally());
+        }
+        assertEquals(List.of(5), servicio.grupos);
+    }
+
+    @Test
+    void rechazaParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new AgrupadorAltas(null, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AgrupadorAltas(servicio, 1, 0));
+    }
+
+    private static Paciente paciente(String dni) {
+        Paciente p = new Paciente();
+        p.setDni(dni);
+        return p;
+    }
+
+    /**
+     * Servicio sin base de datos: registra el tamaño de cada grupo y rechaza las filas con DNI "MALO",
+     * como lo haría {@link PacienteServiceImpl#insertarTodos(List)} tras aislarlas fila por fila.
+     */
+    private static final class ServicioFalso extends PacienteServiceImpl {
+        private final List<Integer> grupos = new ArrayList<>();
+        private SQLException fallo;
+
+        @Override
+        public synchronized List<Paciente> insertarTodos(List<Paciente> pacientes) throws SQLException {
+            grupos.add(pacientes.size());
+            if (fallo != null) {
+                throw fallo;
+            }
+            Map<Integer, String> fallidas = new TreeMap<>();
+            List<Paciente> insertados = new ArrayList<>();
+            for (int i = 0; i < pacientes.size(); i++) {
+                if (pacientes.get(i).getDni().equals("MALO")) {
+                    fallidas.put(i, "DNI duplicado");
+                } else {
+                    insertados.add(pacientes.get(i));
+                }
+            }
+            if (!fallidas.isEmpty()) {
+                throw new InsercionMasivaException(fallidas, insertados);
+            }
+            return insertados;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CacheLRUTest {
+
+    @Test
+    void desalojaLaEntradaMenosUsadaRecientemente() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(2, 60_000);
+        cache.poner(1, "uno", cache.generacion());
+        cache.poner(2, "dos", cache.generacion());
+        cache.get(1); // 2 pasa a ser la menos usada.
+        cache.poner(3, "tres", cache.generacion());
+
+        assertEquals("uno", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("tres", cache.get(3));
+        assertEquals(2, cache.tamanio());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void unaCargaIniciadaAntesDeUnaInvalidacionNoSeAlmacena() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60_000);
+        long leida = cache.generacion();
+        cache.invalidar(1); // Otro hilo escribe mientras la lectura está en curso.
+        cache.poner(1, "anterior", leida);
+        assertNull(cache.get(1));
+
+        cache.poner(1, "actual", cache.generacion());
+        assertEquals("actual", cache.get(1));
+    }
+
+    @Test
+    void obtenerCargaUnaSolaVezYNoGuardaAusentes() throws SQLException {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60_000);
+        AtomicInteger cargas = new AtomicInteger();
+        CacheLRU.Cargador<Integer, String> cargador = k -> {
+            cargas.incrementAndGet();
+            return k == 0 ? null : "v" + k;
+        };
+
+        String primero = cache.obtener(1, cargador);
+        assertSame(primero, cache.obtener(1, cargador));
+        assertEquals(1, cargas.get());
+
+        assertNull(cache.obtener(0, cargador));
+        assertNull(cache.obtener(0, cargador));
+        assertEquals(3, cargas.get());
+        assertEquals(1, cache.getStats().getHits());
+    }
+
+    @Test
+    void laCargaFallidaPropagaLaExcepcion() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60_000);
+        assertThrows(SQLException.class, () -> cache.obtener(1, k -> {
+            throw new SQLException("caída");
+        }));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void lasEntradasVencen() throws InterruptedException {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 1);
+        cache.poner(1, "uno", cache.generacion());
+        Thread.sleep(5);
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(0, cache.tamanio());
+    }
+
+    @Test
+    void invalidarSiQuitaPorValorYCortaLasCargasEnCurso() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60_000);
+        cache.poner(1, "par", cache.generacion());
+        cache.poner(2, "impar", cache.generacion());
+        cache.poner(3, "par", cache.generacion());
+        long leida = cache.generacion();
+
+        assertEquals(2, cache.invalidarSi("par"::equals));
+        assertNull(cache.get(1));
+        assertEquals("impar", cache.get(2));
+
+        cache.poner(4, "par", leida);
+        assertNull(cache.get(4));
+    }
+
+    @Test
+    void invalidarTodoVaciaLaCache() {
+        CacheLRU<Integer, String> cache = new CacheLRU<>(10, 60_000);
+        cache.poner(1, "uno", cache.generacion());
+        cache.poner(2, "dos", cache.generacion());
+        cache.invalidarTodo();
+        assertEquals(0, cache.tamanio());
+    }
+}
@@ -0,0 +1,151 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static service.LotesPorVentanaTest.SIN_VENTANA;
+
+import dao.Pagina;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class CargadorPorLotesTest {
+
+    private final ServicioFalso servicio = new ServicioFalso();
+
+    @Test
+    void losPedidosDeUnLoteSeResuelvenConUnaSolaConsulta() throws Exception {
+        try (CargadorPorLotes<String> cargador = new CargadorPorLotes<>(servicio, SIN_VENTANA, 100)) {
+            CompletableFuture<Optional<String>> f1 = cargador.cargar(1);
+            CompletableFuture<Optional<String>> f2 = cargador.cargar(2);
+            CompletableFuture<Optional<String>> f3 = cargador.cargar(3);
+            cargador.despachar();
+
+            assertEquals(List.of(List.of(1L, 2L, 3L)), servicio.consultas);
+            assertEquals(Optional.of("E1"), f1.get());
+            assertEquals(Optional.of("E2"), f2.get());
+            assertEquals(Optional.of("E3"), f3.get());
+        }
+    }
+
+    @Test
+    void unIdInexistenteSeResuelveVacio() throws Exception {
+        try (CargadorPorLotes<String> cargador = new CargadorPorLotes<>(servicio, SIN_VENTANA, 100)) {
+            CompletableFuture<Optional<String>> f = cargador.cargar(-5);
+            cargador.despachar();
+            assertEquals(Optional.empty(), f.get());
+        }
+    }
+
+    @Test
+    void unMismoIdComparteElFuture() throws Exception {
+        try (CargadorPorLotes<String> cargador = new CargadorPorLotes<>(servicio, SIN_VENTANA, 100)) {
+            CompletableFuture<Optional<String>> f1 = cargador.cargar(7);
+            CompletableFuture<Optional<String>> f2 = cargador.cargar(7);
+            cargador.despachar();
+
+            assertSame(f1, f2);
+            assertEquals(List.of(List.of(7L)), servicio.consultas);
+        }
+    }
+
+    @Test
+    void unFalloDeLaConsultaLlegaATodosLosFuturesDelLote() throws Exception {
+        SQLException fallo = new SQLException("Sin conexión");
+        servicio.fallo = fallo;
+        try (CargadorPorLotes<String> cargador = new CargadorPorLotes<>(servicio, SIN_VENTANA, 100)) {
+            List<CompletableFuture<Optional<String>>> futuros = List.of(cargador.cargar(1), cargador.cargar(2));
+            cargador.despachar();
+
+            for (CompletableFuture<Optional<String>> f : futuros) {
+                ExecutionException e = assertThrows(ExecutionException.class, f::get);
+                assertSame(fallo, e.getCause());
+            }
+        }
+    }
+
+    @Test
+    void cerrarDespachaLoPendienteYRechazaPedidosPosteriores() throws Exception {
+        CargadorPorLotes<String> cargador = new CargadorPorLotes<>(servicio, SIN_VENTANA, 100);
+        CompletableFuture<Optional<String>> f = cargador.cargar(9);
+        cargador.close();
+
+        assertTrue(f.isDone());
+        assertEquals(Optional.of("E9"), f.get());
+        assertThrows(IllegalStateException.class, () -> cargador.cargar(10));
+        assertEquals(List.of(List.of(9L)), servicio.consultas);
+    }
+
+    @Test
+    void rechazaUnServicioNulo() {
+        assertThrows(IllegalArgumentException.class, () -> new CargadorPorLotes<String>(null));
+    }
+
+    /**
+     * Servicio en memoria: la entidad de cada ID positivo es "E" + ID, y registra cada consulta por lote.
+     */
+    private static final class ServicioFalso implements GenericService<String> {
+        private final List<List<Long>> consultas = new ArrayList<>();
+        private SQLException fallo;
+
+        @Override
+        public synchronized Map<Long, String> getByIds(Collection<Long> ids) throws SQLException {
+            consultas.add(new ArrayList<>(ids));
+            if (fallo != null) {
+                throw fallo;
+            }
+            Map<Long, String> r = new LinkedHashMap<>();
+            for (Long id : ids) {
+                if (id > 0) {
+                    r.put(id, "E" + id);
+                }
+            }
+            return r;
+        }
+
+        @Override
+        public String insertar(String t) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void actualizar(String t) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void eliminar(long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<String> getById(long id) {
+            throw new UnsupportedOperationException("Debe usarse getByIds.");
+        }
+
+        @Override
+        public List<String> getAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Pagina<String> getPage(Long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<String> streamAll() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
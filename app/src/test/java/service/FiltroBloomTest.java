@@ -0,0 +1,64 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+    @Test
+    void noTieneFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("DNI" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.podriaContener("DNI" + i), "Falso negativo para DNI" + i);
+        }
+        assertEquals(10_000, filtro.getAgregados());
+    }
+
+    @Test
+    void noTieneFalsosNegativosAunSuperandoLaCapacidad() {
+        FiltroBloom filtro = new FiltroBloom(100, 0.01);
+        for (int i = 0; i < 5_000; i++) {
+            filtro.agregar(Integer.toString(i * 7919));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filtro.podriaContener(Integer.toString(i * 7919)));
+        }
+    }
+
+    @Test
+    void laTasaDeFalsosPositivosSeAcercaALaPedida() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("DNI" + i);
+        }
+        int positivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podriaContener("OTRO" + i)) {
+                positivos++;
+            }
+        }
+        assertTrue(positivos < 3_000, "Demasiados falsos positivos: " + positivos);
+    }
+
+    @Test
+    void unFiltroVacioNoContieneNada() {
+        FiltroBloom filtro = new FiltroBloom(1_000, 0.01);
+        assertFalse(filtro.podriaContener("12345678"));
+        assertFalse(filtro.podriaContener(""));
+    }
+
+    @Test
+    void rechazaParametrosFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(100, Double.NaN));
+    }
+}
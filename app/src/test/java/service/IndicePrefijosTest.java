@@ -0,0 +1,90 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import models.PacienteResumen;
+import org.junit.jupiter.api.Test;
+
+class IndicePrefijosTest {
+
+    private final IndicePrefijos indice = new IndicePrefijos();
+
+    private static PacienteResumen resumen(long id, String apellido, String nombre, String dni) {
+        return new PacienteResumen(id, dni, nombre, apellido, null, null);
+    }
+
+    private static List<Long> ids(List<PacienteResumen> rs) {
+        List<Long> ids = new ArrayList<>();
+        for (PacienteResumen r : rs) {
+            ids.add(r.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void elRangoIncluyeSoloLosTerminosQueEmpiezanConElPrefijo() {
+        indice.agregar(resumen(1, "Gom", "Ana", "1"));
+        indice.agregar(resumen(2, "Gomez", "Luis", "2"));
+        indice.agregar(resumen(3, "Gon", "Eva", "3"));
+        indice.agregar(resumen(4, "Go", "Juan", "4"));
+        indice.agregar(resumen(5, "Gol", "Ines", "5"));
+
+        assertEquals(List.of(1L, 2L), ids(indice.buscar("gom", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("gomez", 10)));
+        assertEquals(List.of(), ids(indice.buscar("gomeza", 10)));
+        assertEquals(List.of(4L, 5L, 1L, 2L, 3L), ids(indice.buscar("go", 10)));
+    }
+
+    @Test
+    void losAcentosYMayusculasNoAfectanLaBusqueda() {
+        indice.agregar(resumen(1, "Gómez", "María", "30111222"));
+        indice.agregar(resumen(2, "Núñez", "José", "30111333"));
+
+        assertEquals(List.of(1L), ids(indice.buscar("GOMEZ", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("  gó", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("maria", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("nun", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("jose", 10)));
+        assertEquals("nunez", IndicePrefijos.normalizar(" Núñez "));
+    }
+
+    @Test
+    void buscaPorDniYNoRepitePacientes() {
+        indice.agregar(resumen(1, "Perez", "Perla", "30111222"));
+        indice.agregar(resumen(2, "Lopez", "Ana", "30999888"));
+
+        assertEquals(List.of(1L), ids(indice.buscar("per", 10)));
+        assertEquals(List.of(1L, 2L), ids(indice.buscar("30", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("309", 10)));
+    }
+
+    @Test
+    void respetaElLimiteYLosPrefijosVacios() {
+        for (long i = 1; i <= 5; i++) {
+            indice.agregar(resumen(i, "Sosa", "N" + i, "4000000" + i));
+        }
+        assertEquals(3, indice.buscar("sosa", 3).size());
+        assertTrue(indice.buscar("", 10).isEmpty());
+        assertTrue(indice.buscar("   ", 10).isEmpty());
+        assertTrue(indice.buscar(null, 10).isEmpty());
+        assertTrue(indice.buscar("sosa", 0).isEmpty());
+    }
+
+    @Test
+    void reemplazarYQuitarActualizanLasClaves() {
+        indice.agregar(resumen(1, "Diaz", "Ana", "1"));
+        indice.agregar(resumen(1, "Ruiz", "Ana", "1"));
+
+        assertTrue(indice.buscar("diaz", 10).isEmpty());
+        assertEquals(List.of(1L), ids(indice.buscar("ruiz", 10)));
+        assertEquals(1, indice.tamanio());
+
+        indice.quitar(1);
+        assertTrue(indice.buscar("ruiz", 10).isEmpty());
+        assertTrue(indice.buscar("ana", 10).isEmpty());
+        assertEquals(0, indice.tamanio());
+    }
+}
@@ -0,0 +1,98 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LotesPorVentanaTest {
+
+    /** Ventana larga: los lotes solo se despachan explícitamente, al llenarse o al cerrar. */
+    static final long SIN_VENTANA = 60_000;
+
+    private final List<List<Integer>> lotes = new ArrayList<>();
+
+    @Test
+    void unaClavePendienteDevuelveElMismoElemento() {
+        try (LotesPorVentana<Integer, List<String>> l = lotes(SIN_VENTANA, 10)) {
+            List<String> a = l.agregar(1, k -> new ArrayList<>());
+            assertSame(a, l.agregar(1, k -> new ArrayList<>()));
+            l.despachar();
+        }
+        assertEquals(List.of(List.of(1)), lotes);
+    }
+
+    @Test
+    void alLlenarseElLoteSeDespachaSinEsperarLaVentana() throws Exception {
+        CountDownLatch despachado = new CountDownLatch(1);
+        try (LotesPorVentana<Integer, String> l = new LotesPorVentana<>("prueba", "Cerrado.", SIN_VENTANA, 2,
+                lote -> {
+                    registrar(lote);
+                    despachado.countDown();
+                })) {
+            l.agregar(1, String::valueOf);
+            l.agregar(2, String::valueOf);
+            assertTrue(despachado.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of(1, 2)), lotes);
+    }
+
+    @Test
+    void laVentanaDespachaLoAcumulado() throws Exception {
+        CountDownLatch despachado = new CountDownLatch(1);
+        try (LotesPorVentana<Integer, String> l = new LotesPorVentana<>("prueba", "Cerrado.", 0, 100,
+                lote -> despachado.countDown())) {
+            l.agregar(1, String::valueOf);
+            assertTrue(despachado.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void unLoteMayorAlMaximoSeEntregaEnPartes() {
+        try (LotesPorVentana<Integer, String> l = lotes(SIN_VENTANA, 2)) {
+            synchronized (l) {
+                // Retiene al hilo despachador para que el lote supere el máximo antes de despacharse.
+                for (int i = 1; i <= 5; i++) {
+                    l.agregar(i, String::valueOf);
+                }
+                l.despachar();
+            }
+        }
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), lotes);
+    }
+
+    @Test
+    void cerrarDespachaSinEsperarLaVentanaYEsIdempotente() {
+        LotesPorVentana<Integer, String> l = lotes(SIN_VENTANA, 100);
+        l.agregar(1, String::valueOf);
+        long inicio = System.nanoTime();
+        l.close();
+        l.close();
+
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(10), "El cierre esperó la ventana.");
+        assertEquals(List.of(List.of(1)), lotes);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> l.agregar(2, String::valueOf));
+        assertEquals("Cerrado.", e.getMessage());
+    }
+
+    @Test
+    void rechazaParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> lotes(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> lotes(0, 0));
+    }
+
+    private <V> LotesPorVentana<Integer, V> lotes(long ventanaMs, int maxLote) {
+        return new LotesPorVentana<>("prueba", "Cerrado.", ventanaMs, maxLote, this::registrar);
+    }
+
+    private synchronized void registrar(Map<Integer, ?> lote) {
+        lotes.add(new ArrayList<>(lote.keySet()));
+    }
+}
@@ -0,0 +1,184 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class VueloUnicoTest {
+
+    private static final int SEGUIDORES = 4;
+
+    private final VueloUnico<Integer, List<String>> vuelos = new VueloUnico<>(ArrayList::new);
+
+    @Test
+    void sinConcurrenciaDevuelveElValorOriginal() throws SQLException {
+        List<String> valor = new ArrayList<>(List.of("a"));
+        assertSame(valor, vuelos.ejecutar(1, k -> valor));
+        assertNull(vuelos.ejecutar(2, k -> null));
+    }
+
+    @Test
+    void losPedidosConcurrentesCompartenUnaSolaCargaYRecibenCopias() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<List<String>> resultados = new ArrayList<>();
+        List<Throwable> errores = new ArrayList<>();
+
+        Thread lider = hilo(() -> guardar(resultados, vuelos.ejecutar(1, k -> {
+            cargas.incrementAndGet();
+            iniciada.countDown();
+            esperar(liberar);
+            return new ArrayList<>(List.of("valor"));
+        })), errores);
+        lider.start();
+        assertTrue(iniciada.await(10, TimeUnit.SECONDS));
+
+        List<Thread> seguidores = new ArrayList<>();
+        for (int i = 0; i < SEGUIDORES; i++) {
+            Thread t = hilo(() -> guardar(resultados, vuelos.ejecutar(1, k -> {
+                cargas.incrementAndGet();
+                return new ArrayList<>(List.of("otra carga"));
+            })), errores);
+            seguidores.add(t);
+            t.start();
+        }
+        esperarBloqueados(seguidores);
+        liberar.countDown();
+        lider.join(10_000);
+        for (Thread t : seguidores) {
+            t.join(10_000);
+        }
+
+        assertTrue(errores.isEmpty(), "Errores: " + errores);
+        assertEquals(1, cargas.get());
+        assertEquals(SEGUIDORES + 1, resultados.size());
+        for (int i = 0; i < resultados.size(); i++) {
+            assertEquals(List.of("valor"), resultados.get(i));
+            for (int j = i + 1; j < resultados.size(); j++) {
+                assertNotSame(resultados.get(i), resultados.get(j));
+            }
+        }
+    }
+
+    @Test
+    void unaSQLExceptionLlegaATodosLosQueEsperaban() throws Exception {
+        List<Throwable> errores = compartirFallo(new SQLException("Sin conexión", "08S01", 0));
+
+        assertEquals(SEGUIDORES + 1, errores.size());
+        for (Throwable e : errores) {
+            SQLException s = assertInstanceOf(SQLException.class, e);
+            assertEquals("Sin conexión", s.getMessage());
+            assertEquals("08S01", s.getSQLState());
+        }
+    }
+
+    @Test
+    void unaRuntimeExceptionLlegaATodosLosQueEsperaban() throws Exception {
+        IllegalStateException fallo = new IllegalStateException("Roto");
+        List<Throwable> errores = compartirFallo(fallo);
+
+        assertEquals(SEGUIDORES + 1, errores.size());
+        for (Throwable e : errores) {
+            assertSame(fallo, e);
+        }
+    }
+
+    @Test
+    void trasUnFalloLaSiguienteCargaSeEjecutaDeNuevo() throws SQLException {
+        assertThrows(SQLException.class, () -> vuelos.ejecutar(1, k -> {
+            throw new SQLException("Falla");
+        }));
+        assertEquals(List.of("ok"), vuelos.ejecutar(1, k -> new ArrayList<>(List.of("ok"))));
+    }
+
+    /**
+     * Hace fallar una carga mientras {@link #SEGUIDORES} hilos la esperan y devuelve lo que recibió cada uno.
+     */
+    private List<Throwable> compartirFallo(Exception fallo) throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Throwable> errores = new ArrayList<>();
+
+        Thread lider = hilo(() -> vuelos.ejecutar(1, k -> {
+            iniciada.countDown();
+            esperar(liberar);
+            if (fallo instanceof SQLException) {
+                throw (SQLException) fallo;
+            }
+            throw (RuntimeException) fallo;
+        }), errores);
+        lider.start();
+        assertTrue(iniciada.await(10, TimeUnit.SECONDS));
+
+        List<Thread> seguidores = new ArrayList<>();
+        for (int i = 0; i < SEGUIDORES; i++) {
+            Thread t = hilo(() -> vuelos.ejecutar(1, k -> new ArrayList<>()), errores);
+            seguidores.add(t);
+            t.start();
+        }
+        esperarBloqueados(seguidores);
+        liberar.countDown();
+        lider.join(10_000);
+        for (Thread t : seguidores) {
+            t.join(10_000);
+        }
+        return errores;
+    }
+
+    /**
+     * Espera a que los hilos estén bloqueados esperando el resultado compartido.
+     */
+    private static void esperarBloqueados(List<Thread> hilos) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Thread t : hilos) {
+            while (t.getState() != Thread.State.WAITING && t.getState() != Thread.State.TIMED_WAITING) {
+                assertTrue(System.nanoTime() < limite, "El hilo no llegó a esperar: " + t.getState());
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void guardar(List<List<String>> resultados, List<String> valor) {
+        synchronized (resultados) {
+            resultados.add(valor);
+        }
+    }
+
+    private static Thread hilo(Tarea tarea, List<Throwable> errores) {
+        return new Thread(() -> {
+            try {
+                tarea.ejecutar();
+            } catch (Throwable e) {
+                synchronized (errores) {
+                    errores.add(e);
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Tarea {
+        void ejecutar() throws Exception;
+    }
+}